@@ -432,6 +432,9 @@ public class MekHQ implements GameListener {
     }
 
     public void setCampaign(Campaign c) {
+    	if ((null != campaign) && (campaign != c)) {
+    		campaign.dispose();
+    	}
     	campaign = c;
     }
 
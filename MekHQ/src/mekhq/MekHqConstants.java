@@ -28,6 +28,9 @@ public final class MekHqConstants {
     public static final String SAVE_WEEKLY_KEY = "saveWeekly";
     public static final String SAVE_BEFORE_MISSIONS_KEY = "saveBeforeMissions";
     public static final String MAXIMUM_NUMBER_SAVES_KEY = "maximumNumberAutoSaves";
+    public static final String SAVE_COMPRESSION_LEVEL_KEY = "saveCompressionLevel";
+    public static final String SAVE_IN_BACKGROUND_KEY = "saveInBackground";
+    public static final String SAVE_AS_JOURNAL_KEY = "saveAsJournal";
 
     public static final int DEFAULT_NUMBER_SAVES = 5;
 }
@@ -11,6 +11,10 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.Result;
 import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
@@ -23,6 +27,7 @@ import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathFactory;
 
 import org.apache.commons.text.StringEscapeUtils;
+import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
@@ -51,6 +56,15 @@ public class MekHqXmlUtil {
     private static DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY;
     private static DocumentBuilderFactory UNSAFE_DOCUMENT_BUILDER_FACTORY;
     private static SAXParserFactory SAX_PARSER_FACTORY;
+    private static XMLInputFactory XML_INPUT_FACTORY;
+
+    private static final String[] INDENTS = new String[16];
+    static {
+        INDENTS[0] = "";
+        for (int x = 1; x < INDENTS.length; x++) {
+            INDENTS[x] = INDENTS[x - 1] + "\t";
+        }
+    }
     private static XPath XPATH_INSTANCE;
 
     public static XPath getXPathInstance() {
@@ -186,64 +200,184 @@ public class MekHqXmlUtil {
         return new SAXSource(createSafeXMLReader(), new InputSource(inputStream));
     }
 
-    public static void writeSimpleXmlTag(PrintWriter pw1, int indent, String name, String val) {
-        for (int x=0; x<indent; x++) {
-            pw1.print("\t");
+    /**
+     * Creates a StAX reader safe from XML external entities attacks, and XML entity
+     * expansion attacks. Adjacent text and CDATA sections are coalesced, matching
+     * what callers of a normalized DOM expect.
+     * @return An XMLStreamReader safe to use to read untrusted XML.
+     */
+    public static XMLStreamReader createSafeXMLStreamReader(InputStream inputStream) throws XMLStreamException {
+        XMLInputFactory xif = XML_INPUT_FACTORY;
+        if (null == xif) {
+            // As with the DocumentBuilderFactory, it is Ok to end up
+            // with more than one instance of the factory.
+            xif = XMLInputFactory.newInstance();
+
+            // For background, see newSafeDocumentBuilder()
+            xif.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            xif.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            xif.setProperty(XMLInputFactory.IS_COALESCING, true);
+
+            XML_INPUT_FACTORY = xif;
         }
 
-        pw1.print("<"+name+">");
-        pw1.print(escape(val));
-        pw1.println("</"+name+">");
+        return xif.createXMLStreamReader(inputStream);
     }
 
-    public static void writeSimpleXmlTag(PrintWriter pw1, int indent, String name, int val) {
-        for (int x=0; x<indent; x++) {
-            pw1.print("\t");
+    /**
+     * Advances the reader to the next child element of the current element, skipping
+     * text, comments and processing instructions.
+     * @return true if the reader is positioned on the start of a child element, false if
+     *         the end of the current element (or document) was reached instead
+     */
+    public static boolean nextChildElement(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    return true;
+                case XMLStreamConstants.END_ELEMENT:
+                case XMLStreamConstants.END_DOCUMENT:
+                    return false;
+                default:
+                    break;
+            }
         }
+        return false;
+    }
 
-        pw1.print("<"+name+">");
-        pw1.print(val);
-        pw1.println("</"+name+">");
+    /**
+     * Skips the element the reader is positioned on, including all of its children,
+     * without building anything. The reader is left on the matching end element.
+     */
+    public static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    break;
+                default:
+                    break;
+            }
+        }
     }
 
-    public static void writeSimpleXmlTag(PrintWriter pw1, int indent, String name, boolean val) {
-        for (int x=0; x<indent; x++) {
-            pw1.print("\t");
+    /**
+     * Builds a detached DOM element for the element the reader is positioned on, so that
+     * a single node of a large document can be handed to the existing DOM based parsers.
+     * The reader is left on the matching end element.
+     *
+     * @param reader the reader, positioned on a start element
+     * @param doc    the document used to create the nodes; they are not attached to it
+     * @return the element and all of its children
+     */
+    public static Element readElement(XMLStreamReader reader, Document doc) throws XMLStreamException {
+        Element root = createElement(reader, doc);
+        Node current = root;
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    Element child = createElement(reader, doc);
+                    current.appendChild(child);
+                    current = child;
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    current = current.getParentNode();
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.SPACE:
+                    current.appendChild(doc.createTextNode(reader.getText()));
+                    break;
+                case XMLStreamConstants.CDATA:
+                    current.appendChild(doc.createCDATASection(reader.getText()));
+                    break;
+                default:
+                    break;
+            }
+        }
+        return root;
+    }
+
+    private static Element createElement(XMLStreamReader reader, Document doc) {
+        Element element = doc.createElement(reader.getLocalName());
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            element.setAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
         }
+        return element;
+    }
 
-        pw1.print("<"+name+">");
+    public static void writeSimpleXmlTag(PrintWriter pw1, int indent, String name, String val) {
+        pw1.print(indentStr(indent));
+        pw1.print('<');
+        pw1.print(name);
+        pw1.print('>');
+        pw1.print(escape(val));
+        pw1.print("</");
+        pw1.print(name);
+        pw1.println('>');
+    }
+
+    public static void writeSimpleXmlTag(PrintWriter pw1, int indent, String name, int val) {
+        pw1.print(indentStr(indent));
+        pw1.print('<');
+        pw1.print(name);
+        pw1.print('>');
         pw1.print(val);
-        pw1.println("</"+name+">");
+        pw1.print("</");
+        pw1.print(name);
+        pw1.println('>');
     }
 
-    public static void writeSimpleXmlTag(PrintWriter pw1, int indent, String name, long val) {
-        for (int x=0; x<indent; x++) {
-            pw1.print("\t");
-        }
+    public static void writeSimpleXmlTag(PrintWriter pw1, int indent, String name, boolean val) {
+        pw1.print(indentStr(indent));
+        pw1.print('<');
+        pw1.print(name);
+        pw1.print('>');
+        pw1.print(val);
+        pw1.print("</");
+        pw1.print(name);
+        pw1.println('>');
+    }
 
-        pw1.print("<"+name+">");
+    public static void writeSimpleXmlTag(PrintWriter pw1, int indent, String name, long val) {
+        pw1.print(indentStr(indent));
+        pw1.print('<');
+        pw1.print(name);
+        pw1.print('>');
         pw1.print(val);
-        pw1.println("</"+name+">");
+        pw1.print("</");
+        pw1.print(name);
+        pw1.println('>');
     }
 
     public static void writeSimpleXmlTag(PrintWriter pw1, int indent, String name, double val) {
-        for (int x=0; x<indent; x++) {
-            pw1.print("\t");
-        }
-
-        pw1.print("<"+name+">");
+        pw1.print(indentStr(indent));
+        pw1.print('<');
+        pw1.print(name);
+        pw1.print('>');
         pw1.print(val);
-        pw1.println("</"+name+">");
+        pw1.print("</");
+        pw1.print(name);
+        pw1.println('>');
     }
 
     public static String indentStr(int level) {
-        String retVal = "";
+        if (level < INDENTS.length) {
+            return INDENTS[Math.max(level, 0)];
+        }
 
+        StringBuilder retVal = new StringBuilder(level);
         for (int x=0; x<level; x++) {
-            retVal += "\t";
+            retVal.append('\t');
         }
 
-        return retVal;
+        return retVal.toString();
     }
 
     public static String xmlToString(Node node) throws TransformerException {
@@ -665,9 +799,34 @@ public class MekHqXmlUtil {
       * @return An encoded copy of the string
       */
     public static String escape(String string) {
+        if (!needsEscaping(string)) {
+            return string;
+        }
         return StringEscapeUtils.escapeXml10(string);
     }
 
+    /**
+     * Most strings written to a campaign file are plain text, so check for anything
+     * {@link StringEscapeUtils#escapeXml10(String)} would change before paying for it.
+     */
+    private static boolean needsEscaping(String string) {
+        if (null == string) {
+            return false;
+        }
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c < 0x20) {
+                if ((c != '\t') && (c != '\n') && (c != '\r')) {
+                    return true;
+                }
+            } else if ((c == '&') || (c == '<') || (c == '>') || (c == '"') || (c == '\'')
+                    || ((c >= 0x7f) && (c <= 0x9f)) || (c >= 0xd800)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Unescape...well, it reverses escaping...
      */
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2020 - The MegaMek Team
+ *
+ * This file is part of MekHQ.
+ *
+ * MekHQ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MekHQ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MekHQ.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mekhq.campaign;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import megamek.common.event.Subscribe;
+import megamek.common.logging.LogLevel;
+import mekhq.MekHQ;
+import mekhq.campaign.event.PartArrivedEvent;
+import mekhq.campaign.event.ReportEvent;
+import mekhq.campaign.finances.Loan;
+import mekhq.campaign.mission.Contract;
+import mekhq.campaign.personnel.Person;
+
+/**
+ * Advances a campaign by several days in one go.
+ * <p>
+ * While it runs, report events are held back so that the daily log is not redrawn after every
+ * line, and the autosave that {@link Campaign#newDay()} would request every day is requested
+ * only once, after the last day. The reports of every day advanced are handed back in one list.
+ * The run stops early, after the day on which it happened, on any of the selected
+ * {@link Interrupt}s.
+ */
+public class AdvanceDaysEngine {
+
+    /**
+     * Things that happen during a day which stop the advance at the end of that day.
+     */
+    public enum Interrupt {
+        /** A contract begins */
+        CONTRACT_START,
+        /** An ordered part is delivered */
+        PART_ARRIVAL,
+        /** Someone is hurt or gains an injury */
+        INJURY,
+        /** A loan payment could not be made */
+        LOAN_DEFAULT
+    }
+
+    /**
+     * Lets the caller veto each day before it is advanced, e.g. to ask the player to deal with
+     * something first.
+     */
+    @FunctionalInterface
+    public interface DayCheck {
+        /** @return <code>true</code> if the next day may be advanced */
+        boolean canAdvanceDay();
+    }
+
+    private final Campaign campaign;
+    private final Set<Interrupt> interrupts;
+
+    private boolean partArrived;
+
+    public AdvanceDaysEngine(Campaign campaign, Set<Interrupt> interrupts) {
+        this.campaign = campaign;
+        this.interrupts = interrupts.isEmpty() ? EnumSet.noneOf(Interrupt.class) : EnumSet.copyOf(interrupts);
+    }
+
+    /**
+     * Advances up to the given number of days.
+     *
+     * @param days     the number of days to advance
+     * @param dayCheck asked before each day whether it may be advanced, may be null
+     * @return what happened
+     */
+    public Result advance(int days, DayCheck dayCheck) {
+        final String METHOD_NAME = "advance(int,DayCheck)"; //$NON-NLS-1$
+
+        List<String> reports = new ArrayList<>();
+        Interrupt interrupt = null;
+        int advanced = 0;
+        Integer autosaveDayOfWeek = null;
+
+        long start = System.nanoTime();
+        MekHQ.registerHandler(this);
+        try {
+            while ((advanced < days) && (null == interrupt)) {
+                if ((null != dayCheck) && !dayCheck.canAdvanceDay()) {
+                    break;
+                }
+
+                Set<Contract> activeContracts = new HashSet<>(campaign.getActiveContracts());
+                Map<UUID, Injuries> injuries = interrupts.contains(Interrupt.INJURY) ? countInjuries() : null;
+                int dayOfWeek = campaign.getCalendar().get(Calendar.DAY_OF_WEEK);
+                partArrived = false;
+
+                if (!campaign.newDay(false)) {
+                    break;
+                }
+                advanced++;
+                // One autosave covers the whole run, as a weekly one if we passed a Sunday
+                if ((null == autosaveDayOfWeek) || (autosaveDayOfWeek != Calendar.SUNDAY)) {
+                    autosaveDayOfWeek = dayOfWeek;
+                }
+
+                if (!reports.isEmpty()) {
+                    reports.add("<hr/>"); //$NON-NLS-1$
+                }
+                reports.addAll(campaign.fetchAndClearNewReports());
+
+                interrupt = checkInterrupts(activeContracts, injuries);
+            }
+        } finally {
+            MekHQ.unregisterHandler(this);
+        }
+
+        if (null != autosaveDayOfWeek) {
+            campaign.requestDayAdvanceAutosave(autosaveDayOfWeek);
+        }
+
+        Result result = new Result(advanced, interrupt, reports, (System.nanoTime() - start) / 1000000L);
+        MekHQ.getLogger().log(AdvanceDaysEngine.class, METHOD_NAME, LogLevel.INFO,
+                String.format("Advanced %d of %d days in %dms (%.1f days/s)%s", advanced, days, //$NON-NLS-1$
+                        result.getElapsedMillis(), result.getDaysPerSecond(),
+                        (null == interrupt) ? "" : ", stopped by " + interrupt)); //$NON-NLS-1$ //$NON-NLS-2$
+        return result;
+    }
+
+    private Interrupt checkInterrupts(Set<Contract> activeContracts, Map<UUID, Injuries> injuries) {
+        if (interrupts.contains(Interrupt.CONTRACT_START)) {
+            for (Contract contract : campaign.getActiveContracts()) {
+                if (!activeContracts.contains(contract)) {
+                    return Interrupt.CONTRACT_START;
+                }
+            }
+        }
+        if (interrupts.contains(Interrupt.PART_ARRIVAL) && partArrived) {
+            return Interrupt.PART_ARRIVAL;
+        }
+        if (interrupts.contains(Interrupt.INJURY) && isAnyoneHurt(injuries)) {
+            return Interrupt.INJURY;
+        }
+        if (interrupts.contains(Interrupt.LOAN_DEFAULT)) {
+            for (Loan loan : campaign.getFinances().getAllLoans()) {
+                if (loan.isOverdue()) {
+                    return Interrupt.LOAN_DEFAULT;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The hits and number of injuries of one person at the start of a day
+     */
+    private static class Injuries {
+        private final int hits;
+        private final int injuries;
+
+        private Injuries(Person p) {
+            hits = p.getHits();
+            injuries = p.getInjuries().size();
+        }
+    }
+
+    /**
+     * @return the hits and injuries of each person, by id
+     */
+    private Map<UUID, Injuries> countInjuries() {
+        Map<UUID, Injuries> retVal = new HashMap<>();
+        for (Person p : campaign.getPersonnel()) {
+            retVal.put(p.getId(), new Injuries(p));
+        }
+        return retVal;
+    }
+
+    /**
+     * @return <code>true</code> if anyone has more hits or injuries than at the start of the day.
+     *         Someone healing doesn't make up for someone else getting hurt.
+     */
+    private boolean isAnyoneHurt(Map<UUID, Injuries> injuries) {
+        for (Person p : campaign.getPersonnel()) {
+            Injuries before = injuries.get(p.getId());
+            int hits = (null == before) ? 0 : before.hits;
+            int count = (null == before) ? 0 : before.injuries;
+            if ((p.getHits() > hits) || (p.getInjuries().size() > count)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Subscribe(priority = 1)
+    public void holdReport(ReportEvent ev) {
+        // The reports are collected from the campaign once per day instead
+        ev.cancel();
+    }
+
+    @Subscribe
+    public void handle(PartArrivedEvent ev) {
+        partArrived = true;
+    }
+
+    /**
+     * The outcome of {@link AdvanceDaysEngine#advance(int, DayCheck)}.
+     */
+    public static class Result {
+        private final int daysAdvanced;
+        private final Interrupt interrupt;
+        private final List<String> reports;
+        private final long elapsedMillis;
+
+        Result(int daysAdvanced, Interrupt interrupt, List<String> reports, long elapsedMillis) {
+            this.daysAdvanced = daysAdvanced;
+            this.interrupt = interrupt;
+            this.reports = reports;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getDaysAdvanced() {
+            return daysAdvanced;
+        }
+
+        /**
+         * @return the interrupt that stopped the run, or null if it was not interrupted
+         */
+        public Interrupt getInterrupt() {
+            return interrupt;
+        }
+
+        /**
+         * @return the daily reports of all days advanced, separated by horizontal rules
+         */
+        public List<String> getReports() {
+            return reports;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public double getDaysPerSecond() {
+            return daysAdvanced * 1000.0 / Math.max(1, elapsedMillis);
+        }
+    }
+}
@@ -28,6 +28,7 @@ import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import javax.swing.JOptionPane;
@@ -65,7 +66,6 @@ import megamek.common.Mech;
 import megamek.common.MechFileParser;
 import megamek.common.MechSummary;
 import megamek.common.MechSummaryCache;
-import megamek.common.MiscType;
 import megamek.common.Mounted;
 import megamek.common.Player;
 import megamek.common.Protomech;
@@ -124,7 +124,6 @@ import mekhq.campaign.mission.Contract;
 import mekhq.campaign.mission.Mission;
 import mekhq.campaign.mission.Scenario;
 import mekhq.campaign.mission.atb.AtBScenarioFactory;
-import mekhq.campaign.mod.am.InjuryUtil;
 import mekhq.campaign.parts.AmmoStorage;
 import mekhq.campaign.parts.Armor;
 import mekhq.campaign.parts.BaArmor;
@@ -137,8 +136,8 @@ import mekhq.campaign.parts.PartInUse;
 import mekhq.campaign.parts.PartInventory;
 import mekhq.campaign.parts.ProtomekArmor;
 import mekhq.campaign.parts.Refit;
+import mekhq.campaign.parts.SparePartIndex;
 import mekhq.campaign.parts.SpacecraftCoolingSystem;
-import mekhq.campaign.parts.StructuralIntegrity;
 import mekhq.campaign.parts.equipment.AmmoBin;
 import mekhq.campaign.parts.equipment.EquipmentPart;
 import mekhq.campaign.parts.equipment.MissingEquipmentPart;
@@ -164,6 +163,7 @@ import mekhq.campaign.unit.UnitTechProgression;
 import mekhq.campaign.universe.Era;
 import mekhq.campaign.universe.Faction;
 import mekhq.campaign.universe.IUnitGenerator;
+import mekhq.campaign.universe.JumpGraph;
 import mekhq.campaign.universe.News;
 import mekhq.campaign.universe.NewsItem;
 import mekhq.campaign.universe.Planet;
@@ -195,8 +195,15 @@ public class Campaign implements Serializable, ITechManager {
     // OK now we have more, parts, personnel, forces, missions, and scenarios.
     private Map<UUID, Unit> units = new LinkedHashMap<>();
     private Map<UUID, Person> personnel = new LinkedHashMap<>();
+    private transient PersonnelRoleIndex personnelRoleIndex;
+    // How many calls of deferCrewUpdates() are still waiting for their applyCrewUpdates()
+    private transient int crewUpdateDeferrals;
+    // Units whose crew changed while crew updates are deferred, by id
+    private transient Map<UUID, Unit> changedCrews;
     private Map<UUID, Ancestors> ancestors = new LinkedHashMap<>();
     private TreeMap<Integer, Part> parts = new TreeMap<>();
+    private transient SparePartIndex sparePartIndex = new SparePartIndex();
+    private transient PartsInUseTracker partsInUseTracker;
     private TreeMap<Integer, Force> forceIds = new TreeMap<>();
     private TreeMap<Integer, Mission> missions = new TreeMap<>();
     private TreeMap<Integer, Scenario> scenarios = new TreeMap<>();
@@ -244,7 +251,8 @@ public class Campaign implements Serializable, ITechManager {
     private Ranks ranks;
 
     private ArrayList<String> currentReport;
-    private transient String currentReportHTML;
+    /** Built up with a StringBuilder, as a busy day can add thousands of report lines */
+    private transient StringBuilder currentReportHTML;
     private transient List<String> newReports;
 
     //this is updated and used per gaming session, it is enabled/disabled via the Campaign options
@@ -300,7 +308,7 @@ public class Campaign implements Serializable, ITechManager {
         CurrencyManager.getInstance().setCampaign(this);
         campaignOptions = new CampaignOptions();
         currentReport = new ArrayList<>();
-        currentReportHTML = "";
+        currentReportHTML = new StringBuilder();
         newReports = new ArrayList<>();
         dateFormat = "EEEE, MMMM d yyyy";
         shortDateFormat = "yyyyMMdd";
@@ -331,7 +339,7 @@ public class Campaign implements Serializable, ITechManager {
         game.setOptions(gameOptions);
         customs = new ArrayList<>();
         shoppingList = new ShoppingList();
-        news = new News(getGameYear(), id.getLeastSignificantBits());
+        news = new News();
         personnelMarket = new PersonnelMarket();
         contractMarket = new ContractMarket();
         unitMarket = new UnitMarket();
@@ -1330,6 +1338,64 @@ public class Campaign implements Serializable, ITechManager {
         return personnel.values();
     }
 
+    /**
+     * Collects the units whose crew changed instead of updating them right away, until
+     * {@link #applyCrewUpdates()} is called. Used while many people are processed at once,
+     * where the same unit would otherwise be updated again for every member of its crew.
+     * <p>
+     * Deferrals nest: the units are only updated when every call has been matched by a call of
+     * {@link #applyCrewUpdates()}. Like the units themselves, this may only be used on the thread
+     * working on the campaign.
+     */
+    public void deferCrewUpdates() {
+        crewUpdateDeferrals++;
+    }
+
+    public boolean isDeferringCrewUpdates() {
+        return crewUpdateDeferrals > 0;
+    }
+
+    /**
+     * Updates the crew of a unit, or remembers it to update once when the deferred crew updates
+     * are applied.
+     */
+    public void crewChanged(Unit u) {
+        if (!isDeferringCrewUpdates()) {
+            u.resetPilotAndEntity();
+            return;
+        }
+        if (null == changedCrews) {
+            changedCrews = new LinkedHashMap<>();
+        }
+        changedCrews.putIfAbsent(u.getId(), u);
+    }
+
+    /**
+     * Ends one {@link #deferCrewUpdates()}. If it was the last one, updates each unit whose crew
+     * changed in the meantime.
+     */
+    public void applyCrewUpdates() {
+        if (!isDeferringCrewUpdates()) {
+            return;
+        }
+        crewUpdateDeferrals--;
+        if (isDeferringCrewUpdates() || (null == changedCrews)) {
+            return;
+        }
+        Collection<Unit> changed = changedCrews.values();
+        changedCrews = null;
+        for (Unit u : changed) {
+            u.resetPilotAndEntity();
+        }
+    }
+
+    private PersonnelRoleIndex getPersonnelRoleIndex() {
+        if (null == personnelRoleIndex) {
+            personnelRoleIndex = new PersonnelRoleIndex(this);
+        }
+        return personnelRoleIndex;
+    }
+
     /**
      * Provides a filtered list of personnel including only active Persons.
      * @return ArrayList<Person>
@@ -1448,6 +1514,7 @@ public class Campaign implements Serializable, ITechManager {
             }
         }
         parts.put(id, p);
+        sparePartIndex.add(p);
         lastPartId = id;
         MekHQ.triggerEvent(new PartNewEvent(p));
     }
@@ -1548,6 +1615,7 @@ public class Campaign implements Serializable, ITechManager {
         // If we weren't merged we are being added
         if (null == mergedWith) {
             parts.put(p.getId(), p);
+            sparePartIndex.add(p);
             MekHQ.triggerEvent(new PartNewEvent(p));
         } else {
             // Go through each unit and its refits to see if the new armor ID should be updated
@@ -1598,104 +1666,20 @@ public class Campaign implements Serializable, ITechManager {
         return parts.values();
     }
 
-    private int getQuantity(Part p) {
-        if(p instanceof Armor) {
-            return ((Armor) p).getAmount();
-        }
-        if(p instanceof AmmoStorage) {
-            return ((AmmoStorage) p).getShots();
-        }
-        return ((p.getUnit() != null) || (p.getUnitId() != null)) ? 1 : p.getQuantity();
-    }
-
-    private PartInUse getPartInUse(Part p) {
-        // SI isn't a proper "part"
-        if (p instanceof StructuralIntegrity) {
-            return null;
-        }
-        // Makes no sense buying those separately from the chasis
-        if((p instanceof EquipmentPart)
-                && ((EquipmentPart) p).getType() != null
-                && (((EquipmentPart) p).getType().hasFlag(MiscType.F_CHASSIS_MODIFICATION)))
-        {
-            return null;
-        }
-        // Replace a "missing" part with a corresponding "new" one.
-        if(p instanceof MissingPart) {
-            p = ((MissingPart) p).getNewPart();
-        }
-        PartInUse result = new PartInUse(p);
-        return (null != result.getPartToBuy()) ? result : null;
-    }
-
-    private void updatePartInUseData(PartInUse piu, Part p) {
-        if ((p.getUnit() != null) || (p.getUnitId() != null) || (p instanceof MissingPart)) {
-            piu.setUseCount(piu.getUseCount() + getQuantity(p));
-        } else {
-            if(p.isPresent()) {
-                piu.setStoreCount(piu.getStoreCount() + getQuantity(p));
-            } else {
-                piu.setTransferCount(piu.getTransferCount() + getQuantity(p));
-            }
+    private PartsInUseTracker getPartsInUseTracker() {
+        if (null == partsInUseTracker) {
+            partsInUseTracker = new PartsInUseTracker(this);
         }
+        return partsInUseTracker;
     }
 
     /** Update the piu with the current campaign data */
     public void updatePartInUse(PartInUse piu) {
-        piu.setUseCount(0);
-        piu.setStoreCount(0);
-        piu.setTransferCount(0);
-        piu.setPlannedCount(0);
-        for(Part p : getParts()) {
-            PartInUse newPiu = getPartInUse(p);
-            if(piu.equals(newPiu)) {
-                updatePartInUseData(piu, p);
-            }
-        }
-        for(IAcquisitionWork maybePart : shoppingList.getPartList()) {
-            PartInUse newPiu = getPartInUse((Part) maybePart);
-            if(piu.equals(newPiu)) {
-                piu.setPlannedCount(piu.getPlannedCount()
-                        + getQuantity((maybePart instanceof MissingPart) ? ((MissingPart) maybePart).getNewPart()
-                                : (Part) maybePart) * maybePart.getQuantity());
-            }
-        }
+        getPartsInUseTracker().updatePartInUse(piu);
     }
 
     public Set<PartInUse> getPartsInUse() {
-        // java.util.Set doesn't supply a get(Object) method, so we have to use a java.util.Map
-        Map<PartInUse, PartInUse> inUse = new HashMap<PartInUse, PartInUse>();
-        for(Part p : getParts()) {
-            PartInUse piu = getPartInUse(p);
-            if(null == piu) {
-                continue;
-            }
-            if( inUse.containsKey(piu) ) {
-                piu = inUse.get(piu);
-            } else {
-                inUse.put(piu, piu);
-            }
-            updatePartInUseData(piu, p);
-        }
-        for(IAcquisitionWork maybePart : shoppingList.getPartList()) {
-            if(!(maybePart instanceof Part)) {
-                continue;
-            }
-            PartInUse piu = getPartInUse((Part) maybePart);
-            if(null == piu) {
-                continue;
-            }
-            if( inUse.containsKey(piu) ) {
-                piu = inUse.get(piu);
-            } else {
-                inUse.put(piu, piu);
-            }
-            piu.setPlannedCount(piu.getPlannedCount()
-                    + getQuantity((maybePart instanceof MissingPart) ? ((MissingPart) maybePart).getNewPart()
-                            : (Part) maybePart) * maybePart.getQuantity());
-
-        }
-        return inUse.keySet();
+        return getPartsInUseTracker().getPartsInUse();
     }
 
     public Part getPart(int id) {
@@ -1711,11 +1695,11 @@ public class Campaign implements Serializable, ITechManager {
     }
 
     public void setCurrentReportHTML(String html) {
-        currentReportHTML = html;
+        currentReportHTML = new StringBuilder(html);
     }
 
     public String getCurrentReportHTML() {
-        return currentReportHTML;
+        return currentReportHTML.toString();
     }
 
     public void setNewReports(List<String> reports) {
@@ -1745,7 +1729,7 @@ public class Campaign implements Serializable, ITechManager {
     public Person findBestInRole(int role, String primary, String secondary) {
         int highest = 0;
         Person retVal = null;
-        for (Person p : getPersonnel()) {
+        for (Person p : getPersonnelRoleIndex().getPeopleInRoles(role)) {
             if (p.isActive() && (p.getPrimaryRole() == role || p.getSecondaryRole() == role)
                     && p.getSkill(primary) != null) {
                 if (p.getSkill(primary).getLevel() > highest) {
@@ -1800,7 +1784,8 @@ public class Campaign implements Serializable, ITechManager {
             techs.add(firstTech);
         }
 
-        for (Person p : getPersonnel()) {
+        for (Person p : getPersonnelRoleIndex().getPeopleInRoles(Person.T_MECH_TECH, Person.T_AERO_TECH,
+                Person.T_MECHANIC, Person.T_BA_TECH, Person.T_SPACE_CREW)) {
             if (p.isTech() && p.isActive() && (!p.equals(firstTech)) && (!noZeroMinute || (p.getMinutesLeft() > 0))) {
                 techs.add(p);
             }
@@ -1815,32 +1800,14 @@ public class Campaign implements Serializable, ITechManager {
         // Return the tech collection sorted worst to best
         // Reverse the sort if we've been asked for best to worst
         if (sorted) {
-            Collections.sort(techs, new Comparator<Person>() {
-                @Override
-                public int compare(Person person1, Person person2) {
-                    // default to 0, which means they're equal
-                    int retVal = 0;
-
-                    // Set up booleans to know if the tech is secondary only
-                    // this is to get the skill from getExperienceLevel(boolean) properly
-                    boolean p1Secondary = !person1.isTechPrimary() && person1.isTechSecondary();
-                    boolean p2Secondary = !person2.isTechPrimary() && person2.isTechSecondary();
-
-                    if (person1.getExperienceLevel(p1Secondary)
-                            > person2.getExperienceLevel(p2Secondary)) {
-                        // Person 1 is better than Person 2.
-                        retVal = -1;
-                    } else if (person1.getExperienceLevel(p1Secondary)
-                            < person2.getExperienceLevel(p2Secondary)) {
-                        // Person 2 is better than Person 1
-                        retVal = 1;
-                    }
-
-                    // Return, swapping the value if we're looking to have Elites ordered first
-                    return eliteFirst ? retVal *= -1 : retVal;
-                }
-
-            });
+            // Work out every experience level once instead of again for each comparison
+            Map<Person, Integer> levels = new IdentityHashMap<>();
+            for (Person tech : techs) {
+                // A tech who is secondary only gets the experience level of the secondary role
+                levels.put(tech, tech.getExperienceLevel(!tech.isTechPrimary() && tech.isTechSecondary()));
+            }
+            Comparator<Person> highestFirst = Comparator.comparing(levels::get, Comparator.reverseOrder());
+            techs.sort(eliteFirst ? highestFirst.reversed() : highestFirst);
         }
 
         return techs;
@@ -1878,7 +1845,8 @@ public class Campaign implements Serializable, ITechManager {
 
     public List<Person> getAdmins() {
         List<Person> admins = new ArrayList<Person>();
-        for (Person p : getPersonnel()) {
+        for (Person p : getPersonnelRoleIndex().getPeopleInRoles(Person.T_ADMIN_COM, Person.T_ADMIN_HR,
+                Person.T_ADMIN_LOG, Person.T_ADMIN_TRA)) {
             if (p.isAdmin() && p.isActive()) {
                 admins.add(p);
             }
@@ -1901,7 +1869,7 @@ public class Campaign implements Serializable, ITechManager {
 
     public ArrayList<Person> getDoctors() {
         ArrayList<Person> docs = new ArrayList<Person>();
-        for (Person p : getPersonnel()) {
+        for (Person p : getPersonnelRoleIndex().getPeopleInRoles(Person.T_DOCTOR)) {
             if (p.isDoctor() && p.isActive()) {
                 docs.add(p);
             }
@@ -2135,26 +2103,42 @@ public class Campaign implements Serializable, ITechManager {
             List<Planet> planets = Planets.getInstance().getShoppingPlanets(getCurrentPlanet(),
                     getCampaignOptions().getMaxJumpsPlanetaryAcquisition(), currentDate);
 
+            // The target for each item before planetary modifiers doesn't change during the
+            // trip, so it is only worked out once
+            Map<IAcquisitionWork, TargetRoll> itemTargets = new IdentityHashMap<>();
+
             for (Planet planet : planets) {
                 ArrayList<IAcquisitionWork> remainingItems = new ArrayList<IAcquisitionWork>();
+                // The planetary modifiers for inner sphere and clan items, worked out when first needed
+                TargetRoll[] planetMods = new TargetRoll[2];
+                // Everything found on this planet is delivered together
+                int transitTime = -1;
+                List<String> foundItems = new ArrayList<>();
 
                 // loop through shopping list. If its time to check, then check as appropriate.
                 // Items not
                 // found get added to the remaining item list
                 for (IAcquisitionWork shoppingItem : currentList) {
                     if (shoppingItem.getDaysToWait() <= 0) {
-                        if (findContactForAcquisition(shoppingItem, person, planet)) {
-                            int transitTime = calculatePartTransitTime(planet);
+                        int clan = (shoppingItem.getTechBase() == Part.T_CLAN) ? 1 : 0;
+                        if (null == planetMods[clan]) {
+                            planetMods[clan] = planet.getAcquisitionMods(new TargetRoll(), getDate(),
+                                    getCampaignOptions(), getFaction(), clan == 1);
+                        }
+                        TargetRoll itemTarget = itemTargets.computeIfAbsent(shoppingItem,
+                                item -> getTargetForAcquisition(item, person, false));
+                        if (findContactForAcquisition(shoppingItem, planet,
+                                addPlanetaryMods(copyTarget(itemTarget), planetMods[clan]))) {
+                            if (transitTime < 0) {
+                                transitTime = calculatePartTransitTime(planet);
+                            }
                             int totalQuantity = 0;
-                            while (shoppingItem.getQuantity() > 0
-                                    && acquireEquipment(shoppingItem, person, planet, transitTime)) {
+                            while (shoppingItem.getQuantity() > 0 && acquireEquipment(shoppingItem, person,
+                                    copyTarget(itemTarget), planetMods[clan], transitTime)) {
                                 totalQuantity++;
                             }
                             if (totalQuantity > 0) {
-                                addReport(personTitle + "<font color='green'><b> found "
-                                        + shoppingItem.getQuantityName(totalQuantity) + " on "
-                                        + planet.getName(currentDate) + ". Delivery in " + transitTime
-                                        + " days.</b></font>");
+                                foundItems.add(shoppingItem.getQuantityName(totalQuantity));
                             }
                         }
                     }
@@ -2172,6 +2156,12 @@ public class Campaign implements Serializable, ITechManager {
                         }
                     }
                 }
+                if (!foundItems.isEmpty()) {
+                    addReport(personTitle + "<font color='green'><b> found "
+                            + String.join(", ", foundItems) + " on "
+                            + planet.getName(currentDate) + ". Delivery in " + transitTime
+                            + " days.</b></font>");
+                }
                 // we are done with this planet. replace our current list with the remaining
                 // items
                 currentList = remainingItems;
@@ -2217,11 +2207,18 @@ public class Campaign implements Serializable, ITechManager {
      * @return true if your target roll succeeded.
      */
     public boolean findContactForAcquisition(IAcquisitionWork acquisition, Person person, Planet planet) {
-        DateTime currentDate = Utilities.getDateTimeDay(getCalendar());
         TargetRoll target = getTargetForAcquisition(acquisition, person, false);
         target = planet.getAcquisitionMods(target, getDate(), getCampaignOptions(), getFaction(),
                 acquisition.getTechBase() == Part.T_CLAN);
+        return findContactForAcquisition(acquisition, planet, target);
+    }
 
+    /**
+     * Make an acquisition roll for a given planet to see if you can identify a contact, against
+     * a target which already includes the planetary modifiers.
+     */
+    private boolean findContactForAcquisition(IAcquisitionWork acquisition, Planet planet, TargetRoll target) {
+        DateTime currentDate = Utilities.getDateTimeDay(getCalendar());
         if (target.getValue() == TargetRoll.IMPOSSIBLE) {
             if(getCampaignOptions().usePlanetAcquisitionVerboseReporting()) {
                 addReport("<font color='red'><b>Can't search for " + acquisition.getAcquisitionName() + " on " + planet.getName(currentDate) + " because:</b></font> " + target.getDesc());
@@ -2250,18 +2247,41 @@ public class Campaign implements Serializable, ITechManager {
      * @return a boolean indicating whether the attempt to acquire equipment was successful.
      */
     public boolean acquireEquipment(IAcquisitionWork acquisition, Person person) {
-        return acquireEquipment(acquisition, person, null, -1);
+        return acquireEquipment(acquisition, person, getTargetForAcquisition(acquisition, person, false), null, -1);
+    }
+
+    /** @return a new target with the same modifiers as the given one */
+    private static TargetRoll copyTarget(TargetRoll target) {
+        TargetRoll copy = new TargetRoll();
+        copy.append(target);
+        return copy;
+    }
+
+    /**
+     * Adds the planetary modifiers worked out by {@link Planet#getAcquisitionMods} for an empty
+     * target to the given target.
+     *
+     * @return the target, or the planetary modifiers if they make the acquisition impossible
+     */
+    private static TargetRoll addPlanetaryMods(TargetRoll target, TargetRoll planetMods) {
+        if (planetMods.getValue() == TargetRoll.IMPOSSIBLE) {
+            return planetMods;
+        }
+        target.append(planetMods);
+        return target;
     }
 
     /***
      * Attempt to acquire a given <code>IAcquisitionWork</code> object.
      * @param acquisition - The <code> IAcquisitionWork</code> being acquired.
      * @param person - The <code>Person</code> object attempting to do the acquiring.  may be null if no one on the force has the skill or the user is using automatic acquisition.
-     * @param planet - The <code>Planet</code> object where the acquisition is being attempted. This may be null if the user is not using planetary acquisition.
+     * @param target - The target for the acquisition from {@link #getTargetForAcquisition(IAcquisitionWork, Person, boolean)}, which may be changed.
+     * @param planetMods - The modifiers for the <code>Planet</code> where the acquisition is being attempted. This may be null if the user is not using planetary acquisition.
      * @param transitDays - The number of days that the part should take to be delivered. If this value is entered as -1, then this method will determine transit time based on the users campaign options.
      * @return a boolean indicating whether the attempt to acquire equipment was successful.
      */
-    private boolean acquireEquipment(IAcquisitionWork acquisition, Person person, Planet planet, int transitDays) {
+    private boolean acquireEquipment(IAcquisitionWork acquisition, Person person, TargetRoll target,
+            TargetRoll planetMods, int transitDays) {
         boolean found = false;
         String report = "";
 
@@ -2269,16 +2289,13 @@ public class Campaign implements Serializable, ITechManager {
             report += person.getHyperlinkedFullTitle() + " ";
         }
 
-        TargetRoll target = getTargetForAcquisition(acquisition, person, false);
-
         //check on funds
         if(!canPayFor(acquisition)) {
             target.addModifier(TargetRoll.IMPOSSIBLE, "Cannot afford this purchase");
         }
 
-        if(null != planet) {
-            target = planet.getAcquisitionMods(target, getDate(), getCampaignOptions(), getFaction(),
-                    acquisition.getTechBase() == Part.T_CLAN);
+        if(null != planetMods) {
+            target = addPlanetaryMods(target, planetMods);
         }
 
         report += "attempts to find " + acquisition.getAcquisitionName();
@@ -2772,13 +2789,6 @@ public class Campaign implements Serializable, ITechManager {
         addReport(report);
     }
 
-    /**
-     * Parses news file and loads news items for the current year.
-     */
-    public void reloadNews() {
-        news.loadNewsFor(getGameYear(), id.getLeastSignificantBits());
-    }
-
     /**
      * Checks for a news item for the current date. If found, adds it to the daily report.
      */
@@ -2788,9 +2798,6 @@ public class Campaign implements Serializable, ITechManager {
         for(NewsItem article : news.fetchNewsFor(now)) {
             addReport(article.getHeadlineForReport());
         }
-        for(NewsItem article : Planets.getInstance().getPlanetaryNews(now)) {
-            addReport(article.getHeadlineForReport());
-        }
     }
 
     public int getDeploymentDeficit(AtBContract contract) {
@@ -3025,81 +3032,12 @@ public class Campaign implements Serializable, ITechManager {
         processNewDayATBScenarios();
     }
 
+    /**
+     * Runs the daily healing, procreation, edge and idle XP processing for all personnel. See
+     * {@link NewDayPersonnelProcessor} for how the work is split up.
+     */
     public void processNewDayPersonnel() {
-        ArrayList<Person> babies = new ArrayList<Person>();
-        for (Person p : getPersonnel()) {
-            if (!p.isActive()) {
-                continue;
-            }
-
-            // Procreation
-            if (p.isFemale()) {
-                if (p.isPregnant()) {
-                    if (getCampaignOptions().useUnofficialProcreation()) {
-                        if (getCalendar().compareTo((p.getDueDate())) == 0) {
-                            babies.addAll(p.birth());
-                        }
-                    } else {
-                        p.setDueDate(null);
-                    }
-                } else if (getCampaignOptions().useUnofficialProcreation()) {
-                    p.procreate();
-                }
-            }
-
-            p.resetMinutesLeft();
-            // Reset acquisitions made to 0
-            p.setAcquisition(0);
-            if (p.needsFixing() && !getCampaignOptions().useAdvancedMedical()) {
-                p.decrementDaysToWaitForHealing();
-                Person doctor = getPerson(p.getDoctorId());
-                if (null != doctor && doctor.isDoctor()) {
-                    if (p.getDaysToWaitForHealing() <= 0) {
-                        addReport(healPerson(p, doctor));
-                    }
-                } else if (p.checkNaturalHealing(15)) {
-                    addReport(p.getHyperlinkedFullTitle() + " heals naturally!");
-                    Unit u = getUnit(p.getUnitId());
-                    if (null != u) {
-                        u.resetPilotAndEntity();
-                    }
-                }
-            }
-            // TODO Advanced Medical needs to go away from here later on
-            if (getCampaignOptions().useAdvancedMedical()) {
-                InjuryUtil.resolveDailyHealing(this, p);
-                Unit u = getUnit(p.getUnitId());
-                if (null != u) {
-                    u.resetPilotAndEntity();
-                }
-            }
-
-            // Reset edge points to the purchased value each week. This should only
-            // apply for support personnel - combat troops reset with each new mm game
-            if ((p.isAdmin() || p.isDoctor() || p.isEngineer() || p.isTech())
-                    && calendar.get(Calendar.DAY_OF_WEEK) == Calendar.MONDAY) {
-                p.resetCurrentEdge();
-            }
-
-            if (getCampaignOptions().getIdleXP() > 0 && calendar.get(Calendar.DAY_OF_MONTH) == 1 && p.isActive()
-                    && !p.isPrisoner()) { // Prisoners no
-                                          // XP, Bondsmen
-                                          // yes xp
-                p.setIdleMonths(p.getIdleMonths() + 1);
-                if (p.getIdleMonths() >= getCampaignOptions().getMonthsIdleXP()) {
-                    if (Compute.d6(2) >= getCampaignOptions().getTargetIdleXP()) {
-                        p.setXp(p.getXp() + getCampaignOptions().getIdleXP());
-                        addReport(p.getHyperlinkedFullTitle() + " has gained " + getCampaignOptions().getIdleXP()
-                                + " XP");
-                    }
-                    p.setIdleMonths(0);
-                }
-            }
-        }
-
-        for (Person baby : babies) {
-            addPersonWithoutId(baby, false);
-        }
+        new NewDayPersonnelProcessor(this).process();
     }
 
     public void processNewDayUnits() {
@@ -3114,11 +3052,11 @@ public class Campaign implements Serializable, ITechManager {
             if (null != u.getEngineer()) {
                 u.getEngineer().resetMinutesLeft();
             }
-
-            // do maintenance checks
-            doMaintenance(u);
         }
 
+        // do maintenance checks
+        new MaintenanceProcessor(this).process(getUnits());
+
         // need to check for assigned tasks in two steps to avoid
         // concurrent mod problems
         ArrayList<Integer> assignedPartIds = new ArrayList<Integer>();
@@ -3202,22 +3140,29 @@ public class Campaign implements Serializable, ITechManager {
 
     /** @return <code>true</code> if the new day arrived */
     public boolean newDay() {
+        return newDay(true);
+    }
+
+    /**
+     * @param autosave whether to request the day advance autosave; {@link AdvanceDaysEngine}
+     *                 requests it once for all the days it advances instead
+     * @return <code>true</code> if the new day arrived
+     */
+    boolean newDay(boolean autosave) {
         if(MekHQ.triggerEvent(new DayEndingEvent(this))) {
             return false;
         }
 
-        this.autosaveService.requestDayAdvanceAutosave(this, this.calendar.get(Calendar.DAY_OF_WEEK));
+        if (autosave) {
+            requestDayAdvanceAutosave(this.calendar.get(Calendar.DAY_OF_WEEK));
+        }
 
         calendar.add(Calendar.DAY_OF_MONTH, 1);
         currentReport.clear();
-        currentReportHTML = "";
+        currentReportHTML.setLength(0);
         newReports.clear();
         beginReport("<b>" + getDateAsString() + "</b>");
 
-        if (calendar.get(Calendar.DAY_OF_YEAR) == 1) {
-            reloadNews();
-        }
-
         // Ensure that the MegaMek year GameOption matches the campaign year
         if (gameOptions.intOption("year") != getGameYear()) {
             gameOptions.getOption("year").setValue(getGameYear());
@@ -3249,6 +3194,10 @@ public class Campaign implements Serializable, ITechManager {
         return true;
     }
 
+    void requestDayAdvanceAutosave(int dayOfTheWeek) {
+        this.autosaveService.requestDayAdvanceAutosave(this, dayOfTheWeek);
+    }
+
     public ArrayList<Contract> getActiveContracts() {
         ArrayList<Contract> active = new ArrayList<Contract>();
         for (Mission m : getMissions()) {
@@ -3515,6 +3464,7 @@ public class Campaign implements Serializable, ITechManager {
             return;
         }
         parts.remove(Integer.valueOf(part.getId()));
+        sparePartIndex.remove(part);
         //remove child parts as well
         for(int childId : part.getChildPartIds()) {
             Part childPart = getPart(childId);
@@ -3695,6 +3645,22 @@ public class Campaign implements Serializable, ITechManager {
         }
     }
 
+    /**
+     * Releases what the campaign registered with the event bus. Called when it is replaced by
+     * another campaign, so the old one can be garbage collected.
+     */
+    public void dispose() {
+        if (null != partsInUseTracker) {
+            partsInUseTracker.dispose();
+            partsInUseTracker = null;
+        }
+        if (null != personnelRoleIndex) {
+            personnelRoleIndex.dispose();
+            personnelRoleIndex = null;
+        }
+        AutosaveService.closeJournal(this);
+    }
+
     /**
      * Cleans incongruent data present in the campaign
      */
@@ -3791,11 +3757,11 @@ public class Campaign implements Serializable, ITechManager {
     private void addReportInternal(String r) {
         currentReport.add(r);
         if( currentReportHTML.length() > 0 ) {
-            currentReportHTML = currentReportHTML + REPORT_LINEBREAK + r;
+            currentReportHTML.append(REPORT_LINEBREAK).append(r);
             newReports.add(REPORT_LINEBREAK);
             newReports.add(r);
         } else {
-            currentReportHTML = r;
+            currentReportHTML.append(r);
             newReports.add(r);
         }
         MekHQ.triggerEvent(new ReportEvent(this, r));
@@ -4033,6 +3999,19 @@ public class Campaign implements Serializable, ITechManager {
 
 
     public void writeToXml(PrintWriter pw1) {
+        writeToXml(pw1, null, null);
+    }
+
+    /**
+     * Writes the campaign, optionally limiting the units, personnel and parts written out.
+     * Everything else is always written in full.
+     *
+     * @param pw1          The PrintWriter to output XML to.
+     * @param recordFilter If not null, only the units, personnel and parts it accepts are written.
+     * @param extraNode    If not null, written as the last node inside the campaign node.
+     */
+    public void writeToXml(PrintWriter pw1, Predicate<MekHqXmlSerializable> recordFilter,
+            MekHqXmlSerializable extraNode) {
         // File header
         pw1.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
 
@@ -4111,8 +4090,8 @@ public class Campaign implements Serializable, ITechManager {
         }
 
         // Lists of objects:
-        writeMapToXml(pw1, 1, "units", units); // Units
-        writeMapToXml(pw1, 1, "personnel", personnel); // Personnel
+        writeMapToXml(pw1, 1, "units", units, recordFilter); // Units
+        writeMapToXml(pw1, 1, "personnel", personnel, recordFilter); // Personnel
         writeMapToXml(pw1, 1, "ancestors", ancestors); // Ancestry trees
         writeMapToXml(pw1, 1, "missions", missions); // Missions
         // the forces structure is hierarchical, but that should be handled
@@ -4146,7 +4125,7 @@ public class Campaign implements Serializable, ITechManager {
         pw1.println("\t</specialAbilities>");
         rskillPrefs.writeToXml(pw1, 1);
         // parts is the biggest so it goes last
-        writeMapToXml(pw1, 1, "parts", parts); // Parts
+        writeMapToXml(pw1, 1, "parts", parts, recordFilter); // Parts
 
         writeGameOptions(pw1);
 
@@ -4202,6 +4181,9 @@ public class Campaign implements Serializable, ITechManager {
         pw1.println("\t</customPlanetaryEvents>");
 
         writeCustoms(pw1);
+        if (null != extraNode) {
+            extraNode.writeToXml(pw1, 1);
+        }
         // Okay, we're done.
         // Close everything out and be done with it.
         pw1.println("</campaign>");
@@ -4287,10 +4269,28 @@ public class Campaign implements Serializable, ITechManager {
      */
     private <keyType, valueType extends MekHqXmlSerializable> void writeMapToXml(PrintWriter pw1,
             int indent, String tag, Map<keyType, valueType> map) {
+        writeMapToXml(pw1, indent, tag, map, null);
+    }
+
+    /**
+     * A helper function to encapsulate writing the map entries out to XML.
+     *
+     * @param <keyType> The key type of the map.
+     * @param <valueType> The object type of the map. Must implement MekHqXmlSerializable.
+     * @param pw1       The PrintWriter to output XML to.
+     * @param indent    The indentation level to use for writing XML (purely for neatness).
+     * @param tag       The name of the tag to use to encapsulate it.
+     * @param map       The map of objects to write out.
+     * @param filter    If not null, only the objects it accepts are written.
+     */
+    private <keyType, valueType extends MekHqXmlSerializable> void writeMapToXml(PrintWriter pw1,
+            int indent, String tag, Map<keyType, valueType> map, Predicate<MekHqXmlSerializable> filter) {
         pw1.println(MekHqXmlUtil.indentStr(indent) + "<" + tag + ">");
 
         for (Map.Entry<keyType, valueType> x : map.entrySet()) {
-            x.getValue().writeToXml(pw1, indent + 1);
+            if ((null == filter) || filter.test(x.getValue())) {
+                x.getValue().writeToXml(pw1, indent + 1);
+            }
         }
 
         pw1.println(MekHqXmlUtil.indentStr(indent) + "</" + tag + ">");
@@ -4950,13 +4950,12 @@ public class Campaign implements Serializable, ITechManager {
     }
 
     /**
-     * Use an A* algorithm to find the best path between two planets For right now, we are just going to minimize the number
-     * of jumps but we could extend this to take advantage of recharge information or other variables as well Based on
-     * http://www.policyalmanac.org/games/aStarTutorial.htm
+     * Finds the best path between two planets on the current date.
      *
-     * @param start
-     * @param end
-     * @return
+     * @param start the planet to start from
+     * @param end the planet to go to
+     * @return the path, which is empty if the end can't be reached, or null without a start
+     * @see JumpGraph#findPath(Planet, Planet, DateTime)
      */
     public JumpPath calculateJumpPath(Planet start, Planet end) {
         if (null == start) {
@@ -4968,98 +4967,11 @@ public class Campaign implements Serializable, ITechManager {
             return jpath;
         }
 
-        String startKey = start.getId();
-        String endKey = end.getId();
-
         final DateTime now = Utilities.getDateTimeDay(calendar);
-        String current = startKey;
-        Set<String> closed = new HashSet<>();
-        Set<String> open = new HashSet<>();
-        boolean found = false;
-        int jumps = 0;
-
-        // we are going to through and set up some hashes that will make our
-        // work easier
-        // hash of parent key
-        Map<String, String> parent = new HashMap<>();
-        // hash of H for each planet which will not change
-        Map<String, Double> scoreH = new HashMap<>();
-        // hash of G for each planet which might change
-        Map<String, Double> scoreG = new HashMap<>();
-
-        for (String key : Planets.getInstance().getPlanets().keySet()) {
-            scoreH.put(
-                    key,
-                    end.getDistanceTo(Planets.getInstance().getPlanets()
-                            .get(key)));
-        }
-        scoreG.put(current, 0.0);
-        closed.add(current);
-
-        while (!found && jumps < 10000) {
-            jumps++;
-            double currentG = scoreG.get(current) + Planets.getInstance().getPlanetById(current).getRechargeTime(now);
-
-            final String localCurrent = current;
-            Planets.getInstance().visitNearbyPlanets(Planets.getInstance().getPlanetById(current), 30, p -> {
-                if (closed.contains(p.getId())) {
-                    return;
-                } else if (open.contains(p.getId())) {
-                    // is the current G better than the existing G
-                    if (currentG < scoreG.get(p.getId())) {
-                        // then change G and parent
-                        scoreG.put(p.getId(), currentG);
-                        parent.put(p.getId(), localCurrent);
-                    }
-                } else {
-                    // put the current G for this one in memory
-                    scoreG.put(p.getId(), currentG);
-                    // put the parent in memory
-                    parent.put(p.getId(), localCurrent);
-                    open.add(p.getId());
-                }
-            });
-
-            String bestMatch = null;
-            double bestF = Double.POSITIVE_INFINITY;
-            for (String possible : open) {
-                // calculate F
-                double currentF = scoreG.get(possible) + scoreH.get(possible);
-                if (currentF < bestF) {
-                    bestMatch = possible;
-                    bestF = currentF;
-                }
-            }
-
-            current = bestMatch;
-            if(null == current) {
-                // We're done - probably failed to find anything
-                break;
-            }
-
-            closed.add(current);
-            open.remove(current);
-            if (current.equals(endKey)) {
-                found = true;
-            }
-        }
-
-        // now we just need to back up from the last current by parents until we
-        // hit null
-        List<Planet> path = new ArrayList<>();
-        String nextKey = current;
-        while (null != nextKey) {
-            path.add(Planets.getInstance().getPlanetById(nextKey));
-            // MekHQApp.logMessage(nextKey);
-            nextKey = parent.get(nextKey);
-        }
-
-        // now reverse the direaction
         JumpPath finalPath = new JumpPath();
-        for (int i = (path.size() - 1); i >= 0; i--) {
-            finalPath.addPlanet(path.get(i));
+        for (Planet planet : Planets.getInstance().getJumpGraph().findPath(start, end, now)) {
+            finalPath.addPlanet(planet);
         }
-
         return finalPath;
     }
 
@@ -6520,15 +6432,18 @@ public class Campaign implements Serializable, ITechManager {
     }
 
     public Part checkForExistingSparePart(Part part) {
-        for (Part spare : parts.values()) {
-            if (!spare.isSpare() || spare.getId() == part.getId()) {
-                continue;
-            }
-            if (part.isSamePartTypeAndStatus(spare)) {
-                return spare;
-            }
+        return sparePartIndex.findSpareFor(part);
+    }
+
+    /**
+     * Called when a part's unit or parent part changes, which decides whether it is a spare.
+     *
+     * @param part the part that changed; ignored if it is not one of this campaign's parts
+     */
+    public void updateSparePartIndex(Part part) {
+        if (parts.get(part.getId()) == part) {
+            sparePartIndex.update(part);
         }
-        return null;
     }
 
     public void refreshNetworks() {
@@ -6906,27 +6821,22 @@ public class Campaign implements Serializable, ITechManager {
 
         int nSupply = 0;
         int nTransit = 0;
-        for (Part p : getParts()) {
-            if (!p.isSpare()) {
-                continue;
-            }
-            if (part.isSamePartType(p)) {
-                if (p.isPresent()) {
-                    if (p instanceof Armor) { // ProtomekArmor and BaArmor are derived from Armor
-                        nSupply += ((Armor) p).getAmount();
-                    } else if (p instanceof AmmoStorage) {
-                        nSupply += ((AmmoStorage) p).getShots();
-                    } else {
-                        nSupply += p.getQuantity();
-                    }
+        for (Part p : sparePartIndex.getSparesOfSameType(part)) {
+            if (p.isPresent()) {
+                if (p instanceof Armor) { // ProtomekArmor and BaArmor are derived from Armor
+                    nSupply += ((Armor) p).getAmount();
+                } else if (p instanceof AmmoStorage) {
+                    nSupply += ((AmmoStorage) p).getShots();
                 } else {
-                    if (p instanceof Armor) { // ProtomekArmor and BaArmor are derived from Armor
-                        nTransit += ((Armor) p).getAmount();
-                    } else if (p instanceof AmmoStorage) {
-                        nTransit += ((AmmoStorage) p).getShots();
-                    } else {
-                        nTransit += p.getQuantity();
-                    }
+                    nSupply += p.getQuantity();
+                }
+            } else {
+                if (p instanceof Armor) { // ProtomekArmor and BaArmor are derived from Armor
+                    nTransit += ((Armor) p).getAmount();
+                } else if (p instanceof AmmoStorage) {
+                    nTransit += ((AmmoStorage) p).getShots();
+                } else {
+                    nTransit += p.getQuantity();
                 }
             }
         }
@@ -7919,213 +7829,12 @@ public class Campaign implements Serializable, ITechManager {
         return new String(sb);
     }
 
+    /**
+     * Does the daily maintenance of a single unit. See {@link MaintenanceProcessor} for how
+     * the maintenance of all units is done at once.
+     */
     public void doMaintenance(Unit u) {
-        if (!u.requiresMaintenance()) {
-            return;
-        }
-        // lets start by checking times
-        Person tech = u.getTech();
-        int minutesUsed = u.getMaintenanceTime();
-        int astechsUsed = getAvailableAstechs(minutesUsed, false);
-        boolean maintained = null != tech
-                && tech.getMinutesLeft() >= minutesUsed && !tech.isMothballing();
-        boolean paidMaintenance = true;
-        if (maintained) {
-            // use the time
-            tech.setMinutesLeft(tech.getMinutesLeft() - minutesUsed);
-            astechPoolMinutes -= astechsUsed * minutesUsed;
-        }
-        u.incrementDaysSinceMaintenance(maintained, astechsUsed);
-        if (u.getDaysSinceMaintenance() >= getCampaignOptions().getMaintenanceCycleDays()) {
-            // maybe use the money
-            if (campaignOptions.payForMaintain()) {
-                if (finances.debit(u.getMaintenanceCost(), Transaction.C_MAINTAIN, "Maintenance for " + u.getName(),
-                        calendar.getTime())) {
-                } else {
-                    addReport("<font color='red'><b>You cannot afford to pay maintenance costs for "
-                            + u.getHyperlinkedName() + "!</b></font>");
-                    paidMaintenance = false;
-                }
-            }
-            if (getCampaignOptions().checkMaintenance()) {
-                // its time for a maintenance check
-                int qualityOrig = u.getQuality();
-                String techName = "Nobody";
-                String techNameLinked = techName;
-                if (null != tech) {
-                    techName = tech.getFullTitle();
-                    techNameLinked = tech.getHyperlinkedFullTitle();
-                }
-                // dont do actual damage until we clear the for loop to avoid
-                // concurrent mod problems
-                // put it into a hash - 4 points of damage will mean destruction
-                HashMap<Integer, Integer> partsToDamage = new HashMap<>();
-                String maintenanceReport = "<emph>" + techName + " performing maintenance</emph><br><br>";
-                for (Part p : u.getParts()) {
-                    String partReport = "<b>" + p.getName() + "</b> (Quality " + p.getQualityName() + ")";
-                    if (!p.needsMaintenance()) {
-                        continue;
-                    }
-                    int oldQuality = p.getQuality();
-                    TargetRoll target = getTargetForMaintenance(p, tech);
-                    if (!paidMaintenance) {
-                        // I should probably make this modifier user inputtable
-                        target.addModifier(1, "did not pay maintenance");
-                    }
-                    partReport += ", TN " + target.getValue() + "[" + target.getDesc() + "]";
-                    int roll = Compute.d6(2);
-                    int margin = roll - target.getValue();
-                    partReport += " rolled a " + roll + ", margin of " + margin;
-                    switch (p.getQuality()) {
-                        case Part.QUALITY_F:
-                            if (margin < -2) {
-                                p.decreaseQuality();
-                                if (margin < -6 && !campaignOptions.useUnofficialMaintenance()) {
-                                    partsToDamage.put(p.getId(), 1);
-                                }
-                            }
-                            if (margin >= 6) {
-                                // TODO: award XP point (make this optional)
-                            }
-                            break;
-                        case Part.QUALITY_E:
-                            if (margin < -2) {
-                                p.decreaseQuality();
-                                if (margin < -5 && !campaignOptions.useUnofficialMaintenance()) {
-                                    partsToDamage.put(p.getId(), 1);
-                                }
-                            }
-                            if (margin >= 6) {
-                                p.improveQuality();
-                            }
-                            break;
-                        case Part.QUALITY_D:
-                            if (margin < -3) {
-                                p.decreaseQuality();
-                                if (margin < -4 && !campaignOptions.useUnofficialMaintenance()) {
-                                    partsToDamage.put(p.getId(), 1);
-                                }
-                            }
-                            if (margin >= 5) {
-                                p.improveQuality();
-                            }
-                            break;
-                        case Part.QUALITY_C:
-                            if (margin < -4) {
-                                p.decreaseQuality();
-                            }
-                            if (!campaignOptions.useUnofficialMaintenance()) {
-                                if (margin < -6) {
-                                    partsToDamage.put(p.getId(), 2);
-                                } else if (margin < -3) {
-                                    partsToDamage.put(p.getId(), 1);
-                                }
-                            }
-                            if (margin >= 5) {
-                                p.improveQuality();
-                            }
-                            break;
-                        case Part.QUALITY_B:
-                            if (margin < -5) {
-                                p.decreaseQuality();
-                            }
-                            if (!campaignOptions.useUnofficialMaintenance()) {
-                                if (margin < -6) {
-                                    partsToDamage.put(p.getId(), 2);
-                                } else if (margin < -2) {
-                                    partsToDamage.put(p.getId(), 1);
-                                }
-                            }
-                            if (margin >= 4) {
-                                p.improveQuality();
-                            }
-                            break;
-                        case Part.QUALITY_A:
-                            if (!campaignOptions.useUnofficialMaintenance()) {
-                                if (margin < -6) {
-                                    partsToDamage.put(p.getId(), 4);
-                                } else if (margin < -4) {
-                                    partsToDamage.put(p.getId(), 3);
-                                } else if (margin == -4) {
-                                    partsToDamage.put(p.getId(), 2);
-                                } else if (margin < -1) {
-                                    partsToDamage.put(p.getId(), 1);
-                                }
-                            } else if (margin < -6) {
-                                partsToDamage.put(p.getId(), 1);
-                            }
-                            if (margin >= 4) {
-                                p.improveQuality();
-                            }
-                            break;
-                    }
-                    if (p.getQuality() > oldQuality) {
-                        partReport += ": <font color='green'>new quality is " + p.getQualityName() + "</font>";
-                    } else if (p.getQuality() < oldQuality) {
-                        partReport += ": <font color='red'>new quality is " + p.getQualityName() + "</font>";
-                    } else {
-                        partReport += ": quality remains " + p.getQualityName();
-                    }
-                    if (null != partsToDamage.get(p.getId())) {
-                        if (partsToDamage.get(p.getId()) > 3) {
-                            partReport += ", <font color='red'><b>part destroyed</b></font>";
-                        } else {
-                            partReport += ", <font color='red'><b>part damaged</b></font>";
-                        }
-                    }
-                    maintenanceReport += partReport + "<br>";
-                }
-                int nDamage = 0;
-                int nDestroy = 0;
-                for (int key : partsToDamage.keySet()) {
-                    Part p = getPart(key);
-                    if (null != p) {
-                        int damage = partsToDamage.get(key);
-                        if (damage > 3) {
-                            nDestroy++;
-                            p.remove(false);
-                        } else {
-                            p.doMaintenanceDamage(damage);
-                            nDamage++;
-                        }
-                    }
-                }
-                u.setLastMaintenanceReport(maintenanceReport);
-                int quality = u.getQuality();
-                String qualityString;
-                boolean reverse = getCampaignOptions().reverseQualityNames();
-                if (quality > qualityOrig) {
-                    qualityString = "<font color='green'>Overall quality improves from "
-                            + Part.getQualityName(qualityOrig, reverse) + " to " + Part.getQualityName(quality, reverse)
-                            + "</font>";
-                } else if (quality < qualityOrig) {
-                    qualityString = "<font color='red'>Overall quality declines from "
-                            + Part.getQualityName(qualityOrig, reverse) + " to " + Part.getQualityName(quality, reverse)
-                            + "</font>";
-                } else {
-                    qualityString = "Overall quality remains " + Part.getQualityName(quality, reverse);
-                }
-                String damageString = "";
-                if (nDamage > 0) {
-                    damageString += nDamage + " parts were damaged. ";
-                }
-                if (nDestroy > 0) {
-                    damageString += nDestroy + " parts were destroyed.";
-                }
-                if (!damageString.isEmpty()) {
-                    damageString = "<b><font color='red'>" + damageString + "</b></font> [<a href='REPAIR|" + u.getId()
-                            + "'>Repair bay</a>]";
-                }
-                String paidString = "";
-                if (!paidMaintenance) {
-                    paidString = "<font color='red'>Could not afford maintenance costs, so check is at a penalty.</font>";
-                }
-                addReport(techNameLinked + " performs maintenance on " + u.getHyperlinkedName() + ". " + paidString
-                        + qualityString + ". " + damageString + " [<a href='MAINTENANCE|" + u.getId()
-                        + "'>Get details</a>]");
-            }
-            u.resetDaysSinceMaintenance();
-        }
+        new MaintenanceProcessor(this).process(Collections.singletonList(u));
     }
 
     public void initTimeInService() {
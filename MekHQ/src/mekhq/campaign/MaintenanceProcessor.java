@@ -0,0 +1,370 @@
+/*
+ * Copyright (c) 2020 - The MegaMek Team
+ *
+ * This file is part of MekHQ.
+ *
+ * MekHQ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MekHQ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MekHQ.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mekhq.campaign;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import megamek.common.Compute;
+import megamek.common.TargetRoll;
+import mekhq.campaign.finances.Money;
+import mekhq.campaign.finances.Transaction;
+import mekhq.campaign.parts.Part;
+import mekhq.campaign.personnel.Person;
+import mekhq.campaign.unit.Unit;
+
+/**
+ * The daily maintenance of {@link Campaign#doMaintenance(Unit)}, done for many units at once in
+ * three phases.
+ * <p>
+ * The first phase goes through the units in order and does the bookkeeping which depends on
+ * shared state: the techs' and astechs' time, the days since the last check, and whether the
+ * maintenance costs can be paid. The costs of all the units due for a check are taken from the
+ * funds in a single transaction, after working out which of them the funds cover in the same
+ * order as paying for them one at a time.
+ * <p>
+ * The second phase makes the maintenance rolls for the units due for a check and works out the
+ * results and the detailed report for each part. It only reads the campaign and runs on several
+ * threads when many units are due. Each unit's rolls come from its own random stream, seeded
+ * from a single roll for the day and the unit's id, so the results do not depend on how the work
+ * was split between threads.
+ * <p>
+ * The third phase goes through the units in order again, changing part quality, damaging parts
+ * and adding the reports, so the campaign sees the same sequence of changes every time.
+ */
+class MaintenanceProcessor {
+
+    /** Fewer checks than this are not worth splitting between threads */
+    static final int PARALLEL_THRESHOLD = 32;
+
+    private final Campaign campaign;
+
+    MaintenanceProcessor(Campaign campaign) {
+        this.campaign = campaign;
+    }
+
+    void process(Collection<Unit> units) {
+        final CampaignOptions options = campaign.getCampaignOptions();
+
+        List<Check> checks = new ArrayList<>();
+        Money funds = campaign.getFinances().getBalance();
+        Money totalCost = Money.zero();
+        List<Unit> paidUnits = new ArrayList<>();
+        for (Unit u : units) {
+            if (!u.requiresMaintenance()) {
+                continue;
+            }
+            // lets start by checking times
+            Person tech = u.getTech();
+            int minutesUsed = u.getMaintenanceTime();
+            int astechsUsed = campaign.getAvailableAstechs(minutesUsed, false);
+            boolean maintained = null != tech
+                    && tech.getMinutesLeft() >= minutesUsed && !tech.isMothballing();
+            if (maintained) {
+                // use the time
+                tech.setMinutesLeft(tech.getMinutesLeft() - minutesUsed);
+                campaign.setAstechPoolMinutes(campaign.getAstechPoolMinutes() - astechsUsed * minutesUsed);
+            }
+            u.incrementDaysSinceMaintenance(maintained, astechsUsed);
+            if (u.getDaysSinceMaintenance() >= options.getMaintenanceCycleDays()) {
+                Check check = new Check(u, tech);
+                // maybe use the money
+                if (options.payForMaintain()) {
+                    Money cost = u.getMaintenanceCost();
+                    if (funds.isLessThan(cost)) {
+                        check.paid = false;
+                    } else {
+                        funds = funds.minus(cost);
+                        totalCost = totalCost.plus(cost);
+                        paidUnits.add(u);
+                    }
+                }
+                checks.add(check);
+            }
+        }
+        if (!paidUnits.isEmpty()) {
+            String reason = (paidUnits.size() == 1) ? "Maintenance for " + paidUnits.get(0).getName()
+                    : "Maintenance for " + paidUnits.size() + " units";
+            campaign.getFinances().debit(totalCost, Transaction.C_MAINTAIN, reason,
+                    campaign.getCalendar().getTime());
+        }
+
+        if (options.checkMaintenance() && !checks.isEmpty()) {
+            // Read the date once here, as reading a Calendar can update it
+            campaign.getGameYear();
+            final long daySeed = Compute.randomInt(Integer.MAX_VALUE);
+            Stream<Check> stream = checks.stream();
+            if (checks.size() >= PARALLEL_THRESHOLD) {
+                stream = stream.parallel();
+            }
+            stream.forEach(check -> roll(check, options, daySeed));
+        }
+
+        for (Check check : checks) {
+            apply(check, options);
+        }
+    }
+
+    private static long getSeed(long daySeed, UUID id) {
+        return (daySeed * 0x9E3779B97F4A7C15L) ^ id.getMostSignificantBits() ^ Long.rotateLeft(id.getLeastSignificantBits(), 32);
+    }
+
+    /**
+     * Second phase: makes the rolls for each part of the unit without changing anything.
+     */
+    private void roll(Check check, CampaignOptions options, long daySeed) {
+        final boolean unofficial = options.useUnofficialMaintenance();
+        final boolean reverse = options.reverseQualityNames();
+        SplittableRandom rng = new SplittableRandom(getSeed(daySeed, check.unit.getId()));
+
+        String techName = (null != check.tech) ? check.tech.getFullTitle() : "Nobody";
+        StringBuilder report = new StringBuilder();
+        report.append("<emph>").append(techName).append(" performing maintenance</emph><br><br>");
+        for (Part p : check.unit.getParts()) {
+            if (!p.needsMaintenance()) {
+                continue;
+            }
+            TargetRoll target = campaign.getTargetForMaintenance(p, check.tech);
+            if (!check.paid) {
+                // I should probably make this modifier user inputtable
+                target.addModifier(1, "did not pay maintenance");
+            }
+            int roll = rng.nextInt(1, 7) + rng.nextInt(1, 7);
+            int margin = roll - target.getValue();
+            PartResult result = new PartResult(p, margin, unofficial);
+            check.parts.add(result);
+
+            int oldQuality = p.getQuality();
+            int newQuality = oldQuality + result.qualityChange;
+            report.append("<b>").append(p.getName()).append("</b> (Quality ")
+                .append(Part.getQualityName(oldQuality, reverse)).append(")")
+                .append(", TN ").append(target.getValue()).append("[").append(target.getDesc()).append("]")
+                .append(" rolled a ").append(roll).append(", margin of ").append(margin);
+            if (newQuality > oldQuality) {
+                report.append(": <font color='green'>new quality is ")
+                    .append(Part.getQualityName(newQuality, reverse)).append("</font>");
+            } else if (newQuality < oldQuality) {
+                report.append(": <font color='red'>new quality is ")
+                    .append(Part.getQualityName(newQuality, reverse)).append("</font>");
+            } else {
+                report.append(": quality remains ").append(Part.getQualityName(newQuality, reverse));
+            }
+            if (result.damage > 3) {
+                report.append(", <font color='red'><b>part destroyed</b></font>");
+            } else if (result.damage > 0) {
+                report.append(", <font color='red'><b>part damaged</b></font>");
+            }
+            report.append("<br>");
+        }
+        check.report = report.toString();
+    }
+
+    /**
+     * Third phase: applies the results of the rolls and reports them.
+     */
+    private void apply(Check check, CampaignOptions options) {
+        Unit u = check.unit;
+        if (!check.paid) {
+            campaign.addReport("<font color='red'><b>You cannot afford to pay maintenance costs for "
+                    + u.getHyperlinkedName() + "!</b></font>");
+        }
+        if (null != check.report) {
+            int qualityOrig = u.getQuality();
+            for (PartResult result : check.parts) {
+                if (result.qualityChange > 0) {
+                    result.part.improveQuality();
+                } else if (result.qualityChange < 0) {
+                    result.part.decreaseQuality();
+                }
+            }
+            // dont do actual damage until all qualities changed, as destroyed parts leave the unit
+            int nDamage = 0;
+            int nDestroy = 0;
+            for (PartResult result : check.parts) {
+                if (result.damage == 0) {
+                    continue;
+                }
+                Part p = campaign.getPart(result.part.getId());
+                if (null != p) {
+                    if (result.damage > 3) {
+                        nDestroy++;
+                        p.remove(false);
+                    } else {
+                        p.doMaintenanceDamage(result.damage);
+                        nDamage++;
+                    }
+                }
+            }
+            u.setLastMaintenanceReport(check.report);
+
+            int quality = u.getQuality();
+            boolean reverse = options.reverseQualityNames();
+            StringBuilder report = new StringBuilder();
+            report.append((null != check.tech) ? check.tech.getHyperlinkedFullTitle() : "Nobody")
+                .append(" performs maintenance on ").append(u.getHyperlinkedName()).append(". ");
+            if (!check.paid) {
+                report.append("<font color='red'>Could not afford maintenance costs, so check is at a penalty.</font>");
+            }
+            if (quality > qualityOrig) {
+                report.append("<font color='green'>Overall quality improves from ")
+                    .append(Part.getQualityName(qualityOrig, reverse)).append(" to ")
+                    .append(Part.getQualityName(quality, reverse)).append("</font>");
+            } else if (quality < qualityOrig) {
+                report.append("<font color='red'>Overall quality declines from ")
+                    .append(Part.getQualityName(qualityOrig, reverse)).append(" to ")
+                    .append(Part.getQualityName(quality, reverse)).append("</font>");
+            } else {
+                report.append("Overall quality remains ").append(Part.getQualityName(quality, reverse));
+            }
+            report.append(". ");
+            if ((nDamage > 0) || (nDestroy > 0)) {
+                report.append("<b><font color='red'>");
+                if (nDamage > 0) {
+                    report.append(nDamage).append(" parts were damaged. ");
+                }
+                if (nDestroy > 0) {
+                    report.append(nDestroy).append(" parts were destroyed.");
+                }
+                report.append("</b></font> [<a href='REPAIR|").append(u.getId()).append("'>Repair bay</a>]");
+            }
+            report.append(" [<a href='MAINTENANCE|").append(u.getId()).append("'>Get details</a>]");
+            campaign.addReport(report.toString());
+        }
+        u.resetDaysSinceMaintenance();
+    }
+
+    /**
+     * A unit due for a maintenance check, and the results of its rolls.
+     */
+    private static class Check {
+        private final Unit unit;
+        private final Person tech;
+        private boolean paid = true;
+        private final List<PartResult> parts = new ArrayList<>();
+        /** The detailed report, or null if no rolls were made */
+        private String report;
+
+        Check(Unit unit, Person tech) {
+            this.unit = unit;
+            this.tech = tech;
+        }
+    }
+
+    /**
+     * The result of the maintenance roll for one part.
+     */
+    private static class PartResult {
+        private final Part part;
+        /** 1 if the quality improves, -1 if it declines, 0 if it stays the same */
+        private int qualityChange = 0;
+        /** The points of damage to the part, 4 meaning it is destroyed */
+        private int damage = 0;
+
+        PartResult(Part part, int margin, boolean unofficial) {
+            this.part = part;
+            switch (part.getQuality()) {
+                case Part.QUALITY_F:
+                    if (margin < -2) {
+                        qualityChange = -1;
+                        if (margin < -6 && !unofficial) {
+                            damage = 1;
+                        }
+                    }
+                    if (margin >= 6) {
+                        // TODO: award XP point (make this optional)
+                    }
+                    break;
+                case Part.QUALITY_E:
+                    if (margin < -2) {
+                        qualityChange = -1;
+                        if (margin < -5 && !unofficial) {
+                            damage = 1;
+                        }
+                    }
+                    if (margin >= 6) {
+                        qualityChange = 1;
+                    }
+                    break;
+                case Part.QUALITY_D:
+                    if (margin < -3) {
+                        qualityChange = -1;
+                        if (margin < -4 && !unofficial) {
+                            damage = 1;
+                        }
+                    }
+                    if (margin >= 5) {
+                        qualityChange = 1;
+                    }
+                    break;
+                case Part.QUALITY_C:
+                    if (margin < -4) {
+                        qualityChange = -1;
+                    }
+                    if (!unofficial) {
+                        if (margin < -6) {
+                            damage = 2;
+                        } else if (margin < -3) {
+                            damage = 1;
+                        }
+                    }
+                    if (margin >= 5) {
+                        qualityChange = 1;
+                    }
+                    break;
+                case Part.QUALITY_B:
+                    if (margin < -5) {
+                        qualityChange = -1;
+                    }
+                    if (!unofficial) {
+                        if (margin < -6) {
+                            damage = 2;
+                        } else if (margin < -2) {
+                            damage = 1;
+                        }
+                    }
+                    if (margin >= 4) {
+                        qualityChange = 1;
+                    }
+                    break;
+                case Part.QUALITY_A:
+                    if (!unofficial) {
+                        if (margin < -6) {
+                            damage = 4;
+                        } else if (margin < -4) {
+                            damage = 3;
+                        } else if (margin == -4) {
+                            damage = 2;
+                        } else if (margin < -1) {
+                            damage = 1;
+                        }
+                    } else if (margin < -6) {
+                        damage = 1;
+                    }
+                    if (margin >= 4) {
+                        qualityChange = 1;
+                    }
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2020 - The MegaMek Team
+ *
+ * This file is part of MekHQ.
+ *
+ * MekHQ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MekHQ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MekHQ.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mekhq.campaign;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import megamek.common.Compute;
+import mekhq.campaign.mod.am.InjuryUtil;
+import mekhq.campaign.personnel.Person;
+import mekhq.campaign.unit.Unit;
+
+/**
+ * The daily personnel processing of {@link Campaign#processNewDayPersonnel()}.
+ * <p>
+ * Most of each person's day, the healing in particular, depends on shared state (doctors'
+ * time, units, the campaign's random numbers), so everyone is processed in roster order on
+ * the calling thread. What is saved is the work on the units: healing changes a unit's crew,
+ * and each unit is only updated once, after everyone has been processed, however many of its
+ * crew healed.
+ */
+class NewDayPersonnelProcessor {
+
+    private final Campaign campaign;
+
+    NewDayPersonnelProcessor(Campaign campaign) {
+        this.campaign = campaign;
+    }
+
+    void process() {
+        final List<Person> personnel = new ArrayList<>(campaign.getPersonnel());
+        final List<Person> babies = new ArrayList<>();
+
+        // Many people in the same unit might heal, so update each unit's crew once at the end
+        campaign.deferCrewUpdates();
+        try {
+            for (Person p : personnel) {
+                if (p.isActive()) {
+                    process(p, campaign.getCampaignOptions(), babies);
+                }
+            }
+        } finally {
+            campaign.applyCrewUpdates();
+        }
+
+        for (Person baby : babies) {
+            campaign.addPersonWithoutId(baby, false);
+        }
+    }
+
+    private void process(Person p, CampaignOptions options, List<Person> babies) {
+        final Calendar calendar = campaign.getCalendar();
+
+        // Procreation
+        if (p.isFemale()) {
+            if (p.isPregnant()) {
+                if (options.useUnofficialProcreation()) {
+                    if (calendar.compareTo((p.getDueDate())) == 0) {
+                        babies.addAll(p.birth());
+                    }
+                } else {
+                    p.setDueDate(null);
+                }
+            } else if (options.useUnofficialProcreation()) {
+                p.procreate();
+            }
+        }
+
+        p.resetMinutesLeft();
+        // Reset acquisitions made to 0
+        p.setAcquisition(0);
+        if (p.needsFixing() && !options.useAdvancedMedical()) {
+            p.decrementDaysToWaitForHealing();
+            Person doctor = campaign.getPerson(p.getDoctorId());
+            if (null != doctor && doctor.isDoctor()) {
+                if (p.getDaysToWaitForHealing() <= 0) {
+                    campaign.addReport(campaign.healPerson(p, doctor));
+                }
+            } else if (p.checkNaturalHealing(15)) {
+                campaign.addReport(p.getHyperlinkedFullTitle() + " heals naturally!");
+                Unit u = campaign.getUnit(p.getUnitId());
+                if (null != u) {
+                    u.resetPilotAndEntity();
+                }
+            }
+        }
+        // TODO Advanced Medical needs to go away from here later on
+        if (options.useAdvancedMedical()) {
+            boolean hurt = p.hasInjuries(false) || (p.getHits() > 0);
+            InjuryUtil.resolveDailyHealing(campaign, p);
+            // Nothing changed for the crew if the person was not hurt before or after
+            Unit u = campaign.getUnit(p.getUnitId());
+            if ((null != u) && (hurt || p.hasInjuries(false) || (p.getHits() > 0))) {
+                u.resetPilotAndEntity();
+            }
+        }
+
+        // Reset edge points to the purchased value each week. This should only
+        // apply for support personnel - combat troops reset with each new mm game
+        if ((p.isAdmin() || p.isDoctor() || p.isEngineer() || p.isTech())
+                && calendar.get(Calendar.DAY_OF_WEEK) == Calendar.MONDAY) {
+            p.resetCurrentEdge();
+        }
+
+        // Prisoners no XP, Bondsmen yes xp
+        if ((options.getIdleXP() > 0) && (calendar.get(Calendar.DAY_OF_MONTH) == 1) && p.isActive()
+                && !p.isPrisoner()) {
+            p.setIdleMonths(p.getIdleMonths() + 1);
+            if (p.getIdleMonths() >= options.getMonthsIdleXP()) {
+                if (Compute.d6(2) >= options.getTargetIdleXP()) {
+                    p.setXp(p.getXp() + options.getIdleXP());
+                    campaign.addReport(p.getHyperlinkedFullTitle() + " has gained " + options.getIdleXP()
+                            + " XP");
+                }
+                p.setIdleMonths(0);
+            }
+        }
+    }
+}
@@ -0,0 +1,401 @@
+/*
+ * Copyright (c) 2020 - The MegaMek Team
+ *
+ * This file is part of MekHQ.
+ *
+ * MekHQ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MekHQ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MekHQ.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mekhq.campaign;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import megamek.common.MiscType;
+import megamek.common.event.Subscribe;
+import mekhq.MekHQ;
+import mekhq.campaign.event.NewDayEvent;
+import mekhq.campaign.event.PartEvent;
+import mekhq.campaign.event.PartRemovedEvent;
+import mekhq.campaign.event.PartWorkEvent;
+import mekhq.campaign.event.ScenarioResolvedEvent;
+import mekhq.campaign.event.UnitEvent;
+import mekhq.campaign.parts.AmmoStorage;
+import mekhq.campaign.parts.Armor;
+import mekhq.campaign.parts.MissingPart;
+import mekhq.campaign.parts.Part;
+import mekhq.campaign.parts.PartInUse;
+import mekhq.campaign.parts.StructuralIntegrity;
+import mekhq.campaign.parts.equipment.EquipmentPart;
+import mekhq.campaign.unit.Unit;
+import mekhq.campaign.work.IAcquisitionWork;
+import mekhq.campaign.work.IPartWork;
+
+/**
+ * Keeps count of the parts in use for the Parts In Use overview.
+ * <p>
+ * Every part of the campaign is kept in the group it belongs to, together with what it adds to
+ * the group's counts, and the counts of each group are kept up to date from the part events:
+ * a new, changed or removed part is taken out of its group and, unless it is gone, added
+ * again. Working out a part's group means building a {@link PartInUse} for it, which is by far
+ * the most expensive step, so a refresh of the overview only goes through the groups and the
+ * shopping list.
+ * <p>
+ * Some changes fire no event for the parts they touch. Unit events, repairs and resolved
+ * scenarios are taken to have changed every part of the units involved, so those are added
+ * again. Maintenance and deliveries at the start of a day change parts all over the campaign,
+ * so after a new day the parts are all counted once more on the next refresh, keeping the
+ * groups of parts whose name, unit tonnage and details are unchanged.
+ */
+class PartsInUseTracker {
+
+    /** Marks parts which are not shown in the overview */
+    private static final String NOT_IN_USE = ""; //$NON-NLS-1$
+
+    private final Campaign campaign;
+
+    /** The group of each part of the campaign and what it adds to its counts */
+    private Map<Part, TrackedPart> trackedParts = new IdentityHashMap<>();
+    /** The parts and counts of each group, by description */
+    private Map<String, Group> groups = new HashMap<>();
+    /** The description of the group each shopping list item belongs to */
+    private Map<Object, CachedGroup> plannedGroups = new IdentityHashMap<>();
+    /** Set when parts might have changed without events, so they are all counted again */
+    private boolean stale = true;
+
+    PartsInUseTracker(Campaign campaign) {
+        this.campaign = campaign;
+        MekHQ.registerHandler(this);
+    }
+
+    /**
+     * Stops listening for part events. Called when the campaign is replaced.
+     */
+    void dispose() {
+        MekHQ.unregisterHandler(this);
+        trackedParts = new IdentityHashMap<>();
+        groups = new HashMap<>();
+        plannedGroups = new IdentityHashMap<>();
+        stale = true;
+    }
+
+    /**
+     * @return the parts in use, grouped and counted
+     */
+    Set<PartInUse> getPartsInUse() {
+        countIfStale();
+
+        // java.util.Set doesn't supply a get(Object) method, so we have to use a java.util.Map
+        Map<String, PartInUse> inUse = new HashMap<>();
+        for (Map.Entry<String, Group> entry : groups.entrySet()) {
+            // A fresh PartInUse for every refresh, so that the part to buy is never shared
+            PartInUse piu = createPartInUse(entry.getValue().getAnyPart());
+            if (null != piu) {
+                entry.getValue().copyCountsTo(piu);
+                inUse.put(entry.getKey(), piu);
+            }
+        }
+
+        Map<Object, CachedGroup> seen = new IdentityHashMap<>();
+        for (IAcquisitionWork maybePart : campaign.getShoppingList().getPartList()) {
+            if (!(maybePart instanceof Part)) {
+                continue;
+            }
+            Part part = (maybePart instanceof MissingPart) ? ((MissingPart) maybePart).getNewPart() : (Part) maybePart;
+            String description = getPlannedDescription(maybePart, part, seen);
+            if (description == NOT_IN_USE) {
+                continue;
+            }
+            PartInUse piu = inUse.get(description);
+            if (null == piu) {
+                piu = createPartInUse(part);
+                if (null == piu) {
+                    continue;
+                }
+                inUse.put(description, piu);
+            }
+            piu.setPlannedCount(piu.getPlannedCount() + getQuantity(part) * maybePart.getQuantity());
+        }
+        // Forget shopping list items that are gone
+        plannedGroups = seen;
+
+        return new HashSet<>(inUse.values());
+    }
+
+    /**
+     * Updates the counts of a single group with the current campaign data.
+     */
+    void updatePartInUse(PartInUse piu) {
+        countIfStale();
+
+        Group group = groups.get(piu.getDescription());
+        if (null != group) {
+            group.copyCountsTo(piu);
+        } else {
+            piu.setUseCount(0);
+            piu.setStoreCount(0);
+            piu.setTransferCount(0);
+        }
+        piu.setPlannedCount(0);
+        for (IAcquisitionWork maybePart : campaign.getShoppingList().getPartList()) {
+            if (!(maybePart instanceof Part)) {
+                continue;
+            }
+            Part part = (maybePart instanceof MissingPart) ? ((MissingPart) maybePart).getNewPart() : (Part) maybePart;
+            if (piu.getDescription().equals(getPlannedDescription(maybePart, part, null))) {
+                piu.setPlannedCount(piu.getPlannedCount() + getQuantity(part) * maybePart.getQuantity());
+            }
+        }
+    }
+
+    /**
+     * Counts all parts of the campaign again if they might have changed without events.
+     */
+    private void countIfStale() {
+        if (!stale) {
+            return;
+        }
+        Map<Part, TrackedPart> previous = trackedParts;
+        trackedParts = new IdentityHashMap<>();
+        groups = new HashMap<>();
+        for (Part p : campaign.getParts()) {
+            TrackedPart old = previous.get(p);
+            add(p, ((null != old) && old.isFor(p)) ? old.description : getDescription(p));
+        }
+        stale = false;
+    }
+
+    /**
+     * Takes a part out of its group and adds it again with its current state, unless it is no
+     * longer one of the campaign's parts.
+     */
+    private void update(Part p) {
+        remove(p);
+        if (campaign.getPart(p.getId()) == p) {
+            add(p, getDescription(p));
+        }
+    }
+
+    private void add(Part p, String description) {
+        TrackedPart tracked = new TrackedPart(p, description);
+        trackedParts.put(p, tracked);
+        if (description != NOT_IN_USE) {
+            groups.computeIfAbsent(description, d -> new Group()).add(p, tracked);
+        }
+    }
+
+    private void remove(Part p) {
+        TrackedPart tracked = trackedParts.remove(p);
+        if ((null != tracked) && (tracked.description != NOT_IN_USE)) {
+            Group group = groups.get(tracked.description);
+            group.remove(p, tracked);
+            if (group.isEmpty()) {
+                groups.remove(tracked.description);
+            }
+        }
+    }
+
+    /**
+     * @return the description of the part's group, or {@link #NOT_IN_USE}
+     */
+    private static String getDescription(Part part) {
+        PartInUse piu = createPartInUse(part);
+        return (null == piu) ? NOT_IN_USE : piu.getDescription();
+    }
+
+    /**
+     * @return the description of the group of a shopping list item, or {@link #NOT_IN_USE}.
+     *         Items are remembered in <code>seen</code> if it isn't null.
+     */
+    private String getPlannedDescription(Object key, Part part, Map<Object, CachedGroup> seen) {
+        CachedGroup group = plannedGroups.get(key);
+        if ((null == group) || !group.isFor(part)) {
+            group = new CachedGroup(part, getDescription(part));
+            plannedGroups.put(key, group);
+        }
+        if (null != seen) {
+            seen.put(key, group);
+        }
+        return group.description;
+    }
+
+    private static PartInUse createPartInUse(Part p) {
+        // SI isn't a proper "part"
+        if (p instanceof StructuralIntegrity) {
+            return null;
+        }
+        // Makes no sense buying those separately from the chasis
+        if((p instanceof EquipmentPart)
+                && ((EquipmentPart) p).getType() != null
+                && (((EquipmentPart) p).getType().hasFlag(MiscType.F_CHASSIS_MODIFICATION)))
+        {
+            return null;
+        }
+        // Replace a "missing" part with a corresponding "new" one.
+        if(p instanceof MissingPart) {
+            p = ((MissingPart) p).getNewPart();
+        }
+        PartInUse result = new PartInUse(p);
+        return (null != result.getPartToBuy()) ? result : null;
+    }
+
+    private static int getQuantity(Part p) {
+        if(p instanceof Armor) {
+            return ((Armor) p).getAmount();
+        }
+        if(p instanceof AmmoStorage) {
+            return ((AmmoStorage) p).getShots();
+        }
+        return ((p.getUnit() != null) || (p.getUnitId() != null)) ? 1 : p.getQuantity();
+    }
+
+    @Subscribe
+    public void handle(PartEvent ev) {
+        if (stale) {
+            return;
+        }
+        if (ev instanceof PartRemovedEvent) {
+            remove(ev.getPart());
+        } else {
+            update(ev.getPart());
+        }
+    }
+
+    @Subscribe
+    public void handle(UnitEvent ev) {
+        updateUnitParts(ev.getUnit());
+    }
+
+    @Subscribe
+    public void handle(PartWorkEvent ev) {
+        IPartWork work = ev.getPartWork();
+        if (!stale && (work instanceof Part)) {
+            update((Part) work);
+            updateUnitParts(((Part) work).getUnit());
+        }
+    }
+
+    @Subscribe
+    public void handle(ScenarioResolvedEvent ev) {
+        // Damage and salvage change parts all over the units involved
+        stale = true;
+    }
+
+    @Subscribe
+    public void handle(NewDayEvent ev) {
+        // Maintenance and deliveries change parts without firing events for them
+        stale = true;
+    }
+
+    private void updateUnitParts(Unit u) {
+        if (stale || (null == u)) {
+            return;
+        }
+        for (Part p : u.getParts()) {
+            update(p);
+        }
+    }
+
+    /**
+     * The parts of a group and their counts taken together.
+     */
+    private static class Group {
+        private final Set<Part> parts = Collections.newSetFromMap(new IdentityHashMap<>());
+        private int useCount;
+        private int storeCount;
+        private int transferCount;
+
+        void add(Part p, TrackedPart tracked) {
+            parts.add(p);
+            useCount += tracked.useCount;
+            storeCount += tracked.storeCount;
+            transferCount += tracked.transferCount;
+        }
+
+        void remove(Part p, TrackedPart tracked) {
+            parts.remove(p);
+            useCount -= tracked.useCount;
+            storeCount -= tracked.storeCount;
+            transferCount -= tracked.transferCount;
+        }
+
+        boolean isEmpty() {
+            return parts.isEmpty();
+        }
+
+        Part getAnyPart() {
+            return parts.iterator().next();
+        }
+
+        void copyCountsTo(PartInUse piu) {
+            piu.setUseCount(useCount);
+            piu.setStoreCount(storeCount);
+            piu.setTransferCount(transferCount);
+        }
+    }
+
+    /**
+     * The remembered group of a part or shopping list item, with the part state its description
+     * was built from.
+     */
+    private static class CachedGroup {
+        final String description;
+        private final String name;
+        private final int unitTonnage;
+        private final String details;
+
+        CachedGroup(Part part, String description) {
+            this.description = description;
+            this.name = part.getName();
+            this.unitTonnage = part.getUnitTonnage();
+            this.details = part.getDetails();
+        }
+
+        boolean isFor(Part part) {
+            return (unitTonnage == part.getUnitTonnage()) && Objects.equals(name, part.getName())
+                    && Objects.equals(details, part.getDetails());
+        }
+    }
+
+    /**
+     * The group of a part of the campaign and what it adds to the group's counts.
+     */
+    private static class TrackedPart extends CachedGroup {
+        private final int useCount;
+        private final int storeCount;
+        private final int transferCount;
+
+        TrackedPart(Part p, String description) {
+            super(p, description);
+            int quantity = getQuantity(p);
+            if ((p.getUnit() != null) || (p.getUnitId() != null) || (p instanceof MissingPart)) {
+                useCount = quantity;
+                storeCount = 0;
+                transferCount = 0;
+            } else if (p.isPresent()) {
+                useCount = 0;
+                storeCount = quantity;
+                transferCount = 0;
+            } else {
+                useCount = 0;
+                storeCount = 0;
+                transferCount = quantity;
+            }
+        }
+    }
+}
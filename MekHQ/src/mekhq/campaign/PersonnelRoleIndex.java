@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2020 - The MegaMek Team
+ *
+ * This file is part of MekHQ.
+ *
+ * MekHQ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MekHQ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MekHQ.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mekhq.campaign;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import megamek.common.event.Subscribe;
+import mekhq.MekHQ;
+import mekhq.campaign.event.PersonChangedEvent;
+import mekhq.campaign.event.PersonNewEvent;
+import mekhq.campaign.event.PersonRemovedEvent;
+import mekhq.campaign.personnel.Person;
+
+/**
+ * Keeps the personnel of a campaign sorted by their primary and secondary roles, so looking
+ * for the techs, doctors or admins only has to go through the people in those roles.
+ * <p>
+ * Roles only change through {@link Person#setPrimaryRole(int)} and
+ * {@link Person#setSecondaryRole(int)}, which fire a {@link PersonChangedEvent}, and people
+ * only join or leave the campaign with a {@link PersonNewEvent} or {@link PersonRemovedEvent}.
+ * Status and skills change in many places that fire no event, so whether someone is active or
+ * skilled enough is still checked by the caller for the people found here.
+ * <p>
+ * People are returned in the order of the personnel list, as if it had been searched.
+ */
+class PersonnelRoleIndex {
+
+    private final Campaign campaign;
+
+    private boolean built = false;
+    private long nextPosition = 0;
+    /** The position of each person in the personnel list */
+    private final Map<Person, Long> positions = new IdentityHashMap<>();
+    /** The primary and secondary role each person was filed under */
+    private final Map<Person, int[]> filedRoles = new IdentityHashMap<>();
+    /** The people in each role, by their position */
+    private final Map<Integer, TreeMap<Long, Person>> byRole = new HashMap<>();
+
+    PersonnelRoleIndex(Campaign campaign) {
+        this.campaign = campaign;
+        MekHQ.registerHandler(this);
+    }
+
+    /**
+     * Stops listening for personnel events. Called when the campaign is replaced.
+     */
+    synchronized void dispose() {
+        MekHQ.unregisterHandler(this);
+        built = false;
+        positions.clear();
+        filedRoles.clear();
+        byRole.clear();
+    }
+
+    /**
+     * @return the people with any of the given roles as primary or secondary role, in the
+     *         order of the personnel list
+     */
+    synchronized List<Person> getPeopleInRoles(int... roles) {
+        if (!built) {
+            for (Person person : campaign.getPersonnel()) {
+                add(person);
+            }
+            built = true;
+        }
+        if (roles.length == 1) {
+            TreeMap<Long, Person> people = byRole.get(roles[0]);
+            return (null == people) ? new ArrayList<>() : new ArrayList<>(people.values());
+        }
+        TreeMap<Long, Person> result = new TreeMap<>();
+        for (int role : roles) {
+            TreeMap<Long, Person> people = byRole.get(role);
+            if (null != people) {
+                result.putAll(people);
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    private void add(Person person) {
+        Long position = positions.get(person);
+        if (null == position) {
+            position = nextPosition++;
+            positions.put(person, position);
+        } else {
+            unfile(person, position);
+        }
+        int[] roles = { person.getPrimaryRole(), person.getSecondaryRole() };
+        for (int role : roles) {
+            byRole.computeIfAbsent(role, r -> new TreeMap<>()).put(position, person);
+        }
+        filedRoles.put(person, roles);
+    }
+
+    private void remove(Person person) {
+        Long position = positions.remove(person);
+        if (null != position) {
+            unfile(person, position);
+        }
+    }
+
+    private void unfile(Person person, Long position) {
+        int[] roles = filedRoles.remove(person);
+        if (null != roles) {
+            for (int role : roles) {
+                TreeMap<Long, Person> people = byRole.get(role);
+                if (null != people) {
+                    people.remove(position);
+                }
+            }
+        }
+    }
+
+    /** @return true if the person is the one in this campaign's personnel list */
+    private boolean isInCampaign(Person person) {
+        return (null != person) && (campaign.getPerson(person.getId()) == person);
+    }
+
+    @Subscribe
+    public synchronized void handle(PersonNewEvent ev) {
+        if (built && isInCampaign(ev.getPerson())) {
+            add(ev.getPerson());
+        }
+    }
+
+    @Subscribe
+    public synchronized void handle(PersonChangedEvent ev) {
+        if (built && positions.containsKey(ev.getPerson()) && isInCampaign(ev.getPerson())) {
+            add(ev.getPerson());
+        }
+    }
+
+    @Subscribe
+    public synchronized void handle(PersonRemovedEvent ev) {
+        if (built && !isInCampaign(ev.getPerson())) {
+            remove(ev.getPerson());
+        }
+    }
+}
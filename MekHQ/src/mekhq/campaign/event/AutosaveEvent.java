@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2020 The MegaMek Team. All rights reserved.
+ *
+ * This file is part of MekHQ.
+ *
+ * MekHQ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MekHQ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MekHQ.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mekhq.campaign.event;
+
+import java.io.File;
+
+import mekhq.campaign.Campaign;
+
+/**
+ * Abstract base class for events reporting the outcome of an autosave.
+ * <p>
+ * Autosaves written in the background trigger these events on the event dispatch thread once
+ * they are done, like the other campaign events.
+ */
+public abstract class AutosaveEvent extends CampaignEvent {
+
+    private final File file;
+
+    public AutosaveEvent(Campaign campaign, File file) {
+        super(campaign);
+        this.file = file;
+    }
+
+    /**
+     * @return the autosave file that was written (or should have been)
+     */
+    public File getFile() {
+        return file;
+    }
+}
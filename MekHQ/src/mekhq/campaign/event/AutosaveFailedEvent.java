@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2020 The MegaMek Team. All rights reserved.
+ *
+ * This file is part of MekHQ.
+ *
+ * MekHQ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MekHQ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MekHQ.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mekhq.campaign.event;
+
+import java.io.File;
+
+import mekhq.campaign.Campaign;
+
+/**
+ * Triggered when an autosave could not be written.
+ *
+ */
+public class AutosaveFailedEvent extends AutosaveEvent {
+
+    private final Exception cause;
+
+    public AutosaveFailedEvent(Campaign campaign, File file, Exception cause) {
+        super(campaign, file);
+        this.cause = cause;
+    }
+
+    public Exception getCause() {
+        return cause;
+    }
+
+}
@@ -0,0 +1,549 @@
+/*
+ * Copyright (c) 2020 - The MegaMek Team
+ *
+ * This file is part of MekHQ.
+ *
+ * MekHQ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MekHQ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MekHQ.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mekhq.campaign.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import megamek.common.event.Subscribe;
+import megamek.common.logging.LogLevel;
+import mekhq.MekHQ;
+import mekhq.MekHqXmlSerializable;
+import mekhq.MekHqXmlUtil;
+import mekhq.campaign.Campaign;
+import mekhq.campaign.event.PartEvent;
+import mekhq.campaign.event.PersonEvent;
+import mekhq.campaign.event.UnitEvent;
+
+/**
+ * Delta saves for large campaigns: a full base save followed by numbered change journals.
+ * <p>
+ * Each journal is an ordinary campaign file, except that its units, personnel and parts nodes
+ * only hold the records that changed since the previous save, and it carries a
+ * <code>journalRemoved</code> node listing the records that were removed. The changed records
+ * are the ones a {@link UnitEvent}, {@link PersonEvent} or {@link PartEvent} was fired for
+ * since the previous save, so nothing else has to be written out to find them. Changes made
+ * without firing an event are picked up by the next base.
+ * <p>
+ * Journals are named after the base file (<code>base.journal-0001.gz</code>, ...). Every
+ * {@link #getCompactionInterval()} saves, or whenever most of the records changed, a new base
+ * is written and the journals are removed. {@link #openCampaignFile(File)} replays the journals
+ * onto their base when a campaign is loaded.
+ * <p>
+ * Every base gets a new generation id in its <code>journalGeneration</code> node, which its
+ * journals repeat. Journals left over from an earlier base, say because removing them failed,
+ * have a different one and are not replayed.
+ */
+public class CampaignJournal {
+
+    public static final int DEFAULT_COMPACTION_INTERVAL = 30;
+
+    private static final String JOURNAL_SUFFIX = ".journal-"; //$NON-NLS-1$
+    private static final String REMOVED_NODE = "journalRemoved"; //$NON-NLS-1$
+    private static final String GENERATION_NODE = "journalGeneration"; //$NON-NLS-1$
+    private static final List<String> RECORD_SECTIONS = Arrays.asList("units", "personnel", "parts"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    private static final String UNIT_NODE = "unit"; //$NON-NLS-1$
+    private static final String PERSON_NODE = "person"; //$NON-NLS-1$
+    private static final String PART_NODE = "part"; //$NON-NLS-1$
+    private static final int REMOVED = -1;
+
+    private final Campaign campaign;
+    private final File baseFile;
+    private int compactionInterval = DEFAULT_COMPACTION_INTERVAL;
+
+    /** The generation id of the current base, or null if no base has been written yet */
+    private String generation;
+    private int journalCount;
+    /** The units, people and parts that changed or were removed since the previous save */
+    private final Set<UUID> changedUnits = new HashSet<>();
+    private final Set<UUID> changedPeople = new HashSet<>();
+    private final Set<Integer> changedParts = new HashSet<>();
+
+    /**
+     * @param campaign the campaign to save
+     * @param baseFile the file holding the full base save
+     */
+    public CampaignJournal(Campaign campaign, File baseFile) {
+        this.campaign = campaign;
+        this.baseFile = baseFile;
+        MekHQ.registerHandler(this);
+    }
+
+    /**
+     * Stops following the changes to the campaign. Called when the journal is no longer used.
+     */
+    public void close() {
+        MekHQ.unregisterHandler(this);
+    }
+
+    public Campaign getCampaign() {
+        return campaign;
+    }
+
+    public File getBaseFile() {
+        return baseFile;
+    }
+
+    public int getCompactionInterval() {
+        return compactionInterval;
+    }
+
+    public void setCompactionInterval(int compactionInterval) {
+        this.compactionInterval = Math.max(1, compactionInterval);
+    }
+
+    /**
+     * Saves the campaign, as a journal if possible or as a new base otherwise. The first save
+     * made through a journal is always a new base.
+     *
+     * @return the file that was written
+     * @throws IOException if the save could not be written
+     */
+    public synchronized File save() throws IOException {
+        final String METHOD_NAME = "save()"; //$NON-NLS-1$
+
+        int recordCount = campaign.getUnits().size() + campaign.getPersonnel().size() + campaign.getParts().size();
+        int changedCount = changedUnits.size() + changedPeople.size() + changedParts.size();
+        if ((null == generation) || (journalCount >= compactionInterval) || (changedCount * 2 > recordCount)) {
+            return writeBase();
+        }
+
+        Set<MekHqXmlSerializable> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<String> removed = new ArrayList<>();
+        for (UUID id : changedUnits) {
+            addChange(campaign.getUnit(id), UNIT_NODE, id.toString(), changed, removed);
+        }
+        for (UUID id : changedPeople) {
+            addChange(campaign.getPerson(id), PERSON_NODE, id.toString(), changed, removed);
+        }
+        for (Integer id : changedParts) {
+            addChange(campaign.getPart(id), PART_NODE, id.toString(), changed, removed);
+        }
+
+        File written = writeJournal(changed, removed);
+        clearChanges();
+        MekHQ.getLogger().log(CampaignJournal.class, METHOD_NAME, LogLevel.INFO,
+                String.format("Journal %d written with %d changed and %d removed records", //$NON-NLS-1$
+                        journalCount, changed.size(), removed.size()));
+        return written;
+    }
+
+    private static void addChange(MekHqXmlSerializable record, String nodeName, String id,
+            Set<MekHqXmlSerializable> changed, List<String> removed) {
+        if (null != record) {
+            changed.add(record);
+        } else {
+            removed.add(getRecordKey(nodeName, id));
+        }
+    }
+
+    private void clearChanges() {
+        changedUnits.clear();
+        changedPeople.clear();
+        changedParts.clear();
+    }
+
+    private File writeBase() throws IOException {
+        String newGeneration = UUID.randomUUID().toString();
+        File tempFile = new File(baseFile.getPath() + ".tmp"); //$NON-NLS-1$
+        try {
+            try (OutputStream os = new FileOutputStream(tempFile)) {
+                new CampaignXmlWriter(campaign).write(os, baseFile.getName().endsWith(".gz"), //$NON-NLS-1$
+                        null, new JournalInfo(newGeneration, null));
+            }
+            Files.move(tempFile.toPath(), baseFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            tempFile.delete();
+            throw ex;
+        }
+        generation = newGeneration;
+        clearChanges();
+
+        // Journals only make sense on top of the base they were written against. They are only
+        // removed once the new base is in place, so a failed save still leaves the old base
+        // together with all its journals.
+        for (File journal : getJournalFiles(baseFile)) {
+            Files.delete(journal.toPath());
+        }
+        journalCount = 0;
+        return baseFile;
+    }
+
+    private File writeJournal(Set<MekHqXmlSerializable> changed, List<String> removed) throws IOException {
+        File journal = new File(String.format("%s%s%04d.gz", baseFile.getPath(), JOURNAL_SUFFIX, journalCount + 1)); //$NON-NLS-1$
+        // The journal only gets its name once it is complete, as the loader replays every
+        // journal it finds and a truncated one would make the whole save unreadable
+        File tempFile = new File(journal.getPath() + ".tmp"); //$NON-NLS-1$
+        try {
+            try (OutputStream os = new FileOutputStream(tempFile)) {
+                new CampaignXmlWriter(campaign).write(os, true, changed::contains,
+                        new JournalInfo(generation, removed));
+            }
+            Files.move(tempFile.toPath(), journal.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            tempFile.delete();
+            throw ex;
+        }
+        journalCount++;
+        return journal;
+    }
+
+    @Subscribe
+    public synchronized void handle(UnitEvent ev) {
+        if ((null != ev.getUnit()) && (null != ev.getUnit().getId())) {
+            changedUnits.add(ev.getUnit().getId());
+        }
+    }
+
+    @Subscribe
+    public synchronized void handle(PersonEvent ev) {
+        if ((null != ev.getPerson()) && (null != ev.getPerson().getId())) {
+            changedPeople.add(ev.getPerson().getId());
+        }
+    }
+
+    @Subscribe
+    public synchronized void handle(PartEvent ev) {
+        if (null != ev.getPart()) {
+            changedParts.add(ev.getPart().getId());
+        }
+    }
+
+    private static String getRecordKey(String nodeName, String id) {
+        return nodeName + ':' + id;
+    }
+
+    private static String getRecordKey(XMLStreamReader reader) {
+        return getRecordKey(reader.getLocalName(), reader.getAttributeValue(null, "id")); //$NON-NLS-1$
+    }
+
+    /**
+     * @return the journals written on top of the given base file, in the order they were written
+     */
+    public static List<File> getJournalFiles(File baseFile) {
+        File folder = baseFile.getAbsoluteFile().getParentFile();
+        String prefix = baseFile.getName() + JOURNAL_SUFFIX;
+        // Journals still being written end in .tmp and are left out
+        File[] files = (null == folder) ? null
+                : folder.listFiles((dir, name) -> name.startsWith(prefix) && name.endsWith(".gz")); //$NON-NLS-1$
+        if (null == files) {
+            return new ArrayList<>();
+        }
+        List<File> retVal = new ArrayList<>(Arrays.asList(files));
+        retVal.sort(Comparator.comparing(File::getName));
+        return retVal;
+    }
+
+    /**
+     * Opens a campaign file for loading. If journals were written on top of it they are replayed
+     * onto it, and the returned stream holds the resulting campaign XML.
+     *
+     * @param file the campaign file to load
+     * @return a stream to hand to {@link mekhq.campaign.CampaignFactory}
+     * @throws IOException if the file or its journals could not be read
+     */
+    public static InputStream openCampaignFile(File file) throws IOException {
+        List<File> journals = getJournalFiles(file);
+        if (!journals.isEmpty()) {
+            journals = getMatchingJournals(file, journals);
+        }
+        if (journals.isEmpty()) {
+            return new FileInputStream(file);
+        }
+
+        MekHQ.getLogger().log(CampaignJournal.class, "openCampaignFile(File)", LogLevel.INFO, //$NON-NLS-1$
+                String.format("Replaying %d journals onto %s", journals.size(), file.getName())); //$NON-NLS-1$
+
+        File merged = File.createTempFile("mekhq-journal", ".xml"); //$NON-NLS-1$ //$NON-NLS-2$
+        merged.deleteOnExit();
+        try {
+            writeMergedCampaign(file, journals, merged);
+        } catch (XMLStreamException ex) {
+            merged.delete();
+            throw new IOException(ex);
+        }
+        return new FileInputStream(merged) {
+            @Override
+            public void close() throws IOException {
+                super.close();
+                merged.delete();
+            }
+        };
+    }
+
+    /**
+     * @return the journals written on top of this very base, leaving out any left over from
+     *         an earlier one
+     */
+    private static List<File> getMatchingJournals(File baseFile, List<File> journals) throws IOException {
+        final String METHOD_NAME = "getMatchingJournals(File,List<File>)"; //$NON-NLS-1$
+
+        List<File> retVal = new ArrayList<>();
+        try {
+            String baseGeneration = readGeneration(baseFile);
+            for (File journal : journals) {
+                if ((null != baseGeneration) && baseGeneration.equals(readGeneration(journal))) {
+                    retVal.add(journal);
+                } else {
+                    MekHQ.getLogger().log(CampaignJournal.class, METHOD_NAME, LogLevel.WARNING,
+                            "Ignoring journal " + journal.getName() + " written for a different base"); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+            }
+        } catch (XMLStreamException ex) {
+            throw new IOException(ex);
+        }
+        return retVal;
+    }
+
+    /**
+     * @return the generation id held by the campaign file, or null if it has none
+     */
+    private static String readGeneration(File file) throws IOException, XMLStreamException {
+        try (InputStream in = openStream(file)) {
+            XMLStreamReader reader = MekHqXmlUtil.createSafeXMLStreamReader(in);
+            try {
+                if (MekHqXmlUtil.nextChildElement(reader) && advanceTo(reader, GENERATION_NODE)) {
+                    return reader.getElementText().trim();
+                }
+                return null;
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Writes the latest journal with its record sections replaced by the base records that
+     * were neither changed nor removed since, followed by the latest version of every record
+     * held in the journals.
+     */
+    private static void writeMergedCampaign(File baseFile, List<File> journals, File merged)
+            throws IOException, XMLStreamException {
+        Map<String, Integer> latest = new HashMap<>();
+        for (int j = 0; j < journals.size(); j++) {
+            scanJournal(journals.get(j), j, latest);
+        }
+
+        try (InputStream lastIn = openStream(journals.get(journals.size() - 1));
+                InputStream baseIn = openStream(baseFile);
+                OutputStream out = new BufferedOutputStream(new FileOutputStream(merged),
+                        CampaignXmlWriter.BUFFER_SIZE)) {
+            XMLStreamReader last = MekHqXmlUtil.createSafeXMLStreamReader(lastIn);
+            XMLStreamReader base = MekHqXmlUtil.createSafeXMLStreamReader(baseIn);
+            XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8"); //$NON-NLS-1$
+
+            writer.writeStartDocument("UTF-8", "1.0"); //$NON-NLS-1$ //$NON-NLS-2$
+            if (!MekHqXmlUtil.nextChildElement(last) || !MekHqXmlUtil.nextChildElement(base)) {
+                throw new IOException("Campaign file has no root element"); //$NON-NLS-1$
+            }
+            writeStartElement(last, writer);
+
+            while (MekHqXmlUtil.nextChildElement(last)) {
+                String name = last.getLocalName();
+                if (name.equals(REMOVED_NODE) || name.equals(GENERATION_NODE)) {
+                    MekHqXmlUtil.skipElement(last);
+                } else if (RECORD_SECTIONS.contains(name)) {
+                    writer.writeStartElement(name);
+                    if (advanceTo(base, name)) {
+                        copyRecords(base, writer, key -> !latest.containsKey(key));
+                    }
+                    for (int j = 0; j < journals.size(); j++) {
+                        final int journal = j;
+                        try (InputStream in = openStream(journals.get(j))) {
+                            XMLStreamReader reader = MekHqXmlUtil.createSafeXMLStreamReader(in);
+                            if (MekHqXmlUtil.nextChildElement(reader) && advanceTo(reader, name)) {
+                                copyRecords(reader, writer, key -> Integer.valueOf(journal).equals(latest.get(key)));
+                            }
+                            reader.close();
+                        }
+                    }
+                    MekHqXmlUtil.skipElement(last);
+                    writer.writeEndElement();
+                } else {
+                    copyElement(last, writer);
+                }
+            }
+
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.close();
+            last.close();
+            base.close();
+        }
+    }
+
+    /**
+     * Records, for every record in the journal, that this journal holds its latest version or
+     * that it was removed.
+     */
+    private static void scanJournal(File journal, int index, Map<String, Integer> latest)
+            throws IOException, XMLStreamException {
+        try (InputStream in = openStream(journal)) {
+            XMLStreamReader reader = MekHqXmlUtil.createSafeXMLStreamReader(in);
+            if (!MekHqXmlUtil.nextChildElement(reader)) {
+                throw new IOException("Journal has no root element: " + journal.getName()); //$NON-NLS-1$
+            }
+            while (MekHqXmlUtil.nextChildElement(reader)) {
+                String name = reader.getLocalName();
+                if (name.equals(REMOVED_NODE) || RECORD_SECTIONS.contains(name)) {
+                    int value = name.equals(REMOVED_NODE) ? REMOVED : index;
+                    while (MekHqXmlUtil.nextChildElement(reader)) {
+                        latest.put(getRecordKey(reader), value);
+                        MekHqXmlUtil.skipElement(reader);
+                    }
+                } else {
+                    MekHqXmlUtil.skipElement(reader);
+                }
+            }
+            reader.close();
+        }
+    }
+
+    private static InputStream openStream(File file) throws IOException {
+        InputStream in = new BufferedInputStream(new FileInputStream(file), CampaignXmlWriter.BUFFER_SIZE);
+        if (file.getName().endsWith(".gz")) { //$NON-NLS-1$
+            in = new GZIPInputStream(in, CampaignXmlWriter.BUFFER_SIZE);
+        }
+        return in;
+    }
+
+    /**
+     * Moves the reader forward to the next top level node with the given name.
+     */
+    private static boolean advanceTo(XMLStreamReader reader, String name) throws XMLStreamException {
+        while (MekHqXmlUtil.nextChildElement(reader)) {
+            if (reader.getLocalName().equals(name)) {
+                return true;
+            }
+            MekHqXmlUtil.skipElement(reader);
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    private interface RecordFilter {
+        boolean accept(String key);
+    }
+
+    private static void copyRecords(XMLStreamReader reader, XMLStreamWriter writer, RecordFilter filter)
+            throws XMLStreamException {
+        while (MekHqXmlUtil.nextChildElement(reader)) {
+            if (filter.accept(getRecordKey(reader))) {
+                copyElement(reader, writer);
+            } else {
+                MekHqXmlUtil.skipElement(reader);
+            }
+        }
+    }
+
+    private static void writeStartElement(XMLStreamReader reader, XMLStreamWriter writer)
+            throws XMLStreamException {
+        writer.writeStartElement(reader.getLocalName());
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            writer.writeAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+        }
+    }
+
+    /**
+     * Copies the element the reader is positioned on, leaving the reader on its end element.
+     */
+    private static void copyElement(XMLStreamReader reader, XMLStreamWriter writer) throws XMLStreamException {
+        writeStartElement(reader, writer);
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    writeStartElement(reader, writer);
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    writer.writeEndElement();
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.SPACE:
+                    writer.writeCharacters(reader.getText());
+                    break;
+                case XMLStreamConstants.CDATA:
+                    writer.writeCData(reader.getText());
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * The journalGeneration node of a base or journal, followed by the journalRemoved node
+     * of a journal.
+     */
+    private static class JournalInfo implements MekHqXmlSerializable {
+        private final String generation;
+        /** The removed records, or null for a base */
+        private final List<String> keys;
+
+        JournalInfo(String generation, List<String> keys) {
+            this.generation = generation;
+            this.keys = keys;
+        }
+
+        @Override
+        public void writeToXml(PrintWriter pw1, int indent) {
+            pw1.println(MekHqXmlUtil.indentStr(indent) + "<" + GENERATION_NODE + ">"
+                    + MekHqXmlUtil.escape(generation) + "</" + GENERATION_NODE + ">");
+            if (null == keys) {
+                return;
+            }
+            pw1.println(MekHqXmlUtil.indentStr(indent) + "<" + REMOVED_NODE + ">");
+            for (String key : keys) {
+                int split = key.indexOf(':');
+                pw1.println(MekHqXmlUtil.indentStr(indent + 1) + "<" + key.substring(0, split)
+                        + " id=\"" + MekHqXmlUtil.escape(key.substring(split + 1)) + "\"/>");
+            }
+            pw1.println(MekHqXmlUtil.indentStr(indent) + "</" + REMOVED_NODE + ">");
+        }
+    }
+}
@@ -18,12 +18,16 @@
  */
 package mekhq.campaign.io;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -36,11 +40,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
-import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.w3c.dom.DOMException;
 import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
@@ -115,9 +120,15 @@ import mekhq.module.atb.AtBEventProcessor;
 
 public class CampaignXmlParser {
 
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
     private InputStream is;
     private MekHQ app;
 
+    private boolean foundPersonnelMarket;
+    private boolean foundContractMarket;
+    private boolean foundUnitMarket;
+
     public CampaignXmlParser(InputStream is, MekHQ app) {
         this.is = is;
         this.app = app;
@@ -143,194 +154,35 @@ public class CampaignXmlParser {
         Campaign retVal = new Campaign();
         retVal.setApp(app);
 
-        Document xmlDoc = null;
+        foundPersonnelMarket = false;
+        foundContractMarket = false;
+        foundUnitMarket = false;
 
+        Version version;
+        File spool = null;
         try {
-            // Using factory get an instance of document builder
-            DocumentBuilder db = MekHqXmlUtil.newSafeDocumentBuilder();
-
-            // Parse using builder to get DOM representation of the XML file
-            xmlDoc = db.parse(is);
-        } catch (Exception ex) {
-            MekHQ.getLogger().error(CampaignXmlParser.class, METHOD_NAME, ex);
-
-            throw new CampaignXmlParseException(ex);
-        }
-
-        Element campaignEle = xmlDoc.getDocumentElement();
-        NodeList nl = campaignEle.getChildNodes();
-
-        // Get rid of empty text nodes and adjacent text nodes...
-        // Stupid weird parsing of XML. At least this cleans it up.
-        campaignEle.normalize();
-
-        Version version = new Version(campaignEle.getAttribute("version"));
-
-        // we need to iterate through three times, the first time to collect
-        // any custom units that might not be written yet
-        for (int x = 0; x < nl.getLength(); x++) {
-            Node wn = nl.item(x);
-
-            if (wn.getParentNode() != campaignEle) {
-                continue;
-            }
-
-            int xc = wn.getNodeType();
-
-            if (xc == Node.ELEMENT_NODE) {
-                // This is what we really care about.
-                // All the meat of our document is in this node type, at this
-                // level.
-                // Okay, so what element is it?
-                String xn = wn.getNodeName();
-
-                if (xn.equalsIgnoreCase("info")) { // This is needed so that the campaign name gets set in retVal
-                    try {
-                        processInfoNode(retVal, wn, version);
-                    } catch (DOMException e) {
-                        throw new CampaignXmlParseException(e);
-                    }
-                } else if (xn.equalsIgnoreCase("custom")) {
-                    processCustom(retVal, wn);
-                }
-            } else {
-                // If it's a text node or attribute or whatever at this level,
-                // it's probably white-space.
-                // We can safely ignore it even if it isn't, for now.
-                continue;
-            }
-        }
-        MechSummaryCache.getInstance().loadMechData();
-
-        // the second time to check for any null entities
-        for (int x = 0; x < nl.getLength(); x++) {
-            Node wn = nl.item(x);
-
-            if (wn.getParentNode() != campaignEle) {
-                continue;
-            }
-
-            int xc = wn.getNodeType();
-
-            if (xc == Node.ELEMENT_NODE) {
-                // This is what we really care about.
-                // All the meat of our document is in this node type, at this
-                // level.
-                // Okay, so what element is it?
-                String xn = wn.getNodeName();
+            // The stream is read twice: once to collect the campaign info and
+            // any custom units (which are written at the end of the file but
+            // must be on disk before the units are loaded), and once for
+            // everything else. Spool it to disk rather than holding it in memory.
+            spool = spoolToTempFile(is);
 
-                if (xn.equalsIgnoreCase("units")) {
-                    String missingList = checkUnits(wn);
-                    if (null != missingList) {
-                        throw new NullEntityException(missingList);
-                    }
-                }
-            } else {
-                // If it's a text node or attribute or whatever at this level,
-                // it's probably white-space.
-                // We can safely ignore it even if it isn't, for now.
-                continue;
+            try (InputStream in = new BufferedInputStream(new FileInputStream(spool), STREAM_BUFFER_SIZE)) {
+                version = preloadInfoAndCustoms(retVal, in);
             }
-        }
-
-        boolean foundPersonnelMarket = false;
-        boolean foundContractMarket = false;
-        boolean foundUnitMarket = false;
-
-        // Okay, lets iterate through the children, eh?
-        for (int x = 0; x < nl.getLength(); x++) {
-            Node wn = nl.item(x);
+            MechSummaryCache.getInstance().loadMechData();
 
-            if (wn.getParentNode() != campaignEle) {
-                continue;
+            try (InputStream in = new BufferedInputStream(new FileInputStream(spool), STREAM_BUFFER_SIZE)) {
+                loadCampaignNodes(retVal, in, version);
             }
+        } catch (IOException | XMLStreamException | ParserConfigurationException | DOMException ex) {
+            MekHQ.getLogger().error(CampaignXmlParser.class, METHOD_NAME, ex);
 
-            int xc = wn.getNodeType();
-
-            if (xc == Node.ELEMENT_NODE) {
-                // This is what we really care about.
-                // All the meat of our document is in this node type, at this
-                // level.
-                // Okay, so what element is it?
-                String xn = wn.getNodeName();
-
-                if (xn.equalsIgnoreCase("campaignOptions")) {
-                    retVal.setCampaignOptions(CampaignOptions
-                            .generateCampaignOptionsFromXml(wn));
-                } else if (xn.equalsIgnoreCase("randomSkillPreferences")) {
-                    retVal.setRandomSkillPreferences(RandomSkillPreferences
-                            .generateRandomSkillPreferencesFromXml(wn));
-                } /* We don't need this since info is processed above in the first iteration...
-                else if (xn.equalsIgnoreCase("info")) {
-                    processInfoNode(retVal, wn, version);
-                }*/ else if (xn.equalsIgnoreCase("parts")) {
-                    processPartNodes(retVal, wn, version);
-                } else if (xn.equalsIgnoreCase("personnel")) {
-                    // TODO: Make this depending on campaign options
-                    // TODO: hoist registerAll out of this
-                    InjuryTypes.registerAll();
-                    processPersonnelNodes(retVal, wn, version);
-                } else if (xn.equalsIgnoreCase("ancestors")) {
-                    processAncestorNodes(retVal, wn, version);
-                } else if (xn.equalsIgnoreCase("units")) {
-                    processUnitNodes(retVal, wn, version);
-                } else if (xn.equalsIgnoreCase("missions")) {
-                    processMissionNodes(retVal, wn, version);
-                } else if (xn.equalsIgnoreCase("forces")) {
-                    processForces(retVal, wn, version);
-                } else if (xn.equalsIgnoreCase("finances")) {
-                    processFinances(retVal, wn);
-                } else if (xn.equalsIgnoreCase("location")) {
-                    retVal.setLocation(CurrentLocation.generateInstanceFromXML(
-                            wn, retVal));
-                } else if (xn.equalsIgnoreCase("skillTypes")) {
-                    processSkillTypeNodes(retVal, wn, version);
-                } else if (xn.equalsIgnoreCase("specialAbilities")) {
-                    processSpecialAbilityNodes(retVal, wn, version);
-                } else if (xn.equalsIgnoreCase("gameOptions")) {
-                    processGameOptionNodes(retVal, wn);
-                } else if (xn.equalsIgnoreCase("kills")) {
-                    processKillNodes(retVal, wn, version);
-                } else if (xn.equalsIgnoreCase("shoppingList")) {
-                    retVal.setShoppingList(ShoppingList.generateInstanceFromXML(
-                            wn, retVal, version));
-                } else if (xn.equalsIgnoreCase("personnelMarket")) {
-                    retVal.setPersonnelMarket(PersonnelMarket.generateInstanceFromXML(
-                            wn, retVal, version));
-                    foundPersonnelMarket = true;
-                } else if (xn.equalsIgnoreCase("contractMarket")) {
-                    retVal.setContractMarket(ContractMarket.generateInstanceFromXML(
-                            wn, retVal, version));
-                    foundContractMarket = true;
-                } else if (xn.equalsIgnoreCase("unitMarket")) {
-                    retVal.setUnitMarket(UnitMarket.generateInstanceFromXML(
-                            wn, retVal, version));
-                    foundUnitMarket = true;
-                } else if (xn.equalsIgnoreCase("lances")) {
-                    processLanceNodes(retVal, wn);
-                } else if (xn.equalsIgnoreCase("retirementDefectionTracker")) {
-                    retVal.setRetirementDefectionTracker(RetirementDefectionTracker.generateInstanceFromXML(wn, retVal));
-                } else if (xn.equalsIgnoreCase("shipSearchStart")) {
-                    Calendar c = new GregorianCalendar();
-                    c.setTime(parseDate(retVal.getShortDateFormatter(), wn.getTextContent()));
-                    retVal.setShipSearchStart(c);
-                } else if (xn.equalsIgnoreCase("shipSearchType")) {
-                    retVal.setShipSearchType(Integer.parseInt(wn.getTextContent()));
-                } else if (xn.equalsIgnoreCase("shipSearchResult")) {
-                    retVal.setShipSearchResult(wn.getTextContent());
-                } else if (xn.equalsIgnoreCase("shipSearchExpiration")) {
-                    Calendar c = new GregorianCalendar();
-                    c.setTime(parseDate(retVal.getShortDateFormatter(), wn.getTextContent()));
-                    retVal.setShipSearchExpiration(c);
-                } else if (xn.equalsIgnoreCase("customPlanetaryEvents")) {
-                    updatePlanetaryEventsFromXML(wn);
-                }
-
-            } else {
-                // If it's a text node or attribute or whatever at this level,
-                // it's probably white-space.
-                // We can safely ignore it even if it isn't, for now.
-                continue;
+            throw new CampaignXmlParseException(ex);
+        } finally {
+            if ((null != spool) && !spool.delete()) {
+                MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.WARNING,
+                        "Could not delete temporary campaign file " + spool.getPath()); //$NON-NLS-1$
             }
         }
 
@@ -696,13 +548,6 @@ public class CampaignXmlParser {
                         System.currentTimeMillis() - timestamp));
         timestamp = System.currentTimeMillis();
 
-        retVal.reloadNews();
-
-        MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.INFO,
-                String.format("[Campaign Load] News loaded in %dms", //$NON-NLS-1$
-                        System.currentTimeMillis() - timestamp));
-        timestamp = System.currentTimeMillis();
-
         // If we don't have a personnel market, create one.
         if (!foundPersonnelMarket) {
             retVal.setPersonnelMarket(new PersonnelMarket(retVal));
@@ -809,6 +654,201 @@ public class CampaignXmlParser {
         return retVal;
     }
 
+    /**
+     * Copies the campaign stream to a temporary file so that it can be read more than once
+     * without keeping the whole document in memory.
+     */
+    private static File spoolToTempFile(InputStream is) throws IOException {
+        File spool = File.createTempFile("mekhq-campaign", ".xml"); //$NON-NLS-1$ //$NON-NLS-2$
+        spool.deleteOnExit();
+        Files.copy(is, spool.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return spool;
+    }
+
+    /**
+     * First streaming pass over the campaign file. Only the info and custom nodes are
+     * materialized; every other top level node is skipped without being built.
+     *
+     * @return the version the campaign file was written with
+     */
+    private static Version preloadInfoAndCustoms(Campaign retVal, InputStream in)
+            throws XMLStreamException, ParserConfigurationException, CampaignXmlParseException {
+        XMLStreamReader reader = MekHqXmlUtil.createSafeXMLStreamReader(in);
+        try {
+            if (!MekHqXmlUtil.nextChildElement(reader)) {
+                throw new CampaignXmlParseException("Campaign file has no root element"); //$NON-NLS-1$
+            }
+            Version version = new Version(reader.getAttributeValue(null, "version")); //$NON-NLS-1$
+            Document doc = MekHqXmlUtil.newSafeDocumentBuilder().newDocument();
+
+            while (MekHqXmlUtil.nextChildElement(reader)) {
+                String xn = reader.getLocalName();
+
+                if (xn.equalsIgnoreCase("info")) { // This is needed so that the campaign name gets set in retVal
+                    processInfoNode(retVal, MekHqXmlUtil.readElement(reader, doc), version);
+                } else if (xn.equalsIgnoreCase("custom")) {
+                    processCustom(retVal, MekHqXmlUtil.readElement(reader, doc));
+                } else {
+                    MekHqXmlUtil.skipElement(reader);
+                }
+            }
+            return version;
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Second streaming pass over the campaign file. Small top level nodes are built one at a
+     * time and handed to their usual parsers, while the large collections (units, personnel,
+     * ancestors, missions and parts) are built one child at a time so that only a single
+     * unit, person or part is held as a DOM fragment at any point.
+     */
+    private void loadCampaignNodes(Campaign retVal, InputStream in, Version version)
+            throws XMLStreamException, ParserConfigurationException, CampaignXmlParseException,
+            NullEntityException {
+        XMLStreamReader reader = MekHqXmlUtil.createSafeXMLStreamReader(in);
+        try {
+            if (!MekHqXmlUtil.nextChildElement(reader)) {
+                throw new CampaignXmlParseException("Campaign file has no root element"); //$NON-NLS-1$
+            }
+
+            while (MekHqXmlUtil.nextChildElement(reader)) {
+                Document doc = MekHqXmlUtil.newSafeDocumentBuilder().newDocument();
+                String xn = reader.getLocalName();
+
+                if (xn.equalsIgnoreCase("info") || xn.equalsIgnoreCase("custom")) {
+                    // Already processed by preloadInfoAndCustoms
+                    MekHqXmlUtil.skipElement(reader);
+                } else if (xn.equalsIgnoreCase("units")) {
+                    processUnitNodes(retVal, reader, doc, version);
+                } else if (xn.equalsIgnoreCase("personnel")) {
+                    // TODO: Make this depending on campaign options
+                    // TODO: hoist registerAll out of this
+                    InjuryTypes.registerAll();
+                    streamChildNodes(reader, doc, "person", "Personnel", //$NON-NLS-1$ //$NON-NLS-2$
+                            wn -> processPersonNode(retVal, wn, version));
+                } else if (xn.equalsIgnoreCase("ancestors")) {
+                    streamChildNodes(reader, doc, "ancestor", "Ancestor", //$NON-NLS-1$ //$NON-NLS-2$
+                            wn -> processAncestorNode(retVal, wn, version));
+                } else if (xn.equalsIgnoreCase("missions")) {
+                    streamChildNodes(reader, doc, "mission", "Mission", //$NON-NLS-1$ //$NON-NLS-2$
+                            wn -> processMissionNode(retVal, wn, version));
+                } else if (xn.equalsIgnoreCase("parts")) {
+                    streamChildNodes(reader, doc, "part", "Part", //$NON-NLS-1$ //$NON-NLS-2$
+                            wn -> processPartNode(retVal, wn, version));
+                } else {
+                    processCampaignNode(retVal, MekHqXmlUtil.readElement(reader, doc), version);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Processes a top level campaign node that is small enough to be built as a whole.
+     */
+    private void processCampaignNode(Campaign retVal, Node wn, Version version)
+            throws CampaignXmlParseException {
+        String xn = wn.getNodeName();
+
+        if (xn.equalsIgnoreCase("campaignOptions")) {
+            retVal.setCampaignOptions(CampaignOptions
+                    .generateCampaignOptionsFromXml(wn));
+        } else if (xn.equalsIgnoreCase("randomSkillPreferences")) {
+            retVal.setRandomSkillPreferences(RandomSkillPreferences
+                    .generateRandomSkillPreferencesFromXml(wn));
+        } else if (xn.equalsIgnoreCase("forces")) {
+            processForces(retVal, wn, version);
+        } else if (xn.equalsIgnoreCase("finances")) {
+            processFinances(retVal, wn);
+        } else if (xn.equalsIgnoreCase("location")) {
+            retVal.setLocation(CurrentLocation.generateInstanceFromXML(
+                    wn, retVal));
+        } else if (xn.equalsIgnoreCase("skillTypes")) {
+            processSkillTypeNodes(retVal, wn, version);
+        } else if (xn.equalsIgnoreCase("specialAbilities")) {
+            processSpecialAbilityNodes(retVal, wn, version);
+        } else if (xn.equalsIgnoreCase("gameOptions")) {
+            processGameOptionNodes(retVal, wn);
+        } else if (xn.equalsIgnoreCase("kills")) {
+            processKillNodes(retVal, wn, version);
+        } else if (xn.equalsIgnoreCase("shoppingList")) {
+            retVal.setShoppingList(ShoppingList.generateInstanceFromXML(
+                    wn, retVal, version));
+        } else if (xn.equalsIgnoreCase("personnelMarket")) {
+            retVal.setPersonnelMarket(PersonnelMarket.generateInstanceFromXML(
+                    wn, retVal, version));
+            foundPersonnelMarket = true;
+        } else if (xn.equalsIgnoreCase("contractMarket")) {
+            retVal.setContractMarket(ContractMarket.generateInstanceFromXML(
+                    wn, retVal, version));
+            foundContractMarket = true;
+        } else if (xn.equalsIgnoreCase("unitMarket")) {
+            retVal.setUnitMarket(UnitMarket.generateInstanceFromXML(
+                    wn, retVal, version));
+            foundUnitMarket = true;
+        } else if (xn.equalsIgnoreCase("lances")) {
+            processLanceNodes(retVal, wn);
+        } else if (xn.equalsIgnoreCase("retirementDefectionTracker")) {
+            retVal.setRetirementDefectionTracker(RetirementDefectionTracker.generateInstanceFromXML(wn, retVal));
+        } else if (xn.equalsIgnoreCase("shipSearchStart")) {
+            Calendar c = new GregorianCalendar();
+            c.setTime(parseDate(retVal.getShortDateFormatter(), wn.getTextContent()));
+            retVal.setShipSearchStart(c);
+        } else if (xn.equalsIgnoreCase("shipSearchType")) {
+            retVal.setShipSearchType(Integer.parseInt(wn.getTextContent()));
+        } else if (xn.equalsIgnoreCase("shipSearchResult")) {
+            retVal.setShipSearchResult(wn.getTextContent());
+        } else if (xn.equalsIgnoreCase("shipSearchExpiration")) {
+            Calendar c = new GregorianCalendar();
+            c.setTime(parseDate(retVal.getShortDateFormatter(), wn.getTextContent()));
+            retVal.setShipSearchExpiration(c);
+        } else if (xn.equalsIgnoreCase("customPlanetaryEvents")) {
+            updatePlanetaryEventsFromXML(wn);
+        }
+    }
+
+    /**
+     * Receives one child element of a streamed collection node.
+     */
+    @FunctionalInterface
+    private interface ChildNodeProcessor {
+        void process(Node wn) throws CampaignXmlParseException;
+    }
+
+    /**
+     * Builds each child of the collection node the reader is positioned on, one at a time,
+     * and hands it to the given processor. Children with an unexpected name are logged and
+     * skipped.
+     */
+    private static void streamChildNodes(XMLStreamReader reader, Document doc, String childName,
+            String description, ChildNodeProcessor processor)
+            throws XMLStreamException, CampaignXmlParseException {
+        final String METHOD_NAME = "streamChildNodes(XMLStreamReader,Document,String,String,ChildNodeProcessor)"; //$NON-NLS-1$
+
+        MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.INFO,
+                "Loading " + description + " Nodes from XML..."); //$NON-NLS-1$ //$NON-NLS-2$
+
+        while (MekHqXmlUtil.nextChildElement(reader)) {
+            if (!reader.getLocalName().equalsIgnoreCase(childName)) {
+                // Error condition of sorts!
+                // Errr, what should we do here?
+                MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.ERROR,
+                        "Unknown node type not loaded in " + description + " nodes: " //$NON-NLS-1$ //$NON-NLS-2$
+                                + reader.getLocalName());
+                MekHqXmlUtil.skipElement(reader);
+                continue;
+            }
+
+            processor.process(MekHqXmlUtil.readElement(reader, doc));
+        }
+
+        MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.INFO,
+                "Load " + description + " Nodes Complete!"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
     /**
      * This will fixup unit-tech problems seen in some save games, such as techs
      * having been double-assigned or being assigned to mothballed units.
@@ -1170,81 +1210,20 @@ public class CampaignXmlParser {
                 "Load of Force Organization complete!");
     }
 
-    private static void processPersonnelNodes(Campaign retVal, Node wn,
-            Version version) {
-        final String METHOD_NAME = "processPersonnelNodes(Campaign,Node,Version)"; //$NON-NLS-1$
-        MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.INFO,
-                "Loading Personnel Nodes from XML..."); //$NON-NLS-1$
-
-        NodeList wList = wn.getChildNodes();
-
-        // Okay, lets iterate through the children, eh?
-        for (int x = 0; x < wList.getLength(); x++) {
-            Node wn2 = wList.item(x);
-
-            // If it's not an element node, we ignore it.
-            if (wn2.getNodeType() != Node.ELEMENT_NODE) {
-                continue;
-            }
-
-            if (!wn2.getNodeName().equalsIgnoreCase("person")) {
-                // Error condition of sorts!
-                // Errr, what should we do here?
-                MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.ERROR,
-                        "Unknown node type not loaded in Personnel nodes: " //$NON-NLS-1$
-                                + wn2.getNodeName());
-
-                continue;
-            }
-
-            Person p = Person.generateInstanceFromXML(wn2, retVal, version);
+    private static void processPersonNode(Campaign retVal, Node wn, Version version) {
+        Person p = Person.generateInstanceFromXML(wn, retVal, version);
 
-            if (p != null) {
-                retVal.importPerson(p);
-            }
+        if (p != null) {
+            retVal.importPerson(p);
         }
-
-        MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.INFO,
-                "Load Personnel Nodes Complete!"); //$NON-NLS-1$
     }
 
-    private static void processAncestorNodes(Campaign retVal, Node wn,
-            Version version) {
-        final String METHOD_NAME = "processAncestorNodes(Campaign,Node,Version)"; //$NON-NLS-1$
-
-        MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.INFO,
-                "Loading Ancestor Nodes from XML..."); //$NON-NLS-1$
-
-        NodeList wList = wn.getChildNodes();
-
-        // Okay, lets iterate through the children, eh?
-        for (int x = 0; x < wList.getLength(); x++) {
-            Node wn2 = wList.item(x);
-
-            // If it's not an element node, we ignore it.
-            if (wn2.getNodeType() != Node.ELEMENT_NODE) {
-                continue;
-            }
-
-            if (!wn2.getNodeName().equalsIgnoreCase("ancestor")) {
-                // Error condition of sorts!
-                // Errr, what should we do here?
-                MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.ERROR,
-                        "Unknown node type not loaded in Ancestor nodes: " //$NON-NLS-1$
-                                + wn2.getNodeName());
-
-                continue;
-            }
-
-            Ancestors a = Ancestors.generateInstanceFromXML(wn2, retVal, version);
+    private static void processAncestorNode(Campaign retVal, Node wn, Version version) {
+        Ancestors a = Ancestors.generateInstanceFromXML(wn, retVal, version);
 
-            if (a != null) {
-                retVal.importAncestors(a);
-            }
+        if (a != null) {
+            retVal.importAncestors(a);
         }
-
-        MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.INFO,
-                "Load Ancestor Nodes Complete!"); //$NON-NLS-1$
     }
 
     private static void processSkillTypeNodes(Campaign retVal, Node wn,
@@ -1525,254 +1504,157 @@ public class CampaignXmlParser {
         }
     }
 
-    private static void processMissionNodes(Campaign retVal, Node wn, Version version) {
-        final String METHOD_NAME = "processMissionNodes(Campaign,Node,Version)"; //$NON-NLS-1$
-
-        MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.INFO,
-                "Loading Mission Nodes from XML..."); //$NON-NLS-1$
-
-        NodeList wList = wn.getChildNodes();
-
-        // Okay, lets iterate through the children, eh?
-        for (int x = 0; x < wList.getLength(); x++) {
-            Node wn2 = wList.item(x);
-
-            // If it's not an element node, we ignore it.
-            if (wn2.getNodeType() != Node.ELEMENT_NODE) {
-                continue;
-            }
-
-            if (!wn2.getNodeName().equalsIgnoreCase("mission")) {
-                // Error condition of sorts!
-                // Errr, what should we do here?
-                MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.INFO,
-                        "Unknown node type not loaded in Mission nodes: " //$NON-NLS-1$
-                                + wn2.getNodeName());
-
-                continue;
-            }
-
-            Mission m = Mission.generateInstanceFromXML(wn2, retVal, version);
+    private static void processMissionNode(Campaign retVal, Node wn, Version version) {
+        Mission m = Mission.generateInstanceFromXML(wn, retVal, version);
 
-            if (m != null) {
-                retVal.importMission(m);
-            }
+        if (m != null) {
+            retVal.importMission(m);
         }
-
-        MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.INFO,
-                "Load Mission Nodes Complete!"); //$NON-NLS-1$
     }
 
-    private static String checkUnits(Node wn) {
-        final String METHOD_NAME = "checkUnits(Node)"; //$NON-NLS-1$
-
-        MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.INFO, //$NON-NLS-1$
-                "Checking for missing entities..."); //$NON-NLS-1$
-
-        ArrayList<String> unitList = new ArrayList<String>();
-        NodeList wList = wn.getChildNodes();
-
-        // Okay, lets iterate through the children, eh?
-        for (int x = 0; x < wList.getLength(); x++) {
-            Node wn2 = wList.item(x);
+    /**
+     * Checks whether the entity of a unit node can be loaded.
+     *
+     * @return the name of the entity if it is missing, otherwise null
+     */
+    private static String checkUnitNode(Node wn) {
+        final String METHOD_NAME = "checkUnitNode(Node)"; //$NON-NLS-1$
 
-            // If it's not an element node, we ignore it.
-            if (wn2.getNodeType() != Node.ELEMENT_NODE) {
-                continue;
-            }
+        NodeList nl = wn.getChildNodes();
 
-            if (!wn2.getNodeName().equalsIgnoreCase("unit")) {
-                continue;
+        for (int y = 0; y < nl.getLength(); y++) {
+            Node wn2 = nl.item(y);
+            if (wn2.getNodeName().equalsIgnoreCase("entity")) {
+                try {
+                    if (null == MekHqXmlUtil.getEntityFromXmlString(wn2)) {
+                        return MekHqXmlUtil.getEntityNameFromXmlString(wn2);
+                    }
+                } catch (Exception e) {
+                    MekHQ.getLogger().error(CampaignXmlParser.class, METHOD_NAME,
+                        "Could not read entity from XML", e); //$NON-NLS-1$
+                }
             }
+        }
+        return null;
+    }
 
-            NodeList nl = wn2.getChildNodes();
+    private static void processUnitNodes(Campaign retVal, XMLStreamReader reader, Document doc,
+            Version version) throws XMLStreamException, CampaignXmlParseException, NullEntityException {
+        final String METHOD_NAME = "processUnitNodes(Campaign,XMLStreamReader,Document,Version)"; //$NON-NLS-1$
+
+        // Units whose entity cannot be loaded abort the whole load, but we keep
+        // reading so that every missing entity is reported at once
+        List<String> unitList = new ArrayList<>();
+        streamChildNodes(reader, doc, "unit", "Unit", wn -> { //$NON-NLS-1$ //$NON-NLS-2$
+            String missing = checkUnitNode(wn);
+            if (null != missing) {
+                if (!unitList.contains(missing)) {
+                    unitList.add(missing);
+                }
+            } else if (unitList.isEmpty()) {
+                Unit u = Unit.generateInstanceFromXML(wn, version);
 
-            for (int y = 0; y < nl.getLength(); y++) {
-                Node wn3 = nl.item(y);
-                if (wn3.getNodeName().equalsIgnoreCase("entity")) {
-                    try {
-                        if (null == MekHqXmlUtil.getEntityFromXmlString(wn3)) {
-                            String name = MekHqXmlUtil
-                                    .getEntityNameFromXmlString(wn3);
-                            if (!unitList.contains(name)) {
-                                unitList.add(name);
-                            }
-                        }
-                    } catch (Exception e) {
-                        MekHQ.getLogger().error(CampaignXmlParser.class, METHOD_NAME,
-                            "Could not read entity from XML", e); //$NON-NLS-1$
-                    }
+                if (u != null) {
+                    retVal.importUnit(u);
                 }
             }
-        }
-        MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.INFO,
-                "Finished checking for missing entities!"); //$NON-NLS-1$
+        });
 
-        if (unitList.isEmpty()) {
-            return null;
-        } else {
-            String unitListString = "";
+        if (!unitList.isEmpty()) {
+            StringBuilder unitListString = new StringBuilder();
             for (String s : unitList) {
-                unitListString += "\n" + s;
+                unitListString.append('\n').append(s);
             }
             MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.ERROR,
                 String.format("Could not load the following units: %s", unitListString)); //$NON-NLS-1$
-            return unitListString;
+            throw new NullEntityException(unitListString.toString());
         }
     }
 
-    private static void processUnitNodes(Campaign retVal, Node wn,
-            Version version) {
-        final String METHOD_NAME = "processUnitNodes(Campaign,Node,Version)"; //$NON-NLS-1$
-
-        MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.INFO,
-                "Loading Unit Nodes from XML..."); //$NON-NLS-1$
-
-        NodeList wList = wn.getChildNodes();
-
-        // Okay, lets iterate through the children, eh?
-        for (int x = 0; x < wList.getLength(); x++) {
-            Node wn2 = wList.item(x);
-
-            // If it's not an element node, we ignore it.
-            if (wn2.getNodeType() != Node.ELEMENT_NODE) {
-                continue;
-            }
-
-            if (!wn2.getNodeName().equalsIgnoreCase("unit")) {
-                // Error condition of sorts!
-                // Errr, what should we do here?
-                MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.ERROR,
-                        "Unknown node type not loaded in Unit nodes: " //$NON-NLS-1$
-                                + wn2.getNodeName());
-
-                continue;
-            }
+    private static void processPartNode(Campaign retVal, Node wn, Version version) {
+        final String METHOD_NAME = "processPartNode(Campaign,Node,Version)"; //$NON-NLS-1$
 
-            Unit u = Unit.generateInstanceFromXML(wn2, version);
+        Part p = Part.generateInstanceFromXML(wn, version);
 
-            if (u != null) {
-                retVal.importUnit(u);
-            }
+        // deal with the Weapon as Heat Sink problem from earlier versions
+        if (p instanceof HeatSink && !p.getName().contains("Heat Sink")) {
+            return;
         }
 
-        MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.INFO,
-                "Load Unit Nodes Complete!"); //$NON-NLS-1$
-    }
-
-    private static void processPartNodes(Campaign retVal, Node wn,
-            Version version) {
-        final String METHOD_NAME = "processPartNodes(Campaign,Node,Version)"; //$NON-NLS-1$
-
-        MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.INFO,
-                "Loading Part Nodes from XML..."); //$NON-NLS-1$
-
-        NodeList wList = wn.getChildNodes();
-
-        // Okay, lets iterate through the children, eh?
-        for (int x = 0; x < wList.getLength(); x++) {
-            Node wn2 = wList.item(x);
-
-            // If it's not an element node, we ignore it.
-            if (wn2.getNodeType() != Node.ELEMENT_NODE) {
-                continue;
-            }
-
-            if (!wn2.getNodeName().equalsIgnoreCase("part")) {
-                // Error condition of sorts!
-                // Errr, what should we do here?
-                MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.ERROR,
-                        "Unknown node type not loaded in Part nodes: " //$NON-NLS-1$
-                                + wn2.getNodeName());
-
-                continue;
-            }
-
-            Part p = Part.generateInstanceFromXML(wn2, version);
-
-            // deal with the Weapon as Heat Sink problem from earlier versions
-            if (p instanceof HeatSink && !p.getName().contains("Heat Sink")) {
-                continue;
-            }
-
-            if (((p instanceof EquipmentPart) && ((EquipmentPart) p).getType() == null)
-                    || ((p instanceof MissingEquipmentPart) && ((MissingEquipmentPart) p).getType() == null)) {
-                MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.WARNING,
-                        "Could not find matching EquipmentType for part " + p.getName());
-                continue;
-            }
+        if (((p instanceof EquipmentPart) && ((EquipmentPart) p).getType() == null)
+                || ((p instanceof MissingEquipmentPart) && ((MissingEquipmentPart) p).getType() == null)) {
+            MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.WARNING,
+                    "Could not find matching EquipmentType for part " + p.getName());
+            return;
+        }
 
-            // deal with equipmentparts that are now subtyped
-            int pid = p.getId();
-            if (isLegacyMASC(p)) {
-                p = new MASC(p.getUnitTonnage(), ((EquipmentPart) p).getType(),
-                        ((EquipmentPart) p).getEquipmentNum(), retVal, 0, p.isOmniPodded());
-                p.setId(pid);
-            }
-            if (isLegacyMissingMASC(p)) {
-                p = new MissingMASC(p.getUnitTonnage(),
-                        ((MissingEquipmentPart) p).getType(), ((MissingEquipmentPart) p).getEquipmentNum(), retVal,
-                        ((MissingEquipmentPart) p).getTonnage(), 0, p.isOmniPodded());
-                p.setId(pid);
-            }
-            // deal with true values for sensor and life support on non-Mech
-            // heads
-            if (p instanceof MekLocation
-                    && ((MekLocation) p).getLoc() != Mech.LOC_HEAD) {
-                ((MekLocation) p).setSensors(false);
-                ((MekLocation) p).setLifeSupport(false);
-            }
+        // deal with equipmentparts that are now subtyped
+        int pid = p.getId();
+        if (isLegacyMASC(p)) {
+            p = new MASC(p.getUnitTonnage(), ((EquipmentPart) p).getType(),
+                    ((EquipmentPart) p).getEquipmentNum(), retVal, 0, p.isOmniPodded());
+            p.setId(pid);
+        }
+        if (isLegacyMissingMASC(p)) {
+            p = new MissingMASC(p.getUnitTonnage(),
+                    ((MissingEquipmentPart) p).getType(), ((MissingEquipmentPart) p).getEquipmentNum(), retVal,
+                    ((MissingEquipmentPart) p).getTonnage(), 0, p.isOmniPodded());
+            p.setId(pid);
+        }
+        // deal with true values for sensor and life support on non-Mech
+        // heads
+        if (p instanceof MekLocation
+                && ((MekLocation) p).getLoc() != Mech.LOC_HEAD) {
+            ((MekLocation) p).setSensors(false);
+            ((MekLocation) p).setLifeSupport(false);
+        }
 
-            if (version.getMinorVersion() < 3 && !p.needsFixing()
-                    && !p.isSalvaging()) {
-                // repaired parts were not getting experience properly reset
-                p.setSkillMin(SkillType.EXP_GREEN);
-            }
+        if (version.getMinorVersion() < 3 && !p.needsFixing()
+                && !p.isSalvaging()) {
+            // repaired parts were not getting experience properly reset
+            p.setSkillMin(SkillType.EXP_GREEN);
+        }
 
-            //if for some reason we couldn't find a type for equipment part, then remove it
-            if((p instanceof EquipmentPart && null == ((EquipmentPart)p).getType())
-                    || (p instanceof MissingEquipmentPart && null == ((MissingEquipmentPart) p).getType())) {
-                p = null;
-            }
+        //if for some reason we couldn't find a type for equipment part, then remove it
+        if((p instanceof EquipmentPart && null == ((EquipmentPart)p).getType())
+                || (p instanceof MissingEquipmentPart && null == ((MissingEquipmentPart) p).getType())) {
+            p = null;
+        }
 
-            if ((null != p) && (p.getUnitId() != null)
-                    && ((version.getMinorVersion() < 43)
-                            || ((version.getMinorVersion() == 43) && (version.getSnapshot() < 5)))
-                    && ((p instanceof AmmoBin) || (p instanceof MissingAmmoBin))) {
-                Unit u = retVal.getUnit(p.getUnitId());
-                if ((null != u) && (u.getEntity().usesWeaponBays())) {
-                    Mounted ammo;
-                    if (p instanceof EquipmentPart) {
-                        ammo = u.getEntity().getEquipment(((EquipmentPart) p).getEquipmentNum());
+        if ((null != p) && (p.getUnitId() != null)
+                && ((version.getMinorVersion() < 43)
+                        || ((version.getMinorVersion() == 43) && (version.getSnapshot() < 5)))
+                && ((p instanceof AmmoBin) || (p instanceof MissingAmmoBin))) {
+            Unit u = retVal.getUnit(p.getUnitId());
+            if ((null != u) && (u.getEntity().usesWeaponBays())) {
+                Mounted ammo;
+                if (p instanceof EquipmentPart) {
+                    ammo = u.getEntity().getEquipment(((EquipmentPart) p).getEquipmentNum());
+                } else {
+                    ammo = u.getEntity().getEquipment(((MissingEquipmentPart) p).getEquipmentNum());
+                }
+                if (null != ammo) {
+                    if (p instanceof AmmoBin) {
+                        p = new LargeCraftAmmoBin(p.getUnitTonnage(),
+                                ((AmmoBin) p).getType(),
+                                ((AmmoBin) p).getEquipmentNum(),
+                                ((AmmoBin) p).getShotsNeeded(),
+                                ammo.getAmmoCapacity(), retVal);
+                        ((LargeCraftAmmoBin) p).setBay(u.getEntity().getBayByAmmo(ammo));
                     } else {
-                        ammo = u.getEntity().getEquipment(((MissingEquipmentPart) p).getEquipmentNum());
-                    }
-                    if (null != ammo) {
-                        if (p instanceof AmmoBin) {
-                            p = new LargeCraftAmmoBin(p.getUnitTonnage(),
-                                    ((AmmoBin) p).getType(),
-                                    ((AmmoBin) p).getEquipmentNum(),
-                                    ((AmmoBin) p).getShotsNeeded(),
-                                    ammo.getAmmoCapacity(), retVal);
-                            ((LargeCraftAmmoBin) p).setBay(u.getEntity().getBayByAmmo(ammo));
-                        } else {
-                            p = new MissingLargeCraftAmmoBin(p.getUnitTonnage(),
-                                    ((MissingAmmoBin) p).getType(),
-                                    ((MissingAmmoBin) p).getEquipmentNum(),
-                                    ammo.getAmmoCapacity(), retVal);
-                            ((MissingLargeCraftAmmoBin) p).setBay(u.getEntity().getBayByAmmo(ammo));
-                        }
+                        p = new MissingLargeCraftAmmoBin(p.getUnitTonnage(),
+                                ((MissingAmmoBin) p).getType(),
+                                ((MissingAmmoBin) p).getEquipmentNum(),
+                                ammo.getAmmoCapacity(), retVal);
+                        ((MissingLargeCraftAmmoBin) p).setBay(u.getEntity().getBayByAmmo(ammo));
                     }
                 }
             }
-
-            if (p != null) {
-                retVal.importPart(p);
-            }
         }
 
-        MekHQ.getLogger().log(CampaignXmlParser.class, METHOD_NAME, LogLevel.INFO,
-                "Load Part Nodes Complete!"); //$NON-NLS-1$
+        if (p != null) {
+            retVal.importPart(p);
+        }
     }
 
     /**
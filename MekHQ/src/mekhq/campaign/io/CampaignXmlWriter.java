@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2020 - The MegaMek Team
+ *
+ * This file is part of MekHQ.
+ *
+ * MekHQ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MekHQ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MekHQ.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mekhq.campaign.io;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Predicate;
+import java.util.prefs.Preferences;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import megamek.common.logging.LogLevel;
+import mekhq.MekHQ;
+import mekhq.MekHqConstants;
+import mekhq.MekHqXmlSerializable;
+import mekhq.campaign.Campaign;
+
+/**
+ * Writes a {@link Campaign} out as XML through a single, heavily buffered pipeline.
+ * <p>
+ * {@link Campaign#writeToXml(PrintWriter)} issues a very large number of small writes, so the
+ * writer and the underlying streams are all buffered and nothing is flushed until the campaign
+ * has been written. Compressed saves use gzip so that they remain readable by
+ * {@link mekhq.campaign.CampaignFactory}, with the deflate level taken from the user's preferences.
+ */
+public class CampaignXmlWriter {
+
+    /** Size of the character and byte buffers used while writing */
+    public static final int BUFFER_SIZE = 256 * 1024;
+
+    /**
+     * The deflate levels offered for compressed (.cpnx.gz) saves.
+     */
+    public enum CompressionLevel {
+        FASTEST(Deflater.BEST_SPEED),
+        DEFAULT(Deflater.DEFAULT_COMPRESSION),
+        SMALLEST(Deflater.BEST_COMPRESSION);
+
+        private final int level;
+
+        CompressionLevel(int level) {
+            this.level = level;
+        }
+
+        public int getDeflaterLevel() {
+            return level;
+        }
+
+        /**
+         * @return the level matching the given name, or {@link #DEFAULT} if there is none
+         */
+        public static CompressionLevel parseFromString(String name) {
+            for (CompressionLevel value : values()) {
+                if (value.name().equalsIgnoreCase(name)) {
+                    return value;
+                }
+            }
+            return DEFAULT;
+        }
+    }
+
+    private final Campaign campaign;
+    private CompressionLevel compressionLevel;
+
+    public CampaignXmlWriter(Campaign campaign) {
+        this.campaign = campaign;
+        this.compressionLevel = getPreferredCompressionLevel();
+    }
+
+    /**
+     * @return the compression level selected in the MekHQ options
+     */
+    public static CompressionLevel getPreferredCompressionLevel() {
+        Preferences userPreferences = Preferences.userRoot().node(MekHqConstants.AUTOSAVE_NODE);
+        return CompressionLevel.parseFromString(userPreferences.get(MekHqConstants.SAVE_COMPRESSION_LEVEL_KEY,
+                CompressionLevel.DEFAULT.name()));
+    }
+
+    public CompressionLevel getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    public void setCompressionLevel(CompressionLevel compressionLevel) {
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * Writes the campaign to the given file. Files ending in .gz are compressed.
+     *
+     * @param file the destination file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(File file) throws IOException {
+        try (OutputStream os = new FileOutputStream(file)) {
+            write(os, file.getName().endsWith(".gz")); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Writes the campaign to the given stream. The stream is flushed but not closed.
+     *
+     * @param os       the destination stream
+     * @param compress whether to gzip the output
+     * @throws IOException if the stream cannot be written
+     */
+    public void write(OutputStream os, boolean compress) throws IOException {
+        write(os, compress, null, null);
+    }
+
+    /**
+     * Writes the campaign to the given stream, keeping only the units, personnel and parts
+     * accepted by the filter. Used by {@link CampaignJournal} to write change journals.
+     *
+     * @param os           the destination stream
+     * @param compress     whether to gzip the output
+     * @param recordFilter the records to write, or null to write them all
+     * @param extraNode    an additional node written at the end of the campaign, or null
+     * @throws IOException if the stream cannot be written
+     */
+    void write(OutputStream os, boolean compress, Predicate<MekHqXmlSerializable> recordFilter,
+            MekHqXmlSerializable extraNode) throws IOException {
+        final String METHOD_NAME = "write(OutputStream,boolean,Predicate,MekHqXmlSerializable)"; //$NON-NLS-1$
+
+        long start = System.nanoTime();
+        CountingOutputStream counter = new CountingOutputStream(os);
+        OutputStream out = new BufferedOutputStream(counter, BUFFER_SIZE);
+        GZIPOutputStream gzip = null;
+        if (compress) {
+            gzip = new LevelledGZIPOutputStream(out, compressionLevel.getDeflaterLevel());
+            out = gzip;
+        }
+
+        PrintWriter pw = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE));
+        if ((null == recordFilter) && (null == extraNode)) {
+            campaign.writeToXml(pw);
+        } else {
+            campaign.writeToXml(pw, recordFilter, extraNode);
+        }
+        pw.flush();
+        if (pw.checkError()) {
+            throw new IOException("Could not write campaign " + campaign.getName()); //$NON-NLS-1$
+        }
+        if (null != gzip) {
+            gzip.finish();
+        }
+        out.flush();
+
+        long elapsed = Math.max(1, (System.nanoTime() - start) / 1000000L);
+        MekHQ.getLogger().log(CampaignXmlWriter.class, METHOD_NAME, LogLevel.INFO,
+                String.format("Campaign written in %dms (%d KB%s, %.1f MB/s)", elapsed, //$NON-NLS-1$
+                        counter.getCount() / 1024, compress ? ", " + compressionLevel : "", //$NON-NLS-1$ //$NON-NLS-2$
+                        counter.getCount() / 1024.0 / 1024.0 / (elapsed / 1000.0)));
+    }
+
+    /**
+     * Writes the campaign as uncompressed XML into memory. The returned snapshot no longer
+     * refers to the campaign, so it can be written to disk from another thread while the
+     * campaign keeps changing.
+     *
+     * @return the serialized campaign
+     * @throws IOException if the campaign cannot be written
+     */
+    public Snapshot writeSnapshot() throws IOException {
+        ByteArrayOutputStream xml = new ByteArrayOutputStream(BUFFER_SIZE);
+        write(xml, false);
+        return new Snapshot(xml, compressionLevel);
+    }
+
+    /**
+     * A campaign serialized into memory by {@link #writeSnapshot()}.
+     */
+    public static final class Snapshot {
+        private final ByteArrayOutputStream xml;
+        private final CompressionLevel compressionLevel;
+
+        private Snapshot(ByteArrayOutputStream xml, CompressionLevel compressionLevel) {
+            this.xml = xml;
+            this.compressionLevel = compressionLevel;
+        }
+
+        /**
+         * @return the size of the uncompressed XML in bytes
+         */
+        public int size() {
+            return xml.size();
+        }
+
+        /**
+         * Writes the snapshot to the given file. Files ending in .gz are compressed.
+         *
+         * @param file the destination file
+         * @throws IOException if the file cannot be written
+         */
+        public void writeTo(File file) throws IOException {
+            try (OutputStream fos = new FileOutputStream(file)) {
+                OutputStream out = new BufferedOutputStream(fos, BUFFER_SIZE);
+                if (file.getName().endsWith(".gz")) { //$NON-NLS-1$
+                    GZIPOutputStream gzip = new LevelledGZIPOutputStream(out, compressionLevel.getDeflaterLevel());
+                    xml.writeTo(gzip);
+                    gzip.finish();
+                } else {
+                    xml.writeTo(out);
+                }
+                out.flush();
+            }
+        }
+    }
+
+    /**
+     * A gzip stream using the given deflate level.
+     */
+    private static class LevelledGZIPOutputStream extends GZIPOutputStream {
+        LevelledGZIPOutputStream(OutputStream out, int level) throws IOException {
+            super(out, BUFFER_SIZE);
+            def.setLevel(level);
+        }
+    }
+
+    /**
+     * Counts the bytes that reach the destination stream.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
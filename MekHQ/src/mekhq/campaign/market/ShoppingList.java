@@ -138,6 +138,56 @@ public class ShoppingList implements MekHqXmlSerializable {
         ShoppingList shortList = new ShoppingList(newWork);
         shortList = campaign.goShopping(shortList);
         
+        addRemainingItem(newWork, origQuantity, campaign);
+    }
+
+    /**
+     * Adds one of each of several items, like calling {@link #addShoppingItem(IAcquisitionWork, int, Campaign)}
+     * for each of them, but the items which are not on the shopping list yet are all tried for in a
+     * single shopping trip instead of one trip for each item.
+     */
+    public void addShoppingItems(List<? extends IAcquisitionWork> newWorks, Campaign campaign) {
+        List<IAcquisitionWork> shortList = new ArrayList<>();
+        for(IAcquisitionWork newWork : newWorks) {
+            IAcquisitionWork shoppingItem = getShoppingItem(newWork.getNewEquipment());
+            if(null != shoppingItem) {
+                campaign.addReport(newWork.getShoppingListReport(1));
+                shoppingItem.incrementQuantity();
+                continue;
+            }
+            shoppingItem = findSameEquipment(shortList, newWork.getNewEquipment());
+            if(null != shoppingItem) {
+                shoppingItem.incrementQuantity();
+            } else {
+                shortList.add(newWork);
+            }
+        }
+        if(shortList.isEmpty()) {
+            return;
+        }
+
+        int[] origQuantities = new int[shortList.size()];
+        for(int i = 0; i < shortList.size(); i++) {
+            origQuantities[i] = shortList.get(i).getQuantity();
+        }
+        campaign.goShopping(new ShoppingList(new ArrayList<>(shortList)));
+
+        for(int i = 0; i < shortList.size(); i++) {
+            addRemainingItem(shortList.get(i), origQuantities[i], campaign);
+        }
+    }
+
+    private IAcquisitionWork findSameEquipment(List<IAcquisitionWork> items, Object newEquipment) {
+        for(IAcquisitionWork shoppingItem : items) {
+            if(isSameEquipment(shoppingItem.getNewEquipment(), newEquipment)) {
+                return shoppingItem;
+            }
+        }
+        return null;
+    }
+
+    /** Puts an item on the shopping list if not all of it was found right away */
+    private void addRemainingItem(IAcquisitionWork newWork, int origQuantity, Campaign campaign) {
         if(newWork.getQuantity() > 0) {
             //if using planetary acquisition check with low verbosity, check to see if nothing was found 
             //because it is not reported elsewhere
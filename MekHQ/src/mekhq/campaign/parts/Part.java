@@ -388,6 +388,9 @@ public abstract class Part implements Serializable, MekHqXmlSerializable, IPartW
         } else {
             unitId = null;
         }
+        if (null != campaign) {
+            campaign.updateSparePartIndex(this);
+        }
     }
 
     public String getStatus() {
@@ -1203,6 +1206,9 @@ public abstract class Part implements Serializable, MekHqXmlSerializable, IPartW
         unitId = uHash.get(oldUnitId);
         refitId = uHash.get(oldRefitId);
         teamId = pHash.get(oldTeamId);
+        if (null != campaign) {
+            campaign.updateSparePartIndex(this);
+        }
     }
 
     /*
@@ -1355,6 +1361,9 @@ public abstract class Part implements Serializable, MekHqXmlSerializable, IPartW
 
     public void setParentPartId(int id) {
         parentPartId = id;
+        if (null != campaign) {
+            campaign.updateSparePartIndex(this);
+        }
     }
     
     public int getParentPartId() {
@@ -984,6 +984,7 @@ public class Refit extends Part implements IPartWork, IAcquisitionWork {
         if(customJob) {
             //add the stuff on the shopping list to the master shopping list
             ArrayList<Part> newShoppingList = new ArrayList<>();
+            List<IAcquisitionWork> toBuy = new ArrayList<>();
             for(Part part : shoppingList) {
                 part.setUnit(null);
                 if(part instanceof Armor) {
@@ -1009,10 +1010,11 @@ public class Refit extends Part implements IPartWork, IAcquisitionWork {
                     }
                 }
                 else if(part instanceof IAcquisitionWork) {
-                    oldUnit.getCampaign().getShoppingList().addShoppingItem(((IAcquisitionWork)part), 1, oldUnit.getCampaign());
+                    toBuy.add((IAcquisitionWork)part);
                     newShoppingList.add(part);
                 }
             }
+            oldUnit.getCampaign().getShoppingList().addShoppingItems(toBuy, oldUnit.getCampaign());
             shoppingList = newShoppingList;
             if(null != newArmorSupplies) {
                 //add enough armor to the shopping list
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2020 - The MegaMek Team
+ *
+ * This file is part of MekHQ.
+ *
+ * MekHQ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MekHQ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MekHQ.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mekhq.campaign.parts;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds the spare parts matching a part without looking at every part in the campaign: the
+ * spare a part can be merged with, and the spares counted in its inventory.
+ * <p>
+ * Every implementation of {@link Part#isSamePartType(Part)} (and the MASC override of
+ * {@link Part#isSamePartTypeAndStatus(Part)}) starts by checking that the other part is an
+ * instance of the class declaring it. Spares are therefore indexed by their class, and a lookup
+ * only checks the spares whose class is a subclass of the one declaring the comparison used by
+ * the part being looked up. The full comparison is still made on each of those, so the result is
+ * the same as checking every part: the matching spare with the lowest id.
+ * <p>
+ * Whether a part is a spare depends on its unit and parent part, so {@link Part#setUnit} and
+ * {@link Part#setParentPartId} report changes to these through {@link #update(Part)}.
+ */
+public class SparePartIndex {
+
+    /** The class declaring isSamePartTypeAndStatus, or isSamePartType if later, for each part class */
+    private static final Map<Class<?>, Class<?>> STATUS_COMPARISON_CLASSES = new ConcurrentHashMap<>();
+    /** The class declaring isSamePartType for each part class */
+    private static final Map<Class<?>, Class<?>> TYPE_COMPARISON_CLASSES = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, TreeMap<Integer, Part>> sparesByClass = new HashMap<>();
+
+    /**
+     * Adds the part to the index if it is a spare.
+     */
+    public void add(Part part) {
+        if (part.isSpare()) {
+            sparesByClass.computeIfAbsent(part.getClass(), c -> new TreeMap<>()).put(part.getId(), part);
+        }
+    }
+
+    public void remove(Part part) {
+        TreeMap<Integer, Part> spares = sparesByClass.get(part.getClass());
+        if ((null != spares) && (spares.get(part.getId()) == part)) {
+            spares.remove(part.getId());
+        }
+    }
+
+    /**
+     * Re-indexes a part after it may have become, or stopped being, a spare.
+     */
+    public void update(Part part) {
+        remove(part);
+        add(part);
+    }
+
+    public void clear() {
+        sparesByClass.clear();
+    }
+
+    /**
+     * @return the spare part, other than the part itself, with the lowest id that the part could
+     *         be merged with, or null if there is none
+     */
+    public Part findSpareFor(Part part) {
+        Class<?> comparisonClass = getComparisonClass(part.getClass(), true);
+        Part retVal = null;
+        for (Map.Entry<Class<?>, TreeMap<Integer, Part>> entry : sparesByClass.entrySet()) {
+            if (!comparisonClass.isAssignableFrom(entry.getKey())) {
+                continue;
+            }
+            for (Part spare : entry.getValue().values()) {
+                if ((null != retVal) && (spare.getId() > retVal.getId())) {
+                    break;
+                }
+                if (!spare.isSpare() || spare.getId() == part.getId()) {
+                    continue;
+                }
+                if (part.isSamePartTypeAndStatus(spare)) {
+                    retVal = spare;
+                    break;
+                }
+            }
+        }
+        return retVal;
+    }
+
+    /**
+     * @return all spare parts of the same type as the part, as decided by
+     *         {@link Part#isSamePartType(Part)}, including the part itself if it is a spare
+     */
+    public List<Part> getSparesOfSameType(Part part) {
+        Class<?> comparisonClass = getComparisonClass(part.getClass(), false);
+        List<Part> retVal = new ArrayList<>();
+        for (Map.Entry<Class<?>, TreeMap<Integer, Part>> entry : sparesByClass.entrySet()) {
+            if (!comparisonClass.isAssignableFrom(entry.getKey())) {
+                continue;
+            }
+            for (Part spare : entry.getValue().values()) {
+                if (spare.isSpare() && part.isSamePartType(spare)) {
+                    retVal.add(spare);
+                }
+            }
+        }
+        return retVal;
+    }
+
+    private static Class<?> getComparisonClass(Class<?> partClass, boolean withStatus) {
+        Map<Class<?>, Class<?>> cache = withStatus ? STATUS_COMPARISON_CLASSES : TYPE_COMPARISON_CLASSES;
+        return cache.computeIfAbsent(partClass, c -> {
+            for (Class<?> current = c; Part.class.isAssignableFrom(current); current = current.getSuperclass()) {
+                for (Method method : current.getDeclaredMethods()) {
+                    if (method.getName().equals("isSamePartType") //$NON-NLS-1$
+                            || (withStatus && method.getName().equals("isSamePartTypeAndStatus"))) { //$NON-NLS-1$
+                        return current;
+                    }
+                }
+            }
+            return Part.class;
+        });
+    }
+}
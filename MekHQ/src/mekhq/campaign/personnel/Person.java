@@ -26,6 +26,7 @@ import java.io.Serializable;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -1086,45 +1087,63 @@ public class Person implements Serializable, MekHqXmlSerializable {
     }
 
     public void procreate() {
+        if (rollConception(campaign.getCalendar(), Compute::randomInt)) {
+            conceive();
+        }
+    }
+
+    /**
+     * Makes today's procreation roll.
+     *
+     * @param today     the current date
+     * @param randomInt returns a random number between 0 and its argument (exclusive)
+     * @return <code>true</code> if a child was conceived, in which case {@link #conceive()}
+     *         should be called
+     */
+    public boolean rollConception(GregorianCalendar today, IntUnaryOperator randomInt) {
         if(!isFemale() || isPregnant()) {
-            return;
+            return false;
         }
 
         if (!isDeployed()) {
             // Age limitations...
-            if (getAge(campaign.getCalendar()) > 13 && getAge(campaign.getCalendar()) < 51) {
-                boolean concieved = false;
+            int age = getAge(today);
+            if (age > 13 && age < 51) {
                 if (!hasSpouse() && campaign.getCampaignOptions().useUnofficialProcreationNoRelationship()) {
                     // 0.005% chance that this procreation attempt will create a child
-                    concieved = (Compute.randomInt(100000) < 2);
+                    return (randomInt.applyAsInt(100000) < 2);
                 } else if (hasSpouse()) {
-                    if (getSpouse().isActive() && !getSpouse().isDeployed() && getSpouse().getAge(campaign.getCalendar()) > 13) {
+                    if (getSpouse().isActive() && !getSpouse().isDeployed() && getSpouse().getAge(today) > 13) {
                         // 0.05% chance that this procreation attempt will create a child
-                        concieved = (Compute.randomInt(10000) < 2);
-                    }
-                }
-                
-                if(concieved) {
-                    GregorianCalendar tCal = (GregorianCalendar) campaign.getCalendar().clone();
-                    tCal.add(GregorianCalendar.DAY_OF_YEAR, PREGNANCY_DURATION.getAsInt());
-                    setDueDate(tCal);
-                    int size = PREGNANCY_SIZE.getAsInt();
-                    extraData.set(PREGNANCY_CHILDREN_DATA, size);
-                    extraData.set(PREGNANCY_FATHER_DATA,
-                        (hasSpouse()) ? getSpouseID().toString() : null);
-
-                    String sizeString = (size < PREGNANCY_MULTIPLE_NAMES.length) ? PREGNANCY_MULTIPLE_NAMES[size] : null;
-                    if(null == sizeString) {
-                        campaign.addReport(getHyperlinkedName()+" has conceived");
-                    } else {
-                        campaign.addReport(getHyperlinkedName()+" has conceived " + sizeString);
-                    }
-                    if (campaign.getCampaignOptions().logConception()) {
-                        MedicalLogger.hasConceived(this, campaign.getDate(), sizeString);
+                        return (randomInt.applyAsInt(10000) < 2);
                     }
                 }
             }
         }
+        return false;
+    }
+
+    /**
+     * Makes this person pregnant after a successful {@link #rollConception(GregorianCalendar, IntUnaryOperator)}.
+     */
+    public void conceive() {
+        GregorianCalendar tCal = (GregorianCalendar) campaign.getCalendar().clone();
+        tCal.add(GregorianCalendar.DAY_OF_YEAR, PREGNANCY_DURATION.getAsInt());
+        setDueDate(tCal);
+        int size = PREGNANCY_SIZE.getAsInt();
+        extraData.set(PREGNANCY_CHILDREN_DATA, size);
+        extraData.set(PREGNANCY_FATHER_DATA,
+            (hasSpouse()) ? getSpouseID().toString() : null);
+
+        String sizeString = (size < PREGNANCY_MULTIPLE_NAMES.length) ? PREGNANCY_MULTIPLE_NAMES[size] : null;
+        if(null == sizeString) {
+            campaign.addReport(getHyperlinkedName()+" has conceived");
+        } else {
+            campaign.addReport(getHyperlinkedName()+" has conceived " + sizeString);
+        }
+        if (campaign.getCampaignOptions().logConception()) {
+            MedicalLogger.hasConceived(this, campaign.getDate(), sizeString);
+        }
     }
 
     public void addPregnancy() {
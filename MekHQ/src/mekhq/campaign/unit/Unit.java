@@ -2240,7 +2240,10 @@ public class Unit implements MekHqXmlSerializable, ITechnology {
                 partsToAdd.add(s);
             }
         }
-        for(Mounted m : entity.getEquipment()) {
+        List<Mounted> equipment = entity.getEquipment();
+        // The equipment number of a mount is its index in the equipment list
+        for(int eqnum = 0; eqnum < equipment.size(); eqnum++) {
+            Mounted m = equipment.get(eqnum);
             if(m.getLocation() == Entity.LOC_NONE) {
                 //FIXME: is this ok? - are there any valid parts in LOC_NONE?
                 continue;
@@ -2265,7 +2268,6 @@ public class Unit implements MekHqXmlSerializable, ITechnology {
                 }
             }
             if(m.getType() instanceof AmmoType) {
-                int eqnum = entity.getEquipmentNum(m);
                 Part apart = ammoParts.get(eqnum);
                 int fullShots = ((AmmoType)m.getType()).getShots();
                 boolean oneShot = false;
@@ -2293,7 +2295,6 @@ public class Unit implements MekHqXmlSerializable, ITechnology {
                     //heat sinks located in LOC_NONE are base unhittable heat sinks
                     continue;
                 }
-                int eqnum = entity.getEquipmentNum(m);
                 Part epart = heatSinks.get(eqnum);
                 if(null == epart) {
                     epart = new HeatSink((int)entity.getWeight(), m.getType(), eqnum,
@@ -2302,7 +2303,6 @@ public class Unit implements MekHqXmlSerializable, ITechnology {
                     partsToAdd.add(epart);
                 }
             } else if(m.getType() instanceof MiscType && m.getType().hasFlag(MiscType.F_JUMP_JET)) {
-                int eqnum = entity.getEquipmentNum(m);
                 Part epart = jumpJets.get(eqnum);
                 if(null == epart) {
                     epart = new JumpJet((int)entity.getWeight(), m.getType(), eqnum,
@@ -2314,7 +2314,6 @@ public class Unit implements MekHqXmlSerializable, ITechnology {
                     }
                 }
             } else {
-                int eqnum = entity.getEquipmentNum(m);
                 EquipmentType type = m.getType();
                 if(entity instanceof BattleArmor) {
                     //for BattleArmor we have multiple parts per mount, one for each trooper
@@ -3023,7 +3022,16 @@ public class Unit implements MekHqXmlSerializable, ITechnology {
         return commander;
     }
 
+    /**
+     * Updates the entity's crew from the people assigned to the unit. While the campaign defers
+     * crew updates (see {@link Campaign#deferCrewUpdates()}), the unit is only marked as changed
+     * and updated once when they are applied.
+     */
     public void resetPilotAndEntity() {
+        if ((null != campaign) && campaign.isDeferringCrewUpdates()) {
+            campaign.crewChanged(this);
+            return;
+        }
         entity.getCrew().resetGameState();
         if (entity.getCrew().getSlotCount() > 1) {
             final String driveType = SkillType.getDrivingSkillFor(entity);
@@ -76,6 +76,14 @@ public class FactionBorderTracker {
     private final ExecutorService executor = Executors.newSingleThreadExecutor();
     private volatile boolean invalid = true;
     private volatile boolean cancelTask = false;
+    
+    // The region, planets, and date used for the last completed calculation
+    private List<Planet> regionPlanets = Collections.emptyList();
+    private double builtCenterX;
+    private double builtCenterY;
+    private double builtRadius;
+    private DateTime builtDate;
+    private volatile boolean borderSizeChanged = false;
 
     /**
      * Constructs a FactionBorderTracker with the default region of a 1000 ly radius around Terra.
@@ -390,6 +398,7 @@ public class FactionBorderTracker {
         } else {
             factionBorderSize.remove(f);
         }
+        borderSizeChanged = true;
     }
     
     /**
@@ -405,6 +414,7 @@ public class FactionBorderTracker {
         isBorderSize = is;
         peripheryBorderSize = periphery;
         clanBorderSize = clan;
+        borderSizeChanged = true;
     }
     
     /**
@@ -428,58 +438,165 @@ public class FactionBorderTracker {
     /**
      * The task that checks all planets within the region and notes which are controlled by which factions
      * and which are within a certain distance of another faction's systems.
+     * 
+     * If only the date has changed since the last completed calculation, only the factions that gained or
+     * lost a planet in the region since then are calculated again, along with the borders between them and
+     * every other faction.
      */
     private synchronized void rebuildBorderData() {
         cancelTask = false;
         try {
-            List<Planet> planetList = new ArrayList<>();
-            Set<Faction> factionSet = new HashSet<>();
-            Set<Faction> oldFactions = new HashSet<>(borders.keySet());
-            for (Planet planet : getPlanetList()) {
-                if ((regionHex.radius < 0)
-                        || regionHex.contains(planet.getX(), planet.getY())) {
-                    planetList.add(planet);
-                    factionSet.addAll(planet.getFactionSet(now));
-                }
-                if (cancelTask) {
-                    return;
-                }
+            boolean completed;
+            if ((null != builtDate) && !borderSizeChanged
+                    && (Math.abs(builtRadius - regionHex.radius) < RegionPerimeter.EPSILON)
+                    && (regionHex.distanceTo(builtCenterX, builtCenterY) < RegionPerimeter.EPSILON)) {
+                completed = updateBorderData();
+            } else {
+                completed = buildBorderData();
             }
-            for (Faction f : factionSet) {
-                borders.put(f, new FactionBorders(f, now, planetList));
-                oldFactions.remove(f);
+            if (!completed || cancelTask) {
+                return;
             }
-            for (Faction f : oldFactions) {
-                borders.remove(f);
-                borderPlanets.remove(f);
+            lastUpdate = now;
+        } catch (Exception ex) {
+            MekHQ.getLogger().error(getClass(), "recalculate()", ex.getMessage());
+        } finally {
+            invalid = false;
+            notify();
+        }
+    }
+    
+    /**
+     * Calculates the borders of all factions in the region from scratch. The borders between each
+     * pair of factions are found on several threads.
+     * 
+     * @return Whether the calculation was completed without being canceled
+     */
+    private boolean buildBorderData() {
+        // If this gets canceled part way through the next one has to start over as well
+        builtDate = null;
+        borderSizeChanged = false;
+        List<Planet> planetList = new ArrayList<>();
+        Set<Faction> factionSet = new HashSet<>();
+        Set<Faction> oldFactions = new HashSet<>(borders.keySet());
+        for (Planet planet : getPlanetList()) {
+            if ((regionHex.radius < 0)
+                    || regionHex.contains(planet.getX(), planet.getY())) {
+                planetList.add(planet);
+                factionSet.addAll(planet.getFactionSet(now));
             }
             if (cancelTask) {
-                return;
+                return false;
+            }
+        }
+        factionSet.parallelStream().forEach(f -> {
+            if (!cancelTask) {
+                borders.put(f, new FactionBorders(f, now, planetList));
             }
-            for (Faction us : factionSet) {
+        });
+        oldFactions.removeAll(factionSet);
+        for (Faction f : oldFactions) {
+            borders.remove(f);
+            borderPlanets.remove(f);
+        }
+        if (cancelTask) {
+            return false;
+        }
+        factionSet.parallelStream().forEach(us -> {
+            if (!cancelTask) {
                 Map<Faction, List<Planet>> borderMap = new HashMap<>();
                 for (Faction them : factionSet) {
                     if (!us.equals(them)) {
-                        double borderSize = Math.max(getBorderSize(us), getBorderSize(them));
-                        List<Planet> planets = borders.get(us).getBorderPlanets(borders.get(them), borderSize);
-                        borderMap.put(them, planets);
+                        borderMap.put(them, findBorderPlanets(borders.get(us), borders.get(them)));
                     }
                 }
                 borderPlanets.put(us, borderMap);
-                if (cancelTask) {
-                    return;
+            }
+        });
+        if (cancelTask) {
+            return false;
+        }
+        regionPlanets = planetList;
+        builtCenterX = regionHex.center[0];
+        builtCenterY = regionHex.center[1];
+        builtRadius = regionHex.radius;
+        builtDate = now;
+        return true;
+    }
+    
+    /**
+     * Brings the borders calculated for the same region at an earlier date up to the current date.
+     * Which factions control a planet changes rarely, so this compares each planet's owners at both
+     * dates and only calculates again the factions that gained or lost planets. Nothing is changed
+     * until the calculation is complete, so when it is canceled the next one can start from the same
+     * point.
+     * 
+     * @return Whether the calculation was completed without being canceled
+     */
+    private boolean updateBorderData() {
+        Set<Faction> changed = new HashSet<>();
+        for (Planet planet : regionPlanets) {
+            Set<Faction> before = planet.getFactionSet(builtDate);
+            Set<Faction> after = planet.getFactionSet(now);
+            if (!before.equals(after)) {
+                changed.addAll(before);
+                changed.addAll(after);
+            }
+            if (cancelTask) {
+                return false;
+            }
+        }
+        if (changed.isEmpty()) {
+            builtDate = now;
+            return true;
+        }
+        
+        Map<Faction, FactionBorders> newBorders = new HashMap<>(borders);
+        for (Faction f : changed) {
+            FactionBorders fb = new FactionBorders(f, now, regionPlanets);
+            if (fb.getPlanets().isEmpty()) {
+                newBorders.remove(f);
+            } else {
+                newBorders.put(f, fb);
+            }
+            if (cancelTask) {
+                return false;
+            }
+        }
+        Map<Faction, Map<Faction, List<Planet>>> newBorderPlanets = new HashMap<>();
+        for (Faction us : newBorders.keySet()) {
+            Map<Faction, List<Planet>> borderMap = new HashMap<>();
+            for (Faction them : newBorders.keySet()) {
+                if (us.equals(them)) {
+                    continue;
+                }
+                if (changed.contains(us) || changed.contains(them)) {
+                    borderMap.put(them, findBorderPlanets(newBorders.get(us), newBorders.get(them)));
+                } else {
+                    borderMap.put(them, borderPlanets.get(us).get(them));
                 }
             }
+            newBorderPlanets.put(us, borderMap);
             if (cancelTask) {
-                return;
+                return false;
             }
-            lastUpdate = now;
-        } catch (Exception ex) {
-            MekHQ.getLogger().error(getClass(), "recalculate()", ex.getMessage());
-        } finally {
-            invalid = false;
-            notify();
         }
+        
+        borders.keySet().retainAll(newBorders.keySet());
+        borders.putAll(newBorders);
+        borderPlanets.keySet().retainAll(newBorderPlanets.keySet());
+        borderPlanets.putAll(newBorderPlanets);
+        builtDate = now;
+        return true;
+    }
+    
+    /**
+     * @return The planets controlled by the second faction that are within the larger of the two
+     *         factions' border sizes of a planet controlled by the first.
+     */
+    private List<Planet> findBorderPlanets(FactionBorders us, FactionBorders them) {
+        double borderSize = Math.max(getBorderSize(us.getFaction()), getBorderSize(them.getFaction()));
+        return us.getBorderPlanets(them, borderSize);
     }
     
     /**
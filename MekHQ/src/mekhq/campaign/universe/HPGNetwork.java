@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2020 - The MegaMek Team
+ *
+ * This file is part of MekHQ.
+ *
+ * MekHQ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MekHQ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MekHQ.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mekhq.campaign.universe;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.joda.time.DateTime;
+
+import megamek.common.EquipmentType;
+import mekhq.campaign.universe.Planet.PlanetaryEvent;
+
+/**
+ * The links between HPG stations, as shown on the star map: every HPG-A station is linked to
+ * every station within {@link #HPG_RANGE}.
+ * <p>
+ * The network only changes on the dates some planet's HPG rating changes, so it is kept until
+ * a date is asked for which lies past (or before) one of those. Then only the planets whose
+ * rating is different between the two dates and their neighbours are updated, unless so many
+ * changed that building the whole network again is faster. A full build goes through the HPG-A
+ * stations on several threads.
+ */
+class HPGNetwork {
+    /** The range of an HPG-A station, in light years */
+    static final int HPG_RANGE = 50;
+
+    private final PlanetSpatialIndex spatialIndex;
+    /** The planets whose HPG rating might change on each date */
+    private final TreeMap<DateTime, List<Planet>> changes = new TreeMap<>();
+
+    private boolean built = false;
+    /** The date the network is up to date for, null meaning before any change */
+    private DateTime date;
+    private final Set<Planets.HPGLink> links = new HashSet<>();
+    private final Map<Planet, Set<Planets.HPGLink>> linksByPlanet = new HashMap<>();
+    private Collection<Planets.HPGLink> published = Collections.emptySet();
+
+    HPGNetwork(PlanetSpatialIndex spatialIndex) {
+        this.spatialIndex = spatialIndex;
+        for (int i = 0; i < spatialIndex.size(); i++) {
+            Planet planet = spatialIndex.getPlanet(i);
+            List<PlanetaryEvent> events = planet.getEvents();
+            if (null != events) {
+                for (PlanetaryEvent event : events) {
+                    if ((null != event.hpg) && (null != event.date)) {
+                        changes.computeIfAbsent(event.date, d -> new ArrayList<>()).add(planet);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the HPG links at the given date. The collection can't be changed, and doesn't change.
+     */
+    synchronized Collection<Planets.HPGLink> getLinks(DateTime when) {
+        DateTime key = (null != when) ? changes.floorKey(when) : null;
+        if (!built) {
+            buildAll(when);
+        } else if (!Objects.equals(key, date)) {
+            Set<Planet> changed = getChangedPlanets(date, key);
+            if (changed.size() > spatialIndex.size() / 4) {
+                buildAll(when);
+            } else {
+                update(changed, when);
+            }
+        } else {
+            return published;
+        }
+        built = true;
+        date = key;
+        published = Collections.unmodifiableSet(new HashSet<>(links));
+        return published;
+    }
+
+    /**
+     * @return the planets with an HPG rating that might differ between the two dates
+     */
+    private Set<Planet> getChangedPlanets(DateTime from, DateTime to) {
+        DateTime earlier = from;
+        DateTime later = to;
+        if ((null == earlier) || ((null != later) && later.isBefore(earlier))) {
+            earlier = to;
+            later = from;
+        }
+        Map<DateTime, List<Planet>> between = (null == earlier)
+                ? changes.headMap(later, true) : changes.subMap(earlier, false, later, true);
+        Set<Planet> result = new HashSet<>();
+        for (List<Planet> planets : between.values()) {
+            result.addAll(planets);
+        }
+        return result;
+    }
+
+    private void buildAll(DateTime when) {
+        links.clear();
+        linksByPlanet.clear();
+        Set<Planets.HPGLink> all = IntStream.range(0, spatialIndex.size()).parallel()
+                .mapToObj(spatialIndex::getPlanet)
+                .filter(planet -> isHPGA(planet, when))
+                .flatMap(planet -> getLinksFrom(planet, when).stream())
+                .collect(Collectors.toSet());
+        for (Planets.HPGLink link : all) {
+            addLink(link);
+        }
+    }
+
+    private void update(Set<Planet> changed, DateTime when) {
+        for (Planet planet : changed) {
+            Set<Planets.HPGLink> planetLinks = linksByPlanet.remove(planet);
+            if (null != planetLinks) {
+                for (Planets.HPGLink link : planetLinks) {
+                    links.remove(link);
+                    Planet other = link.primary.equals(planet) ? link.secondary : link.primary;
+                    Set<Planets.HPGLink> otherLinks = linksByPlanet.get(other);
+                    if (null != otherLinks) {
+                        otherLinks.remove(link);
+                    }
+                }
+            }
+        }
+        for (Planet planet : changed) {
+            if (isHPGA(planet, when)) {
+                getLinksFrom(planet, when).forEach(this::addLink);
+            }
+            Integer hpg = planet.getHPG(when);
+            if (null != hpg) {
+                spatialIndex.visitWithin(planet.getX(), planet.getY(), HPG_RANGE, i -> {
+                    Planet neighbor = spatialIndex.getPlanet(i);
+                    if (isHPGA(neighbor, when)) {
+                        addLink(new Planets.HPGLink(neighbor, planet, hpg.intValue()));
+                    }
+                });
+            }
+        }
+    }
+
+    private List<Planets.HPGLink> getLinksFrom(Planet planet, DateTime when) {
+        List<Planets.HPGLink> result = new ArrayList<>();
+        spatialIndex.visitWithin(planet.getX(), planet.getY(), HPG_RANGE, i -> {
+            Planet neighbor = spatialIndex.getPlanet(i);
+            Integer hpg = neighbor.getHPG(when);
+            if (null != hpg) {
+                result.add(new Planets.HPGLink(planet, neighbor, hpg.intValue()));
+            }
+        });
+        return result;
+    }
+
+    private void addLink(Planets.HPGLink link) {
+        if (links.add(link)) {
+            linksByPlanet.computeIfAbsent(link.primary, p -> new HashSet<>()).add(link);
+            linksByPlanet.computeIfAbsent(link.secondary, p -> new HashSet<>()).add(link);
+        }
+    }
+
+    private static boolean isHPGA(Planet planet, DateTime when) {
+        Integer hpg = planet.getHPG(when);
+        return (null != hpg) && (hpg.intValue() == EquipmentType.RATING_A);
+    }
+}
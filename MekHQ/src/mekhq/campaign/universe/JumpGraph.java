@@ -0,0 +1,356 @@
+/*
+ * Copyright (c) 2020 - The MegaMek Team
+ *
+ * This file is part of MekHQ.
+ *
+ * MekHQ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MekHQ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MekHQ.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mekhq.campaign.universe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+import org.joda.time.DateTime;
+
+import megamek.common.logging.LogLevel;
+import mekhq.MekHQ;
+import mekhq.campaign.universe.Planet.PlanetaryEvent;
+
+/**
+ * The jump connections between planets, used to find the best path from one planet to another.
+ * <p>
+ * Planets are numbered when the graph is built, and the path search works on arrays indexed by
+ * those numbers instead of maps keyed by planet id. Which planets are within jump range of a
+ * planet never changes, so the graph remembers them the first time a search reaches the planet.
+ * Recharge times depend on the date and are remembered for the date of the last search.
+ * <p>
+ * Found paths are kept in a cache of limited size. Recharge times, and with them the paths, only
+ * change on the dates some planet gains or loses a recharge station, so a cached path is used for
+ * every date up to the next such change.
+ * <p>
+ * All searches of a graph share its state, so they are synchronized.
+ */
+public class JumpGraph {
+    /** The maximum distance of a single jump, in light years */
+    public static final int JUMP_RANGE = 30;
+    /** Stop searching after this many planets were looked at */
+    private static final int MAX_STEPS = 10000;
+    /** The number of paths kept in the cache */
+    private static final int MAX_CACHED_PATHS = 1000;
+
+    /** The planets and their positions, also giving the numbers used for them here */
+    private final PlanetSpatialIndex spatialIndex;
+    private final Map<String, Integer> indexes = new HashMap<>();
+    /** The planets within jump range of each planet, or null if not worked out yet */
+    private final int[][] neighbours;
+
+    private DateTime rechargeDate;
+    private final double[] rechargeTimes;
+    /** The dates on which some planet's recharge stations change */
+    private TreeSet<DateTime> rechargeChanges;
+
+    @SuppressWarnings("serial")
+    private final Map<PathKey, List<Planet>> paths = new LinkedHashMap<PathKey, List<Planet>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PathKey, List<Planet>> eldest) {
+            return size() > MAX_CACHED_PATHS;
+        }
+    };
+    private long cacheHits = 0;
+    private long cacheMisses = 0;
+
+    // Search state, valid for a planet if its mark equals the current search
+    private int search = 0;
+    private final int[] seen;
+    private final int[] closed;
+    private final double[] scoreG;
+    private final double[] scoreH;
+    private final int[] parent;
+
+    // Open set, a binary heap of planet indexes ordered by F = G + H
+    private final int[] heap;
+    private final int[] heapPosition;
+    private int heapSize;
+
+    public JumpGraph(Collection<Planet> planetList) {
+        this(new PlanetSpatialIndex(planetList));
+    }
+
+    JumpGraph(PlanetSpatialIndex spatialIndex) {
+        this.spatialIndex = spatialIndex;
+        int size = spatialIndex.size();
+        for (int i = 0; i < size; i++) {
+            indexes.put(spatialIndex.getPlanet(i).getId(), i);
+        }
+        neighbours = new int[size][];
+        rechargeTimes = new double[size];
+        seen = new int[size];
+        closed = new int[size];
+        scoreG = new double[size];
+        scoreH = new double[size];
+        parent = new int[size];
+        heap = new int[size];
+        heapPosition = new int[size];
+        rechargeChanges = findRechargeChanges();
+    }
+
+    /**
+     * Uses an A* algorithm to find the best path between two planets. For right now, we are just
+     * going to minimize the number of jumps and the recharge time along the way.
+     *
+     * @return the planets along the path, from start to end, or an empty list if there is no path.
+     *         The list can't be changed.
+     */
+    public synchronized List<Planet> findPath(Planet start, Planet end, DateTime when) {
+        Integer startIndex = indexes.get(start.getId());
+        Integer endIndex = indexes.get(end.getId());
+        if ((null == startIndex) || (null == endIndex)) {
+            return Collections.emptyList();
+        }
+        PathKey key = new PathKey(startIndex, endIndex, rechargeChanges.floor(when));
+        List<Planet> path = paths.get(key);
+        if (null != path) {
+            cacheHits++;
+            return path;
+        }
+        cacheMisses++;
+        path = Collections.unmodifiableList(searchPath(startIndex, endIndex, when));
+        paths.put(key, path);
+        return path;
+    }
+
+    private List<Planet> searchPath(int startIndex, int endIndex, DateTime when) {
+        if (!when.equals(rechargeDate)) {
+            Arrays.fill(rechargeTimes, Double.NaN);
+            rechargeDate = when;
+        }
+        startSearch();
+
+        final int target = endIndex;
+        final double targetX = spatialIndex.getX(target);
+        final double targetY = spatialIndex.getY(target);
+        int current = startIndex;
+        seen[current] = search;
+        closed[current] = search;
+        scoreG[current] = 0.0;
+        parent[current] = -1;
+
+        for (int steps = 0; (current != target) && (steps < MAX_STEPS); steps++) {
+            double currentG = scoreG[current] + getRechargeTime(current);
+            for (int next : getNeighbours(current)) {
+                if (closed[next] == search) {
+                    continue;
+                }
+                if (seen[next] != search) {
+                    seen[next] = search;
+                    scoreG[next] = currentG;
+                    scoreH[next] = spatialIndex.getDistance(next, targetX, targetY);
+                    parent[next] = current;
+                    push(next);
+                } else if (currentG < scoreG[next]) {
+                    scoreG[next] = currentG;
+                    parent[next] = current;
+                    siftUp(heapPosition[next]);
+                }
+            }
+
+            if (heapSize == 0) {
+                // We're done - there is no path
+                return Collections.emptyList();
+            }
+            current = pop();
+            closed[current] = search;
+        }
+
+        // now we just need to back up from the last planet by parents until we hit the start
+        List<Planet> path = new ArrayList<>();
+        for (int i = current; i >= 0; i = parent[i]) {
+            path.add(spatialIndex.getPlanet(i));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Forgets the recharge times and the cached paths, which have to be worked out again after
+     * planetary events changed.
+     */
+    public synchronized void clearRechargeTimes() {
+        final String METHOD_NAME = "clearRechargeTimes()"; //$NON-NLS-1$
+
+        MekHQ.getLogger().log(JumpGraph.class, METHOD_NAME, LogLevel.DEBUG,
+                String.format("Clearing %d cached jump paths, %d found in the cache and %d searched for so far", //$NON-NLS-1$
+                        paths.size(), cacheHits, cacheMisses));
+        rechargeDate = null;
+        rechargeChanges = findRechargeChanges();
+        paths.clear();
+    }
+
+    /**
+     * @return how often a path was found in the cache
+     */
+    public synchronized long getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * @return how often a path had to be searched for
+     */
+    public synchronized long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    private TreeSet<DateTime> findRechargeChanges() {
+        TreeSet<DateTime> result = new TreeSet<>();
+        for (int i = 0; i < spatialIndex.size(); i++) {
+            List<PlanetaryEvent> events = spatialIndex.getPlanet(i).getEvents();
+            if (null != events) {
+                for (PlanetaryEvent event : events) {
+                    if ((null != event.date) && ((null != event.nadirCharge) || (null != event.zenithCharge))) {
+                        result.add(event.date);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private void startSearch() {
+        search++;
+        if (search == 0) {
+            // Wrapped around, so old marks might look current
+            Arrays.fill(seen, 0);
+            Arrays.fill(closed, 0);
+            search = 1;
+        }
+        heapSize = 0;
+    }
+
+    private double getRechargeTime(int index) {
+        if (Double.isNaN(rechargeTimes[index])) {
+            rechargeTimes[index] = spatialIndex.getPlanet(index).getRechargeTime(rechargeDate);
+        }
+        return rechargeTimes[index];
+    }
+
+    private int[] getNeighbours(int index) {
+        if (null == neighbours[index]) {
+            neighbours[index] = Arrays.stream(spatialIndex.findWithin(spatialIndex.getX(index),
+                    spatialIndex.getY(index), JUMP_RANGE)).filter(other -> other != index).toArray();
+        }
+        return neighbours[index];
+    }
+
+    // Binary heap operations
+
+    private double getScoreF(int index) {
+        return scoreG[index] + scoreH[index];
+    }
+
+    private void push(int index) {
+        heap[heapSize] = index;
+        heapPosition[index] = heapSize;
+        heapSize++;
+        siftUp(heapSize - 1);
+    }
+
+    private int pop() {
+        int result = heap[0];
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapPosition[heap[0]] = 0;
+            siftDown(0);
+        }
+        return result;
+    }
+
+    private void siftUp(int position) {
+        int index = heap[position];
+        double f = getScoreF(index);
+        while (position > 0) {
+            int parentPosition = (position - 1) / 2;
+            int parentIndex = heap[parentPosition];
+            if (getScoreF(parentIndex) <= f) {
+                break;
+            }
+            heap[position] = parentIndex;
+            heapPosition[parentIndex] = position;
+            position = parentPosition;
+        }
+        heap[position] = index;
+        heapPosition[index] = position;
+    }
+
+    private void siftDown(int position) {
+        int index = heap[position];
+        double f = getScoreF(index);
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if ((child + 1 < heapSize) && (getScoreF(heap[child + 1]) < getScoreF(heap[child]))) {
+                child++;
+            }
+            if (getScoreF(heap[child]) >= f) {
+                break;
+            }
+            heap[position] = heap[child];
+            heapPosition[heap[child]] = position;
+            position = child;
+        }
+        heap[position] = index;
+        heapPosition[index] = position;
+    }
+
+    private static class PathKey {
+        private final int start;
+        private final int end;
+        /** The last recharge station change before the date of the path, null if there is none */
+        private final DateTime rechargeDate;
+
+        PathKey(int start, int end, DateTime rechargeDate) {
+            this.start = start;
+            this.end = end;
+            this.rechargeDate = rechargeDate;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof PathKey)) {
+                return false;
+            }
+            PathKey other = (PathKey) obj;
+            return (start == other.start) && (end == other.end)
+                    && Objects.equals(rechargeDate, other.rechargeDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(start, end, rechargeDate);
+        }
+    }
+}
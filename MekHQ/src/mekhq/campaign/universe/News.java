@@ -5,6 +5,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
@@ -13,6 +15,7 @@ import javax.xml.bind.Unmarshaller;
 import javax.xml.parsers.DocumentBuilder;
 
 import org.joda.time.DateTime;
+import org.joda.time.DateTimeComparator;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -23,9 +26,11 @@ import mekhq.MekHQ;
 import mekhq.MekHqXmlUtil;
 
 /**
- * Instead of making this a static like Planets, we are just going to reload a years
- * worth of news items at the start of every year, to cut down on memory usage. If this 
- * slows things down too much on year turn over we can reconsider
+ * All the news items from the news file, indexed by the day they appear on. The file is parsed
+ * once, and items dated only to a month, year or decade get their day picked at that time, so
+ * looking up the news for a day is a single map lookup. News from planetary events is added from
+ * {@link Planets#getPlanetaryNews(DateTime)}.
+ * 
  * @author Jay Lawson
  *
  */
@@ -50,11 +55,11 @@ public class News {
     }
 
     //we need two hashes - one to access by date and the other by an id
-    private Map<DateTime, List<NewsItem>> archive;
+    private NavigableMap<DateTime, List<NewsItem>> archive;
     private Map<Integer, NewsItem> news;
     
-    public News(int year, long seed) {
-        loadNewsFor(year, seed);
+    public News() {
+        loadNews();
     }
     
     public NewsItem getNewsItem(int id) {
@@ -63,23 +68,32 @@ public class News {
         }
     }
     
+    /**
+     * @return the news items from the news file and the planetary events for the given day
+     */
     public List<NewsItem> fetchNewsFor(DateTime d) {
+        List<NewsItem> result = new ArrayList<>();
         synchronized(LOADING_LOCK) {
-            if(archive.containsKey(d)) {
-                return archive.get(d);
+            List<NewsItem> items = archive.get(d);
+            if(null != items) {
+                result.addAll(items);
             }
-            return new ArrayList<>();
         }
+        result.addAll(Planets.getInstance().getPlanetaryNews(d));
+        return result;
     }
     
-    public void loadNewsFor(int year, long seed) {
-        final String METHOD_NAME = "loadNewsFor(int,long)"; //$NON-NLS-1$
+    /**
+     * Parses the news file and indexes all of its news items by date.
+     */
+    public void loadNews() {
+        final String METHOD_NAME = "loadNews()"; //$NON-NLS-1$
         synchronized(LOADING_LOCK) {
-            archive = new HashMap<>();
+            archive = new TreeMap<>(DateTimeComparator.getDateOnlyInstance());
             news = new HashMap<>();
             int id = 0;
             MekHQ.getLogger().log(getClass(), METHOD_NAME, LogLevel.INFO,
-                    "Starting load of news data for " + year + " from XML..."); //$NON-NLS-1$
+                    "Starting load of news data from XML..."); //$NON-NLS-1$
 
             // Initialize variables.
             Document xmlDoc = null;
@@ -128,21 +142,10 @@ public class News {
                         if(null == newsItem.getDate()) {
                             MekHQ.getLogger().log(getClass(), METHOD_NAME, LogLevel.ERROR,
                                     "The date is null for news Item " + newsItem.getHeadline()); //$NON-NLS-1$
-                        }
-                        if(!newsItem.isInYear(year)) {
                             continue;
                         }
-                        List<NewsItem> items;
                         newsItem.finalizeDate();
-                        if(null == archive.get(newsItem.getDate())) {
-                            items = new ArrayList<NewsItem>();
-                            items.add(newsItem);
-                            archive.put(newsItem.getDate(), items);
-                        } else {
-                            items = archive.get(newsItem.getDate());
-                            items.add(newsItem);
-                            archive.put(newsItem.getDate(), items);
-                        }
+                        archive.computeIfAbsent(newsItem.getDate(), d -> new ArrayList<>()).add(newsItem);
                         newsItem.setId(id);
                         news.put(id, newsItem);
                         ++ id;
@@ -150,7 +153,7 @@ public class News {
                 }
             }   
             MekHQ.getLogger().log(getClass(), METHOD_NAME, LogLevel.INFO,
-                    "loaded " + archive.size() + " days of news items for " + year); //$NON-NLS-1$
+                    "loaded " + archive.size() + " days of news items"); //$NON-NLS-1$
         }
     }
 }
\ No newline at end of file
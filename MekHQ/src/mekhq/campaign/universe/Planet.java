@@ -31,6 +31,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.Random;
 import java.util.Set;
@@ -228,6 +229,13 @@ public class Planet implements Serializable {
      */
     @XmlTransient
     TreeMap<DateTime, PlanetaryEvent> events;
+
+    /**
+     * The combined state of all events up to and including each event date, built from
+     * {@link #events} on first use and dropped by {@link #invalidateEvents()}
+     */
+    @XmlTransient
+    private transient volatile NavigableMap<DateTime, PlanetaryEvent> resolvedEvents;
     
     //a hash to keep track of dynamic garrison changes
     //TreeMap<DateTime, List<String>> garrisonHistory;
@@ -536,6 +544,8 @@ public class Planet implements Serializable {
         if(null == events) {
             events = new TreeMap<DateTime, PlanetaryEvent>(DateTimeComparator.getDateOnlyInstance());
         }
+        // The caller is going to change the event
+        invalidateEvents();
         PlanetaryEvent event = events.get(when);
         if(null == event) {
             event = new PlanetaryEvent();
@@ -558,17 +568,47 @@ public class Planet implements Serializable {
         }
         return new ArrayList<PlanetaryEvent>(events.values());
     }
+
+    /**
+     * Drops the combined event data used by the date-dependant getters. The events returned by
+     * {@link #getOrCreateEvent(DateTime)}, {@link #getEvent(DateTime)} and {@link #getEvents()}
+     * are the planet's own, so this has to be called once they have been changed.
+     */
+    public void invalidateEvents() {
+        resolvedEvents = null;
+    }
     
     protected <T> T getEventData(DateTime when, T defaultValue, EventGetter<T> getter) {
         if( null == when || null == events || null == getter ) {
             return defaultValue;
         }
-        T result = defaultValue;
-        for( DateTime date : events.navigableKeySet() ) {
-            if( date.isAfter(when) ) {
-                break;
+        Map.Entry<DateTime, PlanetaryEvent> resolved = getResolvedEvents().floorEntry(when);
+        if( null == resolved ) {
+            return defaultValue;
+        }
+        return Utilities.nonNull(getter.get(resolved.getValue()), defaultValue);
+    }
+
+    /**
+     * @return the combined state of the events up to each event date, so looking up the data
+     *         for a date is a single search instead of going through all events since the start
+     */
+    private NavigableMap<DateTime, PlanetaryEvent> getResolvedEvents() {
+        NavigableMap<DateTime, PlanetaryEvent> result = resolvedEvents;
+        if( null == result ) {
+            // Ordered by the full date and time, as the data for a date includes events which
+            // are not after it
+            result = new TreeMap<>();
+            PlanetaryEvent state = new PlanetaryEvent();
+            for( PlanetaryEvent event : events.values() ) {
+                PlanetaryEvent next = new PlanetaryEvent();
+                next.date = event.date;
+                next.copyDataFrom(state);
+                next.copyDataFrom(event);
+                result.put(event.date, next);
+                state = next;
             }
-            result = Utilities.nonNull(getter.get(events.get(date)), result);
+            resolvedEvents = result;
         }
         return result;
     }
@@ -591,15 +631,11 @@ public class Planet implements Serializable {
     }
     
     public String getName(DateTime when) {
-        return getEventData(when, name, new EventGetter<String>() {
-            @Override public String get(PlanetaryEvent e) { return e.name; }
-        });
+        return getEventData(when, name, e -> e.name);
     }
 
     public String getShortName(DateTime when) {
-        return getEventData(when, shortName, new EventGetter<String>() {
-            @Override public String get(PlanetaryEvent e) { return e.shortName; }
-        });
+        return getEventData(when, shortName, e -> e.shortName);
     }
     
     public List<String> getNames() {
@@ -622,9 +658,7 @@ public class Planet implements Serializable {
     }
     
     public SocioIndustrialData getSocioIndustrial(DateTime when) {
-        return getEventData(when, socioIndustrial, new EventGetter<SocioIndustrialData>() {
-            @Override public SocioIndustrialData get(PlanetaryEvent e) { return e.socioIndustrial; }
-        });
+        return getEventData(when, socioIndustrial, e -> e.socioIndustrial);
     }
 
     public String getSocioIndustrialText(DateTime when) {
@@ -633,9 +667,7 @@ public class Planet implements Serializable {
     }
 
     public Integer getHPG(DateTime when) {
-        return getEventData(when, hpg, new EventGetter<Integer>() {
-            @Override public Integer get(PlanetaryEvent e) { return e.hpg; }
-        });
+        return getEventData(when, hpg, e -> e.hpg);
     }
 
     public String getHPGClass(DateTime when) {
@@ -643,9 +675,7 @@ public class Planet implements Serializable {
     }
 
     public Integer getPopulationRating(DateTime when) {
-        return getEventData(when, populationRating, new EventGetter<Integer>() {
-            @Override public Integer get(PlanetaryEvent e) { return e.populationRating; }
-        });
+        return getEventData(when, populationRating, e -> e.populationRating);
     }
     
     public String getPopulationRatingString(DateTime when) {
@@ -654,15 +684,11 @@ public class Planet implements Serializable {
     }
     
     public String getGovernment(DateTime when) {
-        return getEventData(when, government, new EventGetter<String>() {
-            @Override public String get(PlanetaryEvent e) { return e.government; }
-        });
+        return getEventData(when, government, e -> e.government);
     }
 
     public Integer getControlRating(DateTime when) {
-        return getEventData(when, controlRating, new EventGetter<Integer>() {
-            @Override public Integer get(PlanetaryEvent e) { return e.controlRating; }
-        });
+        return getEventData(when, controlRating, e -> e.controlRating);
     }
     
     public String getControlRatingString(DateTime when) {
@@ -671,9 +697,7 @@ public class Planet implements Serializable {
     }
     
     public LifeForm getLifeForm(DateTime when) {
-        return getEventData(when, null != lifeForm ? lifeForm : LifeForm.NONE, new EventGetter<LifeForm>() {
-            @Override public LifeForm get(PlanetaryEvent e) { return e.lifeForm; }
-        });
+        return getEventData(when, null != lifeForm ? lifeForm : LifeForm.NONE, e -> e.lifeForm);
     }
 
     public String getLifeFormName(DateTime when) {
@@ -681,9 +705,7 @@ public class Planet implements Serializable {
     }
 
     public Climate getClimate(DateTime when) {
-        return getEventData(when, climate, new EventGetter<Climate>() {
-            @Override public Climate get(PlanetaryEvent e) { return e.climate; }
-        });
+        return getEventData(when, climate, e -> e.climate);
     }
 
     public String getClimateName(DateTime when) {
@@ -692,21 +714,15 @@ public class Planet implements Serializable {
     }
 
     public Integer getPercentWater(DateTime when) {
-        return getEventData(when, percentWater, new EventGetter<Integer>() {
-            @Override public Integer get(PlanetaryEvent e) { return e.percentWater; }
-        });
+        return getEventData(when, percentWater, e -> e.percentWater);
     }
 
     public Integer getTemperature(DateTime when) {
-        return getEventData(when, temperature, new EventGetter<Integer>() {
-            @Override public Integer get(PlanetaryEvent e) { return e.temperature; }
-        });
+        return getEventData(when, temperature, e -> e.temperature);
     }
     
     public Integer getPressure(DateTime when) {
-        return getEventData(when, pressure, new EventGetter<Integer>() {
-            @Override public Integer get(PlanetaryEvent e) { return e.pressure; }
-        });
+        return getEventData(when, pressure, e -> e.pressure);
     }
     
     public String getPressureName(DateTime when) {
@@ -715,39 +731,27 @@ public class Planet implements Serializable {
     }
 
     public Double getPressureAtm(DateTime when) {
-        return getEventData(when, pressureAtm, new EventGetter<Double>() {
-            @Override public Double get(PlanetaryEvent e) { return e.pressureAtm; }
-        });
+        return getEventData(when, pressureAtm, e -> e.pressureAtm);
     }
 
     public Double getAtmMass(DateTime when) {
-        return getEventData(when, atmMass, new EventGetter<Double>() {
-            @Override public Double get(PlanetaryEvent e) { return e.atmMass; }
-        });
+        return getEventData(when, atmMass, e -> e.atmMass);
     }
 
     public String getAtmosphere(DateTime when) {
-        return getEventData(when, atmosphere, new EventGetter<String>() {
-            @Override public String get(PlanetaryEvent e) { return e.atmosphere; }
-        });
+        return getEventData(when, atmosphere, e -> e.atmosphere);
     }
 
     public Double getAlbedo(DateTime when) {
-        return getEventData(when, albedo, new EventGetter<Double>() {
-            @Override public Double get(PlanetaryEvent e) { return e.albedo; }
-        });
+        return getEventData(when, albedo, e -> e.albedo);
     }
 
     public Double getGreenhouseEffect(DateTime when) {
-        return getEventData(when, greenhouseEffect, new EventGetter<Double>() {
-            @Override public Double get(PlanetaryEvent e) { return e.greenhouseEffect; }
-        });
+        return getEventData(when, greenhouseEffect, e -> e.greenhouseEffect);
     }
 
     public Integer getHabitability(DateTime when) {
-        return getEventData(when, habitability, new EventGetter<Integer>() {
-            @Override public Integer get(PlanetaryEvent e) { return e.habitability; }
-        });
+        return getEventData(when, habitability, e -> e.habitability);
     }
 
     public List<String> getFactions(DateTime when) {
@@ -786,15 +790,11 @@ public class Planet implements Serializable {
     // Stellar event data, to be moved
     
     public Boolean isNadirCharge(DateTime when) {
-        return getEventData(when, nadirCharge, new EventGetter<Boolean>() {
-            @Override public Boolean get(PlanetaryEvent e) { return e.nadirCharge; }
-        });
+        return getEventData(when, nadirCharge, e -> e.nadirCharge);
     }
 
     public boolean isZenithCharge(DateTime when) {
-        return getEventData(when, zenithCharge, new EventGetter<Boolean>() {
-            @Override public Boolean get(PlanetaryEvent e) { return e.zenithCharge; }
-        });
+        return getEventData(when, zenithCharge, e -> e.zenithCharge);
     }
 
     public String getRechargeStationsText(DateTime when) {
@@ -1011,6 +1011,7 @@ public class Planet implements Serializable {
         
         // Fill up events
         events = new TreeMap<DateTime, PlanetaryEvent>(DateTimeComparator.getDateOnlyInstance());
+        invalidateEvents();
         if( null != eventList ) {
             for( PlanetaryEvent event : eventList ) {
                 if( null != event && null != event.date ) {
@@ -1028,6 +1029,7 @@ public class Planet implements Serializable {
                     event.faction = change.faction;
                 }
             }
+            invalidateEvents();
             factionChanges.clear();
         }
         factionChanges = null;
@@ -1122,6 +1124,7 @@ public class Planet implements Serializable {
                             
                             if(!dryRun) {
                                 this.events.put(event.date, event);
+                                invalidateEvents();
                             }
                         }
                     }
@@ -1190,6 +1193,7 @@ public class Planet implements Serializable {
                         myEvent.copyDataFrom(event);
                     }
                 }
+                invalidateEvents();
             }
         }
     }
@@ -1234,7 +1238,9 @@ public class Planet implements Serializable {
         return EquipmentType.RATING_C;
     }
 
-    public static final class SocioIndustrialData {
+    public static final class SocioIndustrialData implements Serializable {
+        private static final long serialVersionUID = 4402213495417443917L;
+
         public static final SocioIndustrialData NONE = new SocioIndustrialData();
         static {
             NONE.tech = EquipmentType.RATING_X;
@@ -1394,7 +1400,9 @@ public class Planet implements Serializable {
 
     /** A class representing some event, possibly changing planetary information */
     @XmlRootElement(name="event")
-    public static final class PlanetaryEvent {
+    public static final class PlanetaryEvent implements Serializable {
+        private static final long serialVersionUID = -2093578468726316391L;
+
         @XmlJavaTypeAdapter(DateAdapter.class)
         public DateTime date;
         public String message;
@@ -1492,7 +1500,9 @@ public class Planet implements Serializable {
         }
     }
     
-    public static final class FactionChange {
+    public static final class FactionChange implements Serializable {
+        private static final long serialVersionUID = 6102855127348462054L;
+
         @XmlJavaTypeAdapter(DateAdapter.class)
         public DateTime date;
         @XmlJavaTypeAdapter(StringListAdapter.class)
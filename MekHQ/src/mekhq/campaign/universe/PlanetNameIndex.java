@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2020 - The MegaMek Team
+ *
+ * This file is part of MekHQ.
+ *
+ * MekHQ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MekHQ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MekHQ.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mekhq.campaign.universe;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.joda.time.DateTime;
+
+import mekhq.campaign.universe.Planet.PlanetaryEvent;
+
+/**
+ * Finds planets by any name or short name they had at some point in time.
+ * <p>
+ * Every name a planet had, from its base data or from the name change events, is stored under
+ * its lower case form together with the dates between which the planet had that name. Looking
+ * up a name then only needs to check the few planets that ever had it.
+ */
+class PlanetNameIndex {
+
+    private final Map<String, List<NameEntry>> names = new HashMap<>();
+
+    PlanetNameIndex(Collection<Planet> planets) {
+        for (Planet planet : planets) {
+            if (null != planet) {
+                List<PlanetaryEvent> events = planet.getEvents();
+                addNames(planet, planet.getName(null), events, e -> e.name);
+                addNames(planet, planet.getShortName(null), events, e -> e.shortName);
+            }
+        }
+    }
+
+    private void addNames(Planet planet, String baseName, List<PlanetaryEvent> events,
+            Function<PlanetaryEvent, String> getter) {
+        String current = baseName;
+        DateTime from = null;
+        if (null != events) {
+            for (PlanetaryEvent event : events) {
+                String name = getter.apply(event);
+                if ((null != name) && !name.equals(current)) {
+                    addName(current, new NameEntry(planet, from, event.date));
+                    current = name;
+                    from = event.date;
+                }
+            }
+        }
+        addName(current, new NameEntry(planet, from, null));
+    }
+
+    private void addName(String name, NameEntry entry) {
+        if (null != name) {
+            names.computeIfAbsent(normalize(name), k -> new ArrayList<>()).add(entry);
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return a planet which had the given name or short name at the given date, ignoring case,
+     *         or null if there is none
+     */
+    public Planet getPlanetByName(String name, DateTime when) {
+        List<NameEntry> entries = names.get(normalize(name));
+        if (null != entries) {
+            for (NameEntry entry : entries) {
+                if (entry.isValid(when)) {
+                    return entry.planet;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A name a planet had from one date until another.
+     */
+    private static class NameEntry {
+        private final Planet planet;
+        /** The date the planet got the name, or null if it was part of the base data */
+        private final DateTime from;
+        /** The date the planet changed its name again, or null if it never did */
+        private final DateTime until;
+
+        NameEntry(Planet planet, DateTime from, DateTime until) {
+            this.planet = planet;
+            this.from = from;
+            this.until = until;
+        }
+
+        boolean isValid(DateTime when) {
+            if (null == when) {
+                // Without a date planets only have their base names
+                return null == from;
+            }
+            return ((null == from) || !from.isAfter(when)) && ((null == until) || until.isAfter(when));
+        }
+    }
+}
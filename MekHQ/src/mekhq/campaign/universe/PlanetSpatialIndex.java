@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2020 - The MegaMek Team
+ *
+ * This file is part of MekHQ.
+ *
+ * MekHQ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MekHQ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MekHQ.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mekhq.campaign.universe;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Finds planets by their position.
+ * <p>
+ * Space is divided into square cells. The planets are numbered in the order of the cell they are
+ * in, and their coordinates are kept in plain arrays under those numbers, so each cell is a
+ * range of numbers. Finding the planets in an area only needs a binary search for each cell it
+ * touches and a look at the coordinates of the planets in those cells.
+ * <p>
+ * The index doesn't change once built. Planets without coordinates are left out.
+ */
+class PlanetSpatialIndex {
+    /** The width and height of a cell, in light years */
+    static final double CELL_SIZE = 30.0;
+
+    private final Planet[] planets;
+    private final double[] xs;
+    private final double[] ys;
+    /** The keys of all cells containing planets, in ascending order */
+    private final long[] cellKeys;
+    /** The number of the first planet in each cell, followed by the number of planets */
+    private final int[] cellStarts;
+
+    PlanetSpatialIndex(Collection<Planet> planetList) {
+        Planet[] candidates = planetList.stream()
+                .filter(p -> (null != p) && (null != p.getX()) && (null != p.getY()))
+                .toArray(Planet[]::new);
+        long[] keys = new long[candidates.length];
+        for (int i = 0; i < candidates.length; i++) {
+            keys[i] = getCellKey(getCell(candidates[i].getX()), getCell(candidates[i].getY()));
+        }
+        int[] order = IntStream.range(0, candidates.length).boxed()
+                .sorted(Comparator.comparingLong(i -> keys[i]))
+                .mapToInt(Integer::intValue).toArray();
+
+        planets = new Planet[candidates.length];
+        xs = new double[candidates.length];
+        ys = new double[candidates.length];
+        long[] cells = new long[candidates.length];
+        int[] starts = new int[candidates.length + 1];
+        int cellCount = 0;
+        for (int i = 0; i < order.length; i++) {
+            planets[i] = candidates[order[i]];
+            xs[i] = planets[i].getX();
+            ys[i] = planets[i].getY();
+            long key = keys[order[i]];
+            if ((cellCount == 0) || (cells[cellCount - 1] != key)) {
+                cells[cellCount] = key;
+                starts[cellCount] = i;
+                cellCount++;
+            }
+        }
+        starts[cellCount] = candidates.length;
+        cellKeys = Arrays.copyOf(cells, cellCount);
+        cellStarts = Arrays.copyOf(starts, cellCount + 1);
+    }
+
+    int size() {
+        return planets.length;
+    }
+
+    Planet getPlanet(int index) {
+        return planets[index];
+    }
+
+    double getX(int index) {
+        return xs[index];
+    }
+
+    double getY(int index) {
+        return ys[index];
+    }
+
+    double getDistance(int index, double x, double y) {
+        return Math.sqrt(getDistanceSquared(index, x, y));
+    }
+
+    private double getDistanceSquared(int index, double x, double y) {
+        double dx = xs[index] - x;
+        double dy = ys[index] - y;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Calls the visitor with the number of every planet at most the given distance away from the
+     * given point.
+     */
+    void visitWithin(double x, double y, double radius, IntConsumer visitor) {
+        final double radiusSquared = radius * radius;
+        visitCells(x - radius, y - radius, x + radius, y + radius, i -> {
+            if (getDistanceSquared(i, x, y) <= radiusSquared) {
+                visitor.accept(i);
+            }
+        });
+    }
+
+    /**
+     * @return the numbers of all planets at most the given distance away from the given point,
+     *         in no particular order
+     */
+    int[] findWithin(double x, double y, double radius) {
+        IntStream.Builder result = IntStream.builder();
+        visitWithin(x, y, radius, result);
+        return result.build().toArray();
+    }
+
+    /**
+     * Calls the visitor with the number of every planet inside the given rectangle, borders included.
+     */
+    void visitRectangle(double minX, double minY, double maxX, double maxY, IntConsumer visitor) {
+        visitCells(minX, minY, maxX, maxY, i -> {
+            if ((xs[i] >= minX) && (xs[i] <= maxX) && (ys[i] >= minY) && (ys[i] <= maxY)) {
+                visitor.accept(i);
+            }
+        });
+    }
+
+    /**
+     * @return the numbers of the (up to) <code>count</code> planets closest to the given point,
+     *         closest first
+     */
+    int[] findNearest(double x, double y, int count) {
+        if ((count <= 0) || (planets.length == 0) || Double.isNaN(x) || Double.isNaN(y)) {
+            return new int[0];
+        }
+        count = Math.min(count, planets.length);
+        int[] candidates;
+        double radius = CELL_SIZE;
+        while (true) {
+            candidates = findWithin(x, y, radius);
+            if (candidates.length >= count) {
+                break;
+            }
+            if (candidates.length == planets.length) {
+                break;
+            }
+            radius *= 2.0;
+        }
+        return Arrays.stream(candidates).boxed()
+                .sorted(Comparator.comparingDouble(i -> getDistanceSquared(i, x, y)))
+                .limit(count).mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Calls the visitor with the number of every planet in the cells touching the given rectangle.
+     */
+    private void visitCells(double minX, double minY, double maxX, double maxY, IntConsumer visitor) {
+        int minCellX = getCell(minX);
+        int minCellY = getCell(minY);
+        int maxCellX = getCell(maxX);
+        int maxCellY = getCell(maxY);
+        if (((long) maxCellX - minCellX + 1) * ((long) maxCellY - minCellY + 1) > cellKeys.length) {
+            // Touches more cells than there are with planets in them, so just go through those
+            for (int cell = 0; cell < cellKeys.length; cell++) {
+                int cellX = (int) (cellKeys[cell] >> 32);
+                int cellY = (int) cellKeys[cell];
+                if ((cellX >= minCellX) && (cellX <= maxCellX) && (cellY >= minCellY) && (cellY <= maxCellY)) {
+                    visitCell(cell, visitor);
+                }
+            }
+            return;
+        }
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+                int cell = Arrays.binarySearch(cellKeys, getCellKey(cellX, cellY));
+                if (cell >= 0) {
+                    visitCell(cell, visitor);
+                }
+            }
+        }
+    }
+
+    private void visitCell(int cell, IntConsumer visitor) {
+        for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+            visitor.accept(i);
+        }
+    }
+
+    private static int getCell(double coordinate) {
+        return (int) Math.floor(coordinate / CELL_SIZE);
+    }
+
+    private static long getCellKey(int cellX, int cellY) {
+        return (((long) cellX) << 32) | (cellY & 0xFFFFFFFFL);
+    }
+}
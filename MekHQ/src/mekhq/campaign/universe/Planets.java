@@ -19,6 +19,7 @@
 package mekhq.campaign.universe;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilterInputStream;
@@ -29,21 +30,23 @@ import java.io.OutputStream;
 import java.io.Writer;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.ResourceBundle;
-import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
@@ -54,10 +57,10 @@ import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlTransient;
 
 import org.joda.time.DateTime;
+import org.joda.time.DateTimeComparator;
 import org.w3c.dom.DOMException;
 import org.w3c.dom.Node;
 
-import megamek.common.EquipmentType;
 import megamek.common.logging.LogLevel;
 import megamek.common.util.EncodeControl;
 import mekhq.MekHQ;
@@ -121,13 +124,22 @@ public class Planets {
     }
 
     private ConcurrentMap<String, Planet> planetList = new ConcurrentHashMap<>();
-    /* organizes systems into a grid of 30lyx30ly squares so we can find
-     * nearby systems without iterating through the entire planet list. */
-    private HashMap<Integer, Map<Integer, Set<Planet>>> planetGrid = new HashMap<>();
+    /* organizes systems by position so we can find nearby systems without
+     * iterating through the entire planet list. Built on first use, and again after
+     * planetsChanged() while still loading */
+    private volatile PlanetSpatialIndex spatialIndex = null;
     
     // HPG Network cache (to not recalculate all the damn time)
-    private Collection<Planets.HPGLink> hpgNetworkCache = null;
-    private DateTime hpgNetworkCacheDate = null;
+    private volatile HPGNetwork hpgNetwork = null;
+
+    // Jump connections, built on first use like the spatial index
+    private volatile JumpGraph jumpGraph = null;
+    // Current and historical planet names, built on first use like the spatial index
+    private volatile PlanetNameIndex nameIndex = null;
+    // The planets with a news message on each date, built on first use like the spatial index
+    private volatile NavigableMap<DateTime, List<Planet>> newsIndex = null;
+    // The planets to shop on around the last location asked for
+    private ShoppingPlanets shoppingPlanets = null;
     
     private Thread loader;
     private boolean initialized = false;
@@ -135,43 +147,31 @@ public class Planets {
     
     private Planets() {}
 
-    private Set<Planet> getPlanetGrid(int x, int y) {
-        if( !planetGrid.containsKey(x) ) {
-            return null;
+    private synchronized PlanetSpatialIndex getSpatialIndex() {
+        if (null == spatialIndex) {
+            spatialIndex = new PlanetSpatialIndex(planetList.values());
         }
-        return planetGrid.get(x).get(y);
+        return spatialIndex;
     }
-    
-    public List<Planet> getNearbyPlanets(final double centerX, final double centerY, int distance) {
-        List<Planet> neighbors = new ArrayList<>();
-
-        visitNearbyPlanets(centerX, centerY, distance, neighbors::add);
 
-        Collections.sort(neighbors, new Comparator<Planet>() {
-            @Override
-            public int compare(Planet o1, Planet o2) {
-                return Double.compare(o1.getDistanceTo(centerX, centerY), o2.getDistanceTo(centerX, centerY));
-            }
-        });
-        return neighbors;
+    /** @return the planets at most the given distance away from a point, closest first */
+    public List<Planet> getNearbyPlanets(final double centerX, final double centerY, int distance) {
+        final PlanetSpatialIndex index = getSpatialIndex();
+        int[] found = index.findWithin(centerX, centerY, distance);
+        // Work out every distance once instead of again for each comparison
+        double[] distances = new double[found.length];
+        for (int i = 0; i < found.length; i++) {
+            distances[i] = index.getDistance(found[i], centerX, centerY);
+        }
+        return IntStream.range(0, found.length).boxed()
+                .sorted(Comparator.comparingDouble(i -> distances[i]))
+                .map(i -> index.getPlanet(found[i]))
+                .collect(Collectors.toList());
     }
 
     public void visitNearbyPlanets(final double centerX, final double centerY, final int distance, Consumer<Planet> visitor) {
-        int gridRadius = (int)Math.ceil(distance / 30.0);
-        int gridX = (int)(centerX / 30.0);
-        int gridY = (int)(centerY / 30.0);
-        for (int x = gridX - gridRadius; x <= gridX + gridRadius; x++) {
-            for (int y = gridY - gridRadius; y <= gridY + gridRadius; y++) {
-                Set<Planet> grid = getPlanetGrid(x, y);
-                if (null != grid) {
-                    for (Planet p : grid) {
-                        if (p.getDistanceTo(centerX, centerY) <= distance) {
-                            visitor.accept(p);
-                        }
-                    }
-                }
-            }
-        }
+        final PlanetSpatialIndex index = getSpatialIndex();
+        index.visitWithin(centerX, centerY, distance, i -> visitor.accept(index.getPlanet(i)));
     }
          
     public List<Planet> getNearbyPlanets(final Planet planet, int distance) {
@@ -181,53 +181,76 @@ public class Planets {
     public void visitNearbyPlanets(final Planet planet, final int distance, Consumer<Planet> visitor) {
         visitNearbyPlanets(planet.getX(), planet.getY(), distance, visitor);
     }
+
+    /** @return the (up to) <code>count</code> planets closest to a point, closest first */
+    public List<Planet> getNearestPlanets(final double x, final double y, int count) {
+        final PlanetSpatialIndex index = getSpatialIndex();
+        return Arrays.stream(index.findNearest(x, y, count)).mapToObj(index::getPlanet)
+                .collect(Collectors.toList());
+    }
+
+    /** Visits all planets inside a rectangle, borders included */
+    public void visitPlanetsInRectangle(double minX, double minY, double maxX, double maxY, Consumer<Planet> visitor) {
+        final PlanetSpatialIndex index = getSpatialIndex();
+        index.visitRectangle(minX, minY, maxX, maxY, i -> visitor.accept(index.getPlanet(i)));
+    }
     
     /**
      * Get a list of planets within a certain jump radius (30ly per jump) that 
-     * you can shop on, sorted by number of jumps and in system transit time
+     * you can shop on, sorted by number of jumps and in system transit time.
+     * <p>
+     * The planets around the last focal planet asked for are kept in that order, and the
+     * list of the ones you can shop on is kept for the last date asked for, so shopping for
+     * several items in a row only works them out once.
      * @param planet
      * @param jumps
-     * @return a list of planets where you can go shopping
+     * @return a list of planets where you can go shopping. The list can't be changed.
      */
     public List<Planet> getShoppingPlanets(final Planet planet, int jumps, DateTime when) {
-    	
-    	List<Planet> shoppingPlanets = getNearbyPlanets(planet, jumps*30);
-    	
-    	//remove dead planets
-    	Iterator<Planet> iter = shoppingPlanets.iterator();
-    	while (iter.hasNext()) {
-    	  Planet p = iter.next();
-    	  if (p.isEmpty(when)) {
-    		  iter.remove();
-    	  }
-    	}
-    	
-    	Collections.sort(shoppingPlanets, new Comparator<Planet>() {
-            @Override
-            public int compare(final Planet p1, final Planet p2) {
-            	
-            	//sort first on number of jumps required
-            	int jump1 = (int)Math.ceil(p1.getDistanceTo(planet)/30.0);
-            	int jump2 = (int)Math.ceil(p2.getDistanceTo(planet)/30.0);
-            	int sComp = Integer.compare(jump1, jump2);
-
-                if (sComp != 0) {
-                   return sComp;
-                } 
-                
-                //if number of jumps the same then sort on in system transit time
-                return Double.compare(p1.getTimeToJumpPoint(1.0), p2.getTimeToJumpPoint(1.0));
-                
+        ShoppingPlanets shopping;
+        synchronized (this) {
+            shopping = shoppingPlanets;
+            if ((null == shopping) || !shopping.isAround(planet, jumps)) {
+                shopping = new ShoppingPlanets(planet, jumps, rankShoppingPlanets(planet, jumps));
+                shoppingPlanets = shopping;
             }
-        });
-    	
-    	return shoppingPlanets;
-    	
+        }
+        return shopping.getAvailable(when);
+    }
+
+    /**
+     * @return the planets within the given number of jumps of a focal planet, sorted by number
+     *         of jumps and in system transit time
+     */
+    private List<Planet> rankShoppingPlanets(final Planet planet, int jumps) {
+        List<Planet> nearby = getNearbyPlanets(planet, jumps * 30);
+        // Work out the jumps and transit times once instead of again for each comparison
+        int[] jumpCounts = new int[nearby.size()];
+        double[] transitTimes = new double[nearby.size()];
+        for (int i = 0; i < nearby.size(); i++) {
+            jumpCounts[i] = (int) Math.ceil(nearby.get(i).getDistanceTo(planet) / 30.0);
+            transitTimes[i] = nearby.get(i).getTimeToJumpPoint(1.0);
+        }
+        return IntStream.range(0, nearby.size()).boxed()
+                .sorted(Comparator.<Integer>comparingInt(i -> jumpCounts[i])
+                        .thenComparingDouble(i -> transitTimes[i]))
+                .map(nearby::get)
+                .collect(Collectors.toList());
     }
 
     public ConcurrentMap<String, Planet> getPlanets() {
         return planetList;
     }
+
+    /**
+     * @return the jump connections between all known planets
+     */
+    public synchronized JumpGraph getJumpGraph() {
+        if (null == jumpGraph) {
+            jumpGraph = new JumpGraph(getSpatialIndex());
+        }
+        return jumpGraph;
+    }
     
     public Planet getPlanetById(String id) {
         return( null != id ? planetList.get(id) : null);
@@ -238,68 +261,67 @@ public class Planets {
         if(null == name) {
             return null;
         }
-        name = name.toLowerCase(Locale.ROOT);
-        for(Planet planet : planetList.values()) {
-            if(null != planet) {
-                String planetName = planet.getName(when);
-                if((null != planetName) && planetName.toLowerCase(Locale.ROOT).equals(name)) {
-                    return planet;
-                }
-                planetName = planet.getShortName(when);
-                if((null != planetName) && planetName.toLowerCase(Locale.ROOT).equals(name)) {
-                    return planet;
-                }
-            }
+        return getNameIndex().getPlanetByName(name, when);
+    }
+
+    private synchronized PlanetNameIndex getNameIndex() {
+        if (null == nameIndex) {
+            nameIndex = new PlanetNameIndex(planetList.values());
         }
-        return null;
+        return nameIndex;
     }
 
     public List<NewsItem> getPlanetaryNews(DateTime when) {
         List<NewsItem> news = new ArrayList<>();
-        for(Planet planet : planetList.values()) {
-            if(null != planet) {
-                Planet.PlanetaryEvent event = planet.getEvent(when);
-                if((null != event) && (null != event.message)) {
-                    NewsItem item = new NewsItem();
-                    item.setHeadline(event.message);
-                    item.setDate(event.date);
-                    item.setLocation(planet.getPrintableName(when));
-                    news.add(item);
-                }
+        for(Planet planet : getNewsIndex().getOrDefault(when, Collections.emptyList())) {
+            Planet.PlanetaryEvent event = planet.getEvent(when);
+            if((null != event) && (null != event.message)) {
+                NewsItem item = new NewsItem();
+                item.setHeadline(event.message);
+                item.setDate(event.date);
+                item.setLocation(planet.getPrintableName(when));
+                news.add(item);
             }
         }
         return news;
     }
     
+    private synchronized NavigableMap<DateTime, List<Planet>> getNewsIndex() {
+        if (null == newsIndex) {
+            newsIndex = buildNewsIndex();
+        }
+        return newsIndex;
+    }
+    
+    private NavigableMap<DateTime, List<Planet>> buildNewsIndex() {
+        NavigableMap<DateTime, List<Planet>> index = new TreeMap<>(DateTimeComparator.getDateOnlyInstance());
+        for (Planet planet : planetList.values()) {
+            List<Planet.PlanetaryEvent> events = planet.getEvents();
+            if (null != events) {
+                for (Planet.PlanetaryEvent event : events) {
+                    if ((null != event.date) && (null != event.message)) {
+                        index.computeIfAbsent(event.date, d -> new ArrayList<>()).add(planet);
+                    }
+                }
+            }
+        }
+        return index;
+    }
+    
     /** Clean up the local HPG network cache */
     public void recalcHPGNetwork() {
-        hpgNetworkCacheDate = null;
+        hpgNetwork = null;
     }
     
     public Collection<Planets.HPGLink> getHPGNetwork(DateTime when) {
-        if((null != when) && when.equals(hpgNetworkCacheDate)) {
-            return hpgNetworkCache;
-        }
-        
-        Set<HPGLink> result = new HashSet<>();
-        for(Planet planet : planetList.values()) {
-            Integer hpg = planet.getHPG(when);
-            if((null != hpg) && (hpg.intValue() == EquipmentType.RATING_A)) {
-                Collection<Planet> neighbors = getNearbyPlanets(planet, 50);
-                for(Planet neighbor : neighbors) {
-                    hpg = neighbor.getHPG(when);
-                    if(null != hpg) {
-                        HPGLink link = new HPGLink(planet, neighbor, hpg.intValue());
-                        if(!result.contains(link)) {
-                            result.add(link);
-                        }
-                    }
-                }
+        HPGNetwork network;
+        synchronized (this) {
+            if (null == hpgNetwork) {
+                hpgNetwork = new HPGNetwork(getSpatialIndex());
             }
+            network = hpgNetwork;
         }
-        hpgNetworkCache = result;
-        hpgNetworkCacheDate = when;
-        return result;
+        return network.getLinks(when);
     }
     
     // Customisation and export helper methods
@@ -326,6 +348,17 @@ public class Planets {
                     }
                 }
             }
+            planet.invalidateEvents();
+            if (null != jumpGraph) {
+                jumpGraph.clearRechargeTimes();
+            }
+            // Names, HPG ratings, news and owners might have changed
+            nameIndex = null;
+            hpgNetwork = null;
+            newsIndex = null;
+            synchronized (this) {
+                shoppingPlanets = null;
+            }
         }
         return true;
     }
@@ -437,6 +470,7 @@ public class Planets {
         } catch(IOException e) {
             MekHQ.getLogger().error(getClass(), METHOD_NAME, e);
         }
+        planetsChanged();
     }
     
     private void generatePlanets() throws DOMException, ParseException {
@@ -682,18 +716,21 @@ public class Planets {
      */
     private void addPlanet(Planet planet) { 
         this.planetList.put(planet.getId(), planet);
-        
-        int x = (int)(planet.getX()/30.0);
-        int y = (int)(planet.getY()/30.0);
-        if (planetGrid.get(x) == null) {
-            planetGrid.put(x, new HashMap<Integer, Set<Planet>>());
-        }
-        if (planetGrid.get(x).get(y) == null) {
-            planetGrid.get(x).put(y, new HashSet<Planet>());
-        }
-        if( !planetGrid.get(x).get(y).contains(planet) ) {
-            planetGrid.get(x).get(y).add(planet);
-        }
+        planetsChanged();
+    }
+
+    /**
+     * Drops everything worked out from the planets, after planets were added, removed or merged.
+     * While loading, the planets found so far are indexed on request, and those indexes are kept
+     * until the next batch of planets changes them.
+     */
+    private synchronized void planetsChanged() {
+        spatialIndex = null;
+        jumpGraph = null;
+        nameIndex = null;
+        hpgNetwork = null;
+        newsIndex = null;
+        shoppingPlanets = null;
     }
     
     public String exportPlanets(String path, String format) {
@@ -727,63 +764,63 @@ public class Planets {
         MekHQ.getLogger().log(getClass(), METHOD_NAME, LogLevel.INFO,
                 "Starting load of planetary data from XML..."); //$NON-NLS-1$
         long currentTime = System.currentTimeMillis();
+        PlanetsCache cache = new PlanetsCache(new File(PlanetsCache.CACHE_FILE),
+                PlanetsCache.findSourceFiles(defaultFilePath, planetsPath));
+        boolean fromCache = false;
         synchronized (LOADING_LOCK) {
             // Step 1: Initialize variables.
             if( null == planetList ) {
                 planetList = new ConcurrentHashMap<>();
             }
             planetList.clear();
-            if( null == planetGrid ) {
-                planetGrid = new HashMap<>();
-            }
-            // Be nice to the garbage collector
-            for( Map.Entry<Integer, Map<Integer, Set<Planet>>> planetGridColumn : planetGrid.entrySet() ) {
-                for( Map.Entry<Integer, Set<Planet>> planetGridElement : planetGridColumn.getValue().entrySet() ) {
-                    if( null != planetGridElement.getValue() ) {
-                        planetGridElement.getValue().clear();
-                    }
-                }
-                if( null != planetGridColumn.getValue() ) {
-                    planetGridColumn.getValue().clear();
-                }
-            }
-            planetGrid.clear();
+            planetsChanged();
             
-            // Step 2: Read the default file
-            try(FileInputStream fis = new FileInputStream(defaultFilePath)) { //$NON-NLS-1$
-                updatePlanets(fis);
-            } catch (Exception ex) {
-                MekHQ.getLogger().error(getClass(), METHOD_NAME, ex);
-            }
-            
-            // Step 3: Load all the xml files within the planets subdirectory, if it exists
-            Utilities.parseXMLFiles(planetsPath, this::updatePlanets);
-            
-            List<Planet> toRemove = new ArrayList<>();
-            for (Planet planet : planetList.values()) {
-                if((null == planet.getX()) || (null == planet.getY())) {
-                    MekHQ.getLogger().log(getClass(), METHOD_NAME, LogLevel.ERROR,
-                            String.format("Planet \"%s\" is missing coordinates", planet.getId())); //$NON-NLS-1$
-                    toRemove.add(planet);
-                    continue;
+            // Step 2: Use the cached planets if none of the files changed since it was made
+            List<Planet> cachedPlanets = cache.load();
+            if (null != cachedPlanets) {
+                for (Planet planet : cachedPlanets) {
+                    planetList.put(planet.getId(), planet);
                 }
-                int x = (int)(planet.getX()/30.0);
-                int y = (int)(planet.getY()/30.0);
-                if (planetGrid.get(x) == null) {
-                    planetGrid.put(x, new HashMap<Integer, Set<Planet>>());
+                planetsChanged();
+                fromCache = true;
+            } else {
+                // Step 3: Read the default file
+                try(FileInputStream fis = new FileInputStream(defaultFilePath)) { //$NON-NLS-1$
+                    updatePlanets(fis);
+                } catch (Exception ex) {
+                    MekHQ.getLogger().error(getClass(), METHOD_NAME, ex);
                 }
-                if (planetGrid.get(x).get(y) == null) {
-                    planetGrid.get(x).put(y, new HashSet<Planet>());
+                
+                // Step 4: Load all the xml files within the planets subdirectory, if it exists
+                Utilities.parseXMLFiles(planetsPath, this::updatePlanets);
+                
+                List<Planet> toRemove = new ArrayList<>();
+                for (Planet planet : planetList.values()) {
+                    if((null == planet.getX()) || (null == planet.getY())) {
+                        MekHQ.getLogger().log(getClass(), METHOD_NAME, LogLevel.ERROR,
+                                String.format("Planet \"%s\" is missing coordinates", planet.getId())); //$NON-NLS-1$
+                        toRemove.add(planet);
+                    }
                 }
-                if( !planetGrid.get(x).get(y).contains(planet) ) {
-                    planetGrid.get(x).get(y).add(planet);
+                for(Planet planet : toRemove) {
+                    planetList.remove(planet.getId());
                 }
-            }
-            for(Planet planet : toRemove) {
-                planetList.remove(planet.getId());
+                planetsChanged();
+                
+                // Step 5: Write the cache before anything can change the planets
+                cache.save(planetList.values(), System.currentTimeMillis() - currentTime);
             }
             done();
         }
+        if (fromCache) {
+            MekHQ.getLogger().log(getClass(), METHOD_NAME, LogLevel.INFO,
+                    String.format(Locale.ROOT,
+                            "Loaded a total of %d planets from the cache in %.3fs (%.3fs from XML).", //$NON-NLS-1$
+                            planetList.size(), (System.currentTimeMillis() - currentTime) / 1000.0,
+                            cache.getXmlLoadTime() / 1000.0));
+            // The sanity check was already done when the cache was made
+            return;
+        }
         MekHQ.getLogger().log(getClass(), METHOD_NAME, LogLevel.INFO,
                 String.format(Locale.ROOT,
                         "Loaded a total of %d planets in %.3fs.", //$NON-NLS-1$
@@ -804,6 +841,36 @@ public class Planets {
         }
     }
     
+    /** The planets around a focal planet, in the order they are shopped on */
+    private static final class ShoppingPlanets {
+        private final String centerId;
+        private final int jumps;
+        private final List<Planet> ranked;
+
+        private DateTime date;
+        private List<Planet> available;
+
+        private ShoppingPlanets(Planet center, int jumps, List<Planet> ranked) {
+            this.centerId = center.getId();
+            this.jumps = jumps;
+            this.ranked = ranked;
+        }
+
+        private boolean isAround(Planet center, int jumps) {
+            return centerId.equals(center.getId()) && (this.jumps == jumps);
+        }
+
+        /** @return the planets that can be shopped on at the given date, leaving out dead planets */
+        private synchronized List<Planet> getAvailable(DateTime when) {
+            if ((null == date) || (DateTimeComparator.getDateOnlyInstance().compare(date, when) != 0)) {
+                available = Collections.unmodifiableList(ranked.stream()
+                        .filter(p -> !p.isEmpty(when)).collect(Collectors.toList()));
+                date = when;
+            }
+            return available;
+        }
+    }
+
     @XmlRootElement(name="planets")
     private static final class LocalPlanetList {
         @XmlElement(name="planet")
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2020 - The MegaMek Team
+ *
+ * This file is part of MekHQ.
+ *
+ * MekHQ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MekHQ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MekHQ.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mekhq.campaign.universe;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+
+import megamek.common.logging.LogLevel;
+import mekhq.MekHQ;
+
+/**
+ * Keeps the planets as they are after loading and merging all the planet XML files in a single
+ * binary file, which can be read back much faster than parsing the XML again.
+ * <p>
+ * The cache records the size and modification time of every file it was made from, and is only
+ * used while all of them are unchanged and it was made by the same version of MekHQ, as a new
+ * version might change the planet classes. It also records how long loading the XML took, so the
+ * two ways of loading can be compared in the log.
+ */
+class PlanetsCache {
+    static final String CACHE_FILE = "data/universe/planets.cache"; //$NON-NLS-1$
+
+    /** Change this whenever the layout of the cache file changes */
+    private static final int CACHE_VERSION = 2;
+    /** The version of MekHQ, which decides the stored form of the planets */
+    private static final String APP_VERSION = getAppVersion();
+
+    private final File cacheFile;
+    private final List<File> sources;
+    private long xmlLoadTime = -1;
+
+    /**
+     * @param cacheFile The file to keep the cache in
+     * @param sources   All the files the planets are loaded from
+     */
+    PlanetsCache(File cacheFile, List<File> sources) {
+        this.cacheFile = cacheFile;
+        this.sources = sources;
+    }
+
+    /**
+     * @return the default planet file followed by the XML files in the planets directory, in the
+     *         order they are loaded
+     */
+    static List<File> findSourceFiles(String defaultFilePath, String planetsPath) {
+        List<File> result = new ArrayList<>();
+        result.add(new File(defaultFilePath));
+        File[] files = new File(planetsPath).listFiles(
+                (dir, name) -> name.toLowerCase(Locale.ROOT).endsWith(".xml")); //$NON-NLS-1$
+        if (null != files) {
+            Arrays.sort(files, (f1, f2) -> f1.getPath().compareTo(f2.getPath()));
+            result.addAll(Arrays.asList(files));
+        }
+        return result;
+    }
+
+    /**
+     * @return The time loading the planets from XML took when the cache was made, in milliseconds,
+     *         or -1 if the cache has not been loaded
+     */
+    long getXmlLoadTime() {
+        return xmlLoadTime;
+    }
+
+    /**
+     * Reads the planets from the cache.
+     *
+     * @return The cached planets, or null if there is no cache or it is out of date or can't be read
+     */
+    @SuppressWarnings("unchecked")
+    List<Planet> load() {
+        final String METHOD_NAME = "load()"; //$NON-NLS-1$
+
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+        try (ObjectInputStream in = new ObjectInputStream(
+                new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            if ((in.readInt() != CACHE_VERSION) || !in.readUTF().equals(APP_VERSION)) {
+                MekHQ.getLogger().log(getClass(), METHOD_NAME, LogLevel.INFO,
+                        "Planet cache was made by a different version"); //$NON-NLS-1$
+                return null;
+            }
+            if (in.readInt() != sources.size()) {
+                MekHQ.getLogger().log(getClass(), METHOD_NAME, LogLevel.INFO,
+                        "Planet files were added or removed since the planet cache was made"); //$NON-NLS-1$
+                return null;
+            }
+            for (File source : sources) {
+                String path = in.readUTF();
+                long length = in.readLong();
+                long lastModified = in.readLong();
+                if (!path.equals(source.getPath()) || (length != getLength(source))
+                        || (lastModified != source.lastModified())) {
+                    MekHQ.getLogger().log(getClass(), METHOD_NAME, LogLevel.INFO,
+                            "Planet file " + source.getPath() + " changed since the planet cache was made"); //$NON-NLS-1$ //$NON-NLS-2$
+                    return null;
+                }
+            }
+            long loadTime = in.readLong();
+            List<Planet> planets = (List<Planet>) in.readObject();
+            xmlLoadTime = loadTime;
+            return planets;
+        } catch (Exception ex) {
+            MekHQ.getLogger().error(getClass(), METHOD_NAME, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the planets to the cache, replacing the old one. The file is only replaced once the
+     * new one was written completely.
+     *
+     * @param planets     The planets as loaded from the source files
+     * @param xmlLoadTime How long loading them took, in milliseconds
+     */
+    void save(Collection<Planet> planets, long xmlLoadTime) {
+        final String METHOD_NAME = "save(Collection<Planet>,long)"; //$NON-NLS-1$
+
+        File tempFile = new File(cacheFile.getPath() + ".tmp"); //$NON-NLS-1$
+        try {
+            try (ObjectOutputStream out = new ObjectOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeInt(CACHE_VERSION);
+                out.writeUTF(APP_VERSION);
+                out.writeInt(sources.size());
+                for (File source : sources) {
+                    out.writeUTF(source.getPath());
+                    out.writeLong(getLength(source));
+                    out.writeLong(source.lastModified());
+                }
+                out.writeLong(xmlLoadTime);
+                out.writeObject(new ArrayList<>(planets));
+            }
+            Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (Exception ex) {
+            MekHQ.getLogger().error(getClass(), METHOD_NAME, ex);
+            tempFile.delete();
+        }
+    }
+
+    private static String getAppVersion() {
+        try {
+            return ResourceBundle.getBundle("mekhq.resources.MekHQ").getString("Application.version"); //$NON-NLS-1$ //$NON-NLS-2$
+        } catch (MissingResourceException ex) {
+            return ""; //$NON-NLS-1$
+        }
+    }
+
+    private static long getLength(File file) {
+        return file.isFile() ? file.length() : -1;
+    }
+}
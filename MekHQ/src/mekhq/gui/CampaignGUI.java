@@ -33,7 +33,6 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.lang.reflect.Method;
@@ -45,7 +44,6 @@ import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.UUID;
 import java.util.Vector;
-import java.util.zip.GZIPOutputStream;
 
 import javax.swing.*;
 import javax.swing.UIManager.LookAndFeelInfo;
@@ -97,6 +95,7 @@ import mekhq.campaign.event.ReportEvent;
 import mekhq.campaign.event.TransactionEvent;
 import mekhq.campaign.event.UnitEvent;
 import mekhq.campaign.force.Force;
+import mekhq.campaign.io.CampaignXmlWriter;
 import mekhq.campaign.mission.AtBContract;
 import mekhq.campaign.mission.AtBScenario;
 import mekhq.campaign.mission.Mission;
@@ -1589,21 +1588,8 @@ public class CampaignGUI extends JPanel {
         }
 
         // Then save it out to that file.
-        FileOutputStream fos = null;
-        OutputStream os = null;
-        PrintWriter pw = null;
-
         try {
-            os = fos = new FileOutputStream(file);
-            if (path.endsWith(".gz")) {
-                os = new GZIPOutputStream(fos);
-            }
-
-            pw = new PrintWriter(new OutputStreamWriter(os, "UTF-8"));
-            campaign.writeToXml(pw);
-            pw.flush();
-            pw.close();
-            fos.close();
+            new CampaignXmlWriter(campaign).write(file);
             // delete the backup file because we didn't need it
             if (backupFile.exists()) {
                 backupFile.delete();
@@ -1731,7 +1717,6 @@ public class CampaignGUI extends JPanel {
             getCampaign().updateTechFactionCode();
         }
         refreshCalendar();
-        getCampaign().reloadNews();
     }// GEN-LAST:event_menuOptionsActionPerformed
 
     private void menuOptionsMMActionPerformed(java.awt.event.ActionEvent evt) {// GEN-FIRST:event_menuOptionsActionPerformed
@@ -2695,7 +2680,6 @@ public class CampaignGUI extends JPanel {
         }
 
         refreshCalendar();
-        getCampaign().reloadNews();
     }
 
     private void savePartsFile() throws IOException {
@@ -2931,14 +2915,17 @@ public class CampaignGUI extends JPanel {
         ratingScheduler.schedule();
     }
     
+    private ActionScheduler tempAstechsScheduler = new ActionScheduler(this::refreshTempAstechs);
+    private ActionScheduler tempMedicsScheduler = new ActionScheduler(this::refreshTempMedics);
+
     @Subscribe
     public void handle(AstechPoolChangedEvent ev) {
-        refreshTempAstechs();
+        tempAstechsScheduler.schedule();
     }
     
     @Subscribe
     public void handle(MedicPoolChangedEvent ev) {
-        refreshTempMedics();
+        tempMedicsScheduler.schedule();
     }
 
     public void refreshLocation() {
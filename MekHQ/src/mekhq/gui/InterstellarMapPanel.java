@@ -48,10 +48,14 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
@@ -71,6 +75,7 @@ import javax.swing.JMenuItem;
 import javax.swing.JPanel;
 import javax.swing.JPopupMenu;
 import javax.swing.JRadioButton;
+import javax.swing.JToggleButton;
 import javax.swing.JViewport;
 import javax.swing.Timer;
 import javax.vecmath.Vector2d;
@@ -106,6 +111,17 @@ public class InterstellarMapPanel extends JPanel {
         new Vector2d(Math.cos(5.0 * Math.PI / 3.0), Math.sin(5.0 * Math.PI / 3.0))
     };
 
+    /** Width and height of a cached map tile, in pixels */
+    private static final int TILE_SIZE = 256;
+    /** The most tiles kept at a time, over all zoom levels */
+    private static final int MAX_TILES = 128;
+
+    private static final Stroke THICK = new BasicStroke(2.0f);
+    private static final Stroke THIN = new BasicStroke(1.2f);
+    private static final Stroke DASHED = new BasicStroke(1.5f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, new float[]{3}, 0);
+    private static final Stroke DOTTED = new BasicStroke(1.5f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, new float[]{2, 5}, 0);
+    private static final Color DARK_CYAN = new Color(0, 100, 50);
+
     private JLayeredPane pane;
     private JPanel mapPanel;
     private JViewport optionView;
@@ -127,7 +143,6 @@ public class InterstellarMapPanel extends JPanel {
     private Timer optionPanelTimer;
     private boolean optionPanelHidden;
     
-    private ArrayList<Planet> planets;
     private JumpPath jumpPath;
     private Campaign campaign;
     private InnerStellarMapConfig conf = new InnerStellarMapConfig();
@@ -142,9 +157,22 @@ public class InterstellarMapPanel extends JPanel {
     private transient double maxY;
     private transient DateTime now;
 
+    // The ISW areas, HPG network and planets only change with the date and the display options, so
+    // they are drawn into tiles at each zoom level and kept until one of those changes.
+    private transient Map<MapTileKey, BufferedImage> tiles = new LinkedHashMap<MapTileKey, BufferedImage>(16, 0.75f, true) {
+        private static final long serialVersionUID = 4526317052466862461L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<MapTileKey, BufferedImage> eldest) {
+            return size() > MAX_TILES;
+        }
+    };
+    private transient Map<Long, Set<Faction>> hexFactions = new HashMap<>();
+    private transient DateTime tilesDate;
+    private transient int tilesOptions;
+
     public InterstellarMapPanel(Campaign c, CampaignGUI view) {
         campaign = c;
-        planets = campaign.getPlanets();
         hqview = view;
         jumpPath = new JumpPath();
         optionPanelHidden = true;
@@ -451,20 +479,22 @@ public class InterstellarMapPanel extends JPanel {
                 g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
                 g2.setColor(Color.BLACK);
                 g2.fillRect(0, 0, getWidth(), getHeight());
-                double size = 1 + 5 * Math.log(conf.scale);
-                size = Math.max(Math.min(size, conf.maxdotSize), conf.minDotSize);
-                
-                final Stroke thick = new BasicStroke(2.0f);
-                final Stroke thin = new BasicStroke(1.2f);
-                final Stroke dashed = new BasicStroke(1.5f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, new float[]{3}, 0);
-                final Stroke dotted = new BasicStroke(1.5f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, new float[]{2, 5}, 0);
-                final Color darkCyan = new Color(0, 100, 50);
+                final double size = getDotSize();
 
                 minX = scr2mapX(- size * 2.0);
                 minY = scr2mapY(getHeight() + size * 2.0);
                 maxX = scr2mapX(getWidth() + size * 2.0);
                 maxY = scr2mapY(- size * 2.0);
                 now = Utilities.getDateTimeDay(campaign.getCalendar());
+
+                // Only look at the planets in view, plus the ones always shown
+                final List<Planet> planets = new ArrayList<>();
+                Planets.getInstance().visitPlanetsInRectangle(minX, minY, maxX, maxY, planets::add);
+                for(Planet planet : Arrays.asList(campaign.getCurrentPlanet(), selectedPlanet)) {
+                    if((null != planet) && !planets.contains(planet)) {
+                        planets.add(planet);
+                    }
+                }
                 
                 Arc2D.Double arc = new Arc2D.Double();
                 //first get the jump diameter for selected planet
@@ -479,88 +509,14 @@ public class InterstellarMapPanel extends JPanel {
                     if(optHPGNetwork.isSelected()) {
                         z = map2scrX(selectedPlanet.getX() + 50);
                         jumpRadius = (z - x);
-                        g2.setPaint(darkCyan);
-                        g2.setStroke(dotted);
+                        g2.setPaint(DARK_CYAN);
+                        g2.setStroke(DOTTED);
                         arc.setArcByCenter(x, y, jumpRadius, 0, 360, Arc2D.OPEN);
                         g2.draw(arc);
                     }
                 }
                 
-                if((conf.scale > 1.0) && optISWAreas.isSelected()) {
-                    // IDEA: Allow for different hex sizes later on.
-                    final double HEX_SIZE = 30.0;
-                    final double SPACING_X = HEX_SIZE * Math.sqrt(3) / 2.0;
-                    AffineTransform transform = getMap2ScrTransform();
-                    int minX = (int) Math.floor(scr2mapX(0.0) / SPACING_X);
-                    int maxX = (int) Math.ceil(scr2mapX(getWidth()) / SPACING_X);
-                    int minY = (int) Math.floor(scr2mapY(getHeight()) / HEX_SIZE);
-                    int maxY = (int) Math.ceil(scr2mapY(0.0) / HEX_SIZE);
-                    GeneralPath path = new GeneralPath();
-                    for(int x = minX; x <= maxX; ++ x) {
-                        for(int y = minY; y <= maxY; ++ y) {
-                            double coordX = x * SPACING_X;
-                            double coordY = y * HEX_SIZE + (x % 2) * HEX_SIZE / 2.0;
-                            setupHexPath(path, coordX, coordY, HEX_SIZE / 2.0);
-
-                            Paint factionPaint = new Color(0.0f, 0.0f, 0.0f, 0.25f);
-                            Paint linePaint = new Color(1.0f, 1.0f, 1.0f, 0.25f);
-                            Set<Faction> hexFactions = new HashSet<>();
-                            for(Planet planet : Planets.getInstance().getNearbyPlanets(coordX, coordY, (int) Math.round(HEX_SIZE * 1.3))) {
-                                if(!isPlanetEmpty(planet) && path.contains(planet.getX(), planet.getY())) {
-                                    hexFactions.addAll(planet.getFactionSet(now));
-                                }
-                            }
-                            
-                            path.transform(transform);
-
-                            if(hexFactions.size() == 1) {
-                                // Single-faction hex
-                                Color factionColor = hexFactions.iterator().next().getColor();
-                                float[] colorComponents = new float[4];
-                                factionColor.getComponents(colorComponents);
-                                factionPaint = new Color(colorComponents[0], colorComponents[1], colorComponents[2], 0.25f);
-                                Color lineColor = factionColor.brighter();
-                                lineColor.getComponents(colorComponents);
-                                linePaint = new Color(colorComponents[0], colorComponents[1], colorComponents[2], 0.25f);
-                            } else if(hexFactions.size() > 1) {
-                                // Create the painted stripes data
-                                int factionSize = hexFactions.size();
-                                Iterator<Faction> factionIterator = hexFactions.iterator();
-                                float[] colorComponents = new float[4];
-                                float[] paintFractions = new float[factionSize * 2];
-                                Color[] paintColors = new Color[factionSize * 2];
-                                for(int i = 0; i < factionSize; ++ i) {
-                                    paintFractions[i * 2] = i * (1.0f / factionSize) + 0.001f;
-                                    paintFractions[i * 2 + 1] = (i + 1) * (1.0f / factionSize);
-                                    Color factionColor = factionIterator.next().getColor();
-                                    factionColor.getComponents(colorComponents);
-                                    factionColor = new Color(colorComponents[0], colorComponents[1], colorComponents[2], 0.25f);
-                                    paintColors[i * 2] = factionColor;
-                                    paintColors[i * 2 + 1] = factionColor;
-                                }
-                                paintFractions[0] = 0.0f;
-                                
-                                // Determine where to anchor the stripes
-                                Point2D firstPoint = new Point2D.Double(map2scrX(coordX), map2scrY(coordY));
-                                Point2D secondPoint = new Point2D.Double(
-                                    firstPoint.getX() + 6 * conf.scale,
-                                    firstPoint.getY() + 6 * conf.scale);
-                                factionPaint = new LinearGradientPaint(
-                                    firstPoint, secondPoint, paintFractions, paintColors,
-                                    MultipleGradientPaint.CycleMethod.REPEAT);
-                                linePaint = new Color(1.0f, 0.2f, 0.0f, 0.5f);
-                            }
-                            g2.setPaint(factionPaint);
-                            g2.fill(path);
-                            g2.setPaint(linePaint);
-                            Shape clip = g2.getClip();
-                            g2.clip(path);
-                            g2.setStroke(new BasicStroke(4.0f));
-                            g2.draw(path);
-                            g2.setClip(clip);
-                        }
-                    }
-                }
+                paintTiles(g2, getWidth(), getHeight(), size);
                 
                 //draw a jump path
                 g2.setStroke(new BasicStroke(1.0f));
@@ -588,65 +544,6 @@ public class InterstellarMapPanel extends JPanel {
                     }
                 }
 
-                // Brute-force HPG network drawing. Will be optimised
-                if(optHPGNetwork.isSelected()) {
-                    // Grab the network from the planet manager
-                    Collection<Planets.HPGLink> hpgNetwork = Planets.getInstance().getHPGNetwork(now);
-                    
-                    for(Planet planet : planets) {
-                        if(isPlanetVisible(planet, true)) {
-                            double x = map2scrX(planet.getX());
-                            double y = map2scrY(planet.getY());
-                            int hpgRating = Utilities.nonNull(planet.getHPG(now), EquipmentType.RATING_X);
-                            if(hpgRating == EquipmentType.RATING_A) {
-                                g2.setPaint(Color.CYAN);
-                                arc.setArcByCenter(x, y, size * 1.6, 0, 360, Arc2D.OPEN);
-                                g2.setStroke(thick);
-                                g2.draw(arc);
-                                //g2.fill(arc);
-                                //g2.setPaint(Color.BLACK);
-                                //arc.setArcByCenter(x, y, size * 1.6, 0, 360, Arc2D.OPEN);
-                                //g2.fill(arc);
-                            }
-                            if(hpgRating == EquipmentType.RATING_A || hpgRating == EquipmentType.RATING_B) {
-                                g2.setPaint(Color.CYAN);
-                                arc.setArcByCenter(x, y, size * 1.3, 0, 360, Arc2D.OPEN);
-                                g2.setStroke(thin);
-                                g2.draw(arc);
-                            }
-                            if(hpgRating == EquipmentType.RATING_C) {
-                                g2.setPaint(Color.CYAN);
-                                arc.setArcByCenter(x, y, size * 1.3, 0, 360, Arc2D.OPEN);
-                                g2.setStroke(dashed);
-                                g2.draw(arc);
-                            }
-                            if(hpgRating == EquipmentType.RATING_D) {
-                                g2.setPaint(darkCyan);
-                                arc.setArcByCenter(x, y, size * 1.3, 0, 360, Arc2D.OPEN);
-                                g2.setStroke(dotted);
-                                g2.draw(arc);
-                            }
-                        }
-                    }
-                    for(Planets.HPGLink link : hpgNetwork) {
-                        Planet p1 = link.primary;
-                        Planet p2 = link.secondary;
-                        if(isPlanetVisible(p1, false) || isPlanetVisible(p2, false)) {
-                            if(link.rating == EquipmentType.RATING_A) {
-                                g2.setPaint(Color.CYAN);
-                                g2.setStroke(thick);
-                                g2.draw(new Line2D.Double(map2scrX(p1.getX()), map2scrY(p1.getY()), map2scrX(p2.getX()), map2scrY(p2.getY())));
-                            }
-                            if(link.rating == EquipmentType.RATING_B) {
-                                g2.setPaint(Color.CYAN);
-                                g2.setStroke(dashed);
-                                g2.draw(new Line2D.Double(map2scrX(p1.getX()), map2scrY(p1.getY()), map2scrX(p2.getX()), map2scrY(p2.getY())));
-                            }
-                        }
-                    }
-                    g2.setStroke(new BasicStroke(1.0f));
-                }
-                
                 //check to see if the unit is traveling on a jump path currently and if so
                 //draw this one too, in a different color
                 if(null != campaign.getLocation().getJumpPath()) {
@@ -675,6 +572,12 @@ public class InterstellarMapPanel extends JPanel {
                     }
                 }
 
+                // The planets are already on the tiles, but the ones on a jump path or with rings
+                // around them have to be drawn again on top
+                Set<Planet> highlighted = new HashSet<>(jumpPath.getPlanets());
+                if(null != campaign.getLocation().getJumpPath()) {
+                    highlighted.addAll(campaign.getLocation().getJumpPath().getPlanets());
+                }
                 for(Planet planet : planets) {
                     if(isPlanetVisible(planet, false)) {
                         double x = map2scrX(planet.getX());
@@ -709,29 +612,9 @@ public class InterstellarMapPanel extends JPanel {
                             arc.setArcByCenter(x, y, size * 1.2, 0, 360, Arc2D.OPEN);
                             g2.fill(arc);
                         }
-                        
-                        //if factions are selected then we need to do it differently, because
-                        //of multiple factions per planet
-                        if(isFactionsSelected()) {
-	                        Set<Faction> factions = planet.getFactionSet(now);
-	                        if(null != factions && !isPlanetEmpty(planet)) {
-	                            int i = 0;
-	                            for(Faction faction : factions) {
-	                                g2.setPaint(faction.getColor());
-	                                arc.setArcByCenter(x, y, size, 0, 360.0 * (1-((double)i)/factions.size()), Arc2D.PIE);
-	                                g2.fill(arc);
-	                                ++ i;
-	                            }
-	                        } else {
-	                            // Just a black circle then
-	                            g2.setPaint(new Color(0.0f, 0.0f, 0.0f, 0.5f));
-	                            arc.setArcByCenter(x, y, size, 0, 360.0, Arc2D.PIE);
-	                            g2.fill(arc);
-	                        }
-                        } else {
-	                        g2.setPaint(getPlanetColor(planet));
-	                        arc.setArcByCenter(x, y, size, 0, 360.0, Arc2D.PIE);
-	                        g2.fill(arc);
+                        if(highlighted.contains(planet) || planet.equals(campaign.getCurrentPlanet())
+                                || planet.equals(selectedPlanet)) {
+                            paintPlanetDot(g2, arc, planet, x, y, size);
                         }
                     }
                 }
@@ -833,7 +716,7 @@ public class InterstellarMapPanel extends JPanel {
 
     public void setCampaign(Campaign c) {
         this.campaign = c;
-        this.planets = campaign.getPlanets();
+        clearTiles();
         repaint();
     }
 
@@ -912,6 +795,275 @@ public class InterstellarMapPanel extends JPanel {
         path.closePath();
     }
     
+    /**
+     * @return The radius of a planet dot at the current zoom level, in pixels
+     */
+    private double getDotSize() {
+        double size = 1 + 5 * Math.log(conf.scale);
+        return Math.max(Math.min(size, conf.maxdotSize), conf.minDotSize);
+    }
+
+    /**
+     * Draws the tiles covering the given area of the map panel, rendering the ones not cached yet.
+     * The cache is dropped first if the date or the display options changed since it was filled.
+     */
+    private void paintTiles(Graphics2D g2, int width, int height, double size) {
+        if(!now.equals(tilesDate)) {
+            clearTiles();
+            tilesDate = now;
+        }
+        int options = getTileOptions();
+        if(options != tilesOptions) {
+            tiles.clear();
+            tilesOptions = options;
+        }
+        // Tiles are laid out from the map origin, so they stay valid when the map is moved
+        final int originX = (int) Math.floor(map2scrX(0.0));
+        final int originY = (int) Math.floor(map2scrY(0.0));
+        final int minTileX = Math.floorDiv(- originX, TILE_SIZE);
+        final int maxTileX = Math.floorDiv(width - originX, TILE_SIZE);
+        final int minTileY = Math.floorDiv(- originY, TILE_SIZE);
+        final int maxTileY = Math.floorDiv(height - originY, TILE_SIZE);
+        for(int tileX = minTileX; tileX <= maxTileX; ++ tileX) {
+            for(int tileY = minTileY; tileY <= maxTileY; ++ tileY) {
+                MapTileKey key = new MapTileKey(conf.scale, tileX, tileY);
+                BufferedImage tile = tiles.get(key);
+                if(null == tile) {
+                    tile = renderTile(tileX, tileY, size);
+                    tiles.put(key, tile);
+                }
+                g2.drawImage(tile, originX + tileX * TILE_SIZE, originY + tileY * TILE_SIZE, null);
+            }
+        }
+    }
+
+    /**
+     * Renders the ISW areas, the HPG network and the planets for one tile at the current zoom level.
+     * Inside the tile, a map position (x, y) is at (x * scale, - y * scale) minus the tile's offset.
+     */
+    private BufferedImage renderTile(int tileX, int tileY, double size) {
+        final double scale = conf.scale;
+        final double offsetX = tileX * TILE_SIZE;
+        final double offsetY = tileY * TILE_SIZE;
+        // The part of the map covered by the tile, with room for anything drawn around planets
+        final double margin = size * 2.0 / scale;
+        final double tileMinX = offsetX / scale - margin;
+        final double tileMaxX = (offsetX + TILE_SIZE) / scale + margin;
+        final double tileMinY = - (offsetY + TILE_SIZE) / scale - margin;
+        final double tileMaxY = - offsetY / scale + margin;
+        final List<Planet> planets = new ArrayList<>();
+        Planets.getInstance().visitPlanetsInRectangle(tileMinX, tileMinY, tileMaxX, tileMaxY, planets::add);
+
+        BufferedImage tile = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = tile.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        if((scale > 1.0) && optISWAreas.isSelected()) {
+            paintISWAreas(g2, offsetX, offsetY, tileMinX, tileMinY, tileMaxX, tileMaxY);
+        }
+
+        Arc2D.Double arc = new Arc2D.Double();
+        if(optHPGNetwork.isSelected()) {
+            for(Planet planet : planets) {
+                if(!isPlanetEmpty(planet)) {
+                    double x = planet.getX() * scale - offsetX;
+                    double y = - planet.getY() * scale - offsetY;
+                    int hpgRating = Utilities.nonNull(planet.getHPG(now), EquipmentType.RATING_X);
+                    if(hpgRating == EquipmentType.RATING_A) {
+                        g2.setPaint(Color.CYAN);
+                        arc.setArcByCenter(x, y, size * 1.6, 0, 360, Arc2D.OPEN);
+                        g2.setStroke(THICK);
+                        g2.draw(arc);
+                    }
+                    if(hpgRating == EquipmentType.RATING_A || hpgRating == EquipmentType.RATING_B) {
+                        g2.setPaint(Color.CYAN);
+                        arc.setArcByCenter(x, y, size * 1.3, 0, 360, Arc2D.OPEN);
+                        g2.setStroke(THIN);
+                        g2.draw(arc);
+                    }
+                    if(hpgRating == EquipmentType.RATING_C) {
+                        g2.setPaint(Color.CYAN);
+                        arc.setArcByCenter(x, y, size * 1.3, 0, 360, Arc2D.OPEN);
+                        g2.setStroke(DASHED);
+                        g2.draw(arc);
+                    }
+                    if(hpgRating == EquipmentType.RATING_D) {
+                        g2.setPaint(DARK_CYAN);
+                        arc.setArcByCenter(x, y, size * 1.3, 0, 360, Arc2D.OPEN);
+                        g2.setStroke(DOTTED);
+                        g2.draw(arc);
+                    }
+                }
+            }
+            Line2D.Double line = new Line2D.Double();
+            for(Planets.HPGLink link : Planets.getInstance().getHPGNetwork(now)) {
+                if((link.rating != EquipmentType.RATING_A) && (link.rating != EquipmentType.RATING_B)) {
+                    continue;
+                }
+                line.setLine(link.primary.getX() * scale - offsetX, - link.primary.getY() * scale - offsetY,
+                        link.secondary.getX() * scale - offsetX, - link.secondary.getY() * scale - offsetY);
+                if(line.intersects(-2.0, -2.0, TILE_SIZE + 4.0, TILE_SIZE + 4.0)) {
+                    g2.setPaint(Color.CYAN);
+                    g2.setStroke((link.rating == EquipmentType.RATING_A) ? THICK : DASHED);
+                    g2.draw(line);
+                }
+            }
+        }
+
+        for(Planet planet : planets) {
+            paintPlanetDot(g2, arc, planet, planet.getX() * scale - offsetX, - planet.getY() * scale - offsetY, size);
+        }
+        g2.dispose();
+        return tile;
+    }
+
+    /**
+     * Paints the ISW area hexes overlapping the given part of the map into a tile.
+     */
+    private void paintISWAreas(Graphics2D g2, double offsetX, double offsetY,
+            double areaMinX, double areaMinY, double areaMaxX, double areaMaxY) {
+        // IDEA: Allow for different hex sizes later on.
+        final double HEX_SIZE = 30.0;
+        final double SPACING_X = HEX_SIZE * Math.sqrt(3) / 2.0;
+        final double scale = conf.scale;
+        AffineTransform transform = new AffineTransform();
+        transform.translate(- offsetX, - offsetY);
+        transform.scale(scale, - scale);
+        int minX = (int) Math.floor(areaMinX / SPACING_X) - 1;
+        int maxX = (int) Math.ceil(areaMaxX / SPACING_X) + 1;
+        int minY = (int) Math.floor(areaMinY / HEX_SIZE) - 1;
+        int maxY = (int) Math.ceil(areaMaxY / HEX_SIZE) + 1;
+        final Stroke hexStroke = new BasicStroke(4.0f);
+        GeneralPath path = new GeneralPath();
+        for(int x = minX; x <= maxX; ++ x) {
+            for(int y = minY; y <= maxY; ++ y) {
+                double coordX = x * SPACING_X;
+                double coordY = y * HEX_SIZE + (x % 2) * HEX_SIZE / 2.0;
+                setupHexPath(path, coordX, coordY, HEX_SIZE / 2.0);
+
+                Paint factionPaint = new Color(0.0f, 0.0f, 0.0f, 0.25f);
+                Paint linePaint = new Color(1.0f, 1.0f, 1.0f, 0.25f);
+                Set<Faction> factions = getHexFactions(x, y, path, coordX, coordY, HEX_SIZE);
+                
+                path.transform(transform);
+
+                if(factions.size() == 1) {
+                    // Single-faction hex
+                    Color factionColor = factions.iterator().next().getColor();
+                    float[] colorComponents = new float[4];
+                    factionColor.getComponents(colorComponents);
+                    factionPaint = new Color(colorComponents[0], colorComponents[1], colorComponents[2], 0.25f);
+                    Color lineColor = factionColor.brighter();
+                    lineColor.getComponents(colorComponents);
+                    linePaint = new Color(colorComponents[0], colorComponents[1], colorComponents[2], 0.25f);
+                } else if(factions.size() > 1) {
+                    // Create the painted stripes data
+                    int factionSize = factions.size();
+                    Iterator<Faction> factionIterator = factions.iterator();
+                    float[] colorComponents = new float[4];
+                    float[] paintFractions = new float[factionSize * 2];
+                    Color[] paintColors = new Color[factionSize * 2];
+                    for(int i = 0; i < factionSize; ++ i) {
+                        paintFractions[i * 2] = i * (1.0f / factionSize) + 0.001f;
+                        paintFractions[i * 2 + 1] = (i + 1) * (1.0f / factionSize);
+                        Color factionColor = factionIterator.next().getColor();
+                        factionColor.getComponents(colorComponents);
+                        factionColor = new Color(colorComponents[0], colorComponents[1], colorComponents[2], 0.25f);
+                        paintColors[i * 2] = factionColor;
+                        paintColors[i * 2 + 1] = factionColor;
+                    }
+                    paintFractions[0] = 0.0f;
+                    
+                    // Determine where to anchor the stripes
+                    Point2D firstPoint = new Point2D.Double(coordX * scale - offsetX, - coordY * scale - offsetY);
+                    Point2D secondPoint = new Point2D.Double(
+                        firstPoint.getX() + 6 * scale,
+                        firstPoint.getY() + 6 * scale);
+                    factionPaint = new LinearGradientPaint(
+                        firstPoint, secondPoint, paintFractions, paintColors,
+                        MultipleGradientPaint.CycleMethod.REPEAT);
+                    linePaint = new Color(1.0f, 0.2f, 0.0f, 0.5f);
+                }
+                g2.setPaint(factionPaint);
+                g2.fill(path);
+                g2.setPaint(linePaint);
+                Shape clip = g2.getClip();
+                g2.clip(path);
+                g2.setStroke(hexStroke);
+                g2.draw(path);
+                g2.setClip(clip);
+            }
+        }
+    }
+
+    /**
+     * @return The factions owning the non-empty planets in an ISW area hex, remembered for the current date
+     */
+    private Set<Faction> getHexFactions(int hexX, int hexY, GeneralPath path, double coordX, double coordY, double hexSize) {
+        Long key = (((long) hexX) << 32) | (hexY & 0xFFFFFFFFL);
+        Set<Faction> factions = hexFactions.get(key);
+        if(null == factions) {
+            factions = new HashSet<>();
+            for(Planet planet : Planets.getInstance().getNearbyPlanets(coordX, coordY, (int) Math.round(hexSize * 1.3))) {
+                if(!isPlanetEmpty(planet) && path.contains(planet.getX(), planet.getY())) {
+                    factions.addAll(planet.getFactionSet(now));
+                }
+            }
+            hexFactions.put(key, factions);
+        }
+        return factions;
+    }
+
+    private void paintPlanetDot(Graphics2D g2, Arc2D.Double arc, Planet planet, double x, double y, double size) {
+        //if factions are selected then we need to do it differently, because
+        //of multiple factions per planet
+        if(isFactionsSelected()) {
+            Set<Faction> factions = planet.getFactionSet(now);
+            if(null != factions && !isPlanetEmpty(planet)) {
+                int i = 0;
+                for(Faction faction : factions) {
+                    g2.setPaint(faction.getColor());
+                    arc.setArcByCenter(x, y, size, 0, 360.0 * (1-((double)i)/factions.size()), Arc2D.PIE);
+                    g2.fill(arc);
+                    ++ i;
+                }
+            } else {
+                // Just a black circle then
+                g2.setPaint(new Color(0.0f, 0.0f, 0.0f, 0.5f));
+                arc.setArcByCenter(x, y, size, 0, 360.0, Arc2D.PIE);
+                g2.fill(arc);
+            }
+        } else {
+            g2.setPaint(getPlanetColor(planet));
+            arc.setArcByCenter(x, y, size, 0, 360.0, Arc2D.PIE);
+            g2.fill(arc);
+        }
+    }
+
+    /**
+     * @return The display options the tiles depend on, one bit each
+     */
+    private int getTileOptions() {
+        JToggleButton[] buttons = { optFactions, optTech, optIndustry, optRawMaterials, optOutput,
+                optAgriculture, optISWAreas, optHPGNetwork };
+        int options = 0;
+        for(int i = 0; i < buttons.length; ++ i) {
+            if(buttons[i].isSelected()) {
+                options |= 1 << i;
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Drops all cached tiles, so they get rendered again with the current planet data.
+     */
+    private void clearTiles() {
+        tiles.clear();
+        hexFactions.clear();
+        tilesDate = null;
+    }
+    
     /**
      * Computes the map-coordinate from the screen coordinate system
      */
@@ -930,14 +1082,6 @@ public class InterstellarMapPanel extends JPanel {
     private double map2scrY(double y) {
         return getHeight() / 2.0 - (y - conf.centerY) * conf.scale;
     }
-
-    private AffineTransform getMap2ScrTransform() {
-        AffineTransform transform = new AffineTransform();
-        transform.translate(getWidth() / 2.0, getHeight() / 2.0);
-        transform.scale(conf.scale, - conf.scale);
-        transform.translate(conf.centerX, - conf.centerY);
-        return transform;
-    }
     
     public void setSelectedPlanet(Planet p) {
         selectedPlanet = p;
@@ -948,21 +1092,12 @@ public class InterstellarMapPanel extends JPanel {
         repaint();
     }
 
-     /**
-     * Calculate the nearest neighbour for the given point If anyone has a better algorithm than this stupid kind of shit, please, feel free to exchange my brute force thing... An good idea would be an voronoi diagram and the sweep algorithm from Steven Fortune.
+    /**
+     * Calculate the nearest neighbour for the given point
      */
     private Planet nearestNeighbour(double x, double y) {
-        double minDiff = Double.MAX_VALUE;
-        double diff = 0.0;
-        Planet minPlanet = null;
-        for(Planet p : planets) {
-            diff = Math.sqrt(Math.pow(x - p.getX(), 2) + Math.pow(y - p.getY(), 2));
-            if (diff < minDiff) {
-                minDiff = diff;
-                minPlanet = p;
-            }
-        }
-        return minPlanet;
+        List<Planet> nearest = Planets.getInstance().getNearestPlanets(x, y, 1);
+        return nearest.isEmpty() ? null : nearest.get(0);
     }
 
     private boolean isPlanetEmpty(Planet planet) {
@@ -1158,6 +1293,7 @@ public class InterstellarMapPanel extends JPanel {
         if((null != result) && !result.isEmpty()) {
             Planets.getInstance().updatePlanetaryEvents(p.getId(), result, true);
             Planets.getInstance().recalcHPGNetwork();
+            clearTiles();
             repaint();
             notifyListeners();
         }
@@ -1202,6 +1338,39 @@ public class InterstellarMapPanel extends JPanel {
     }
     
     
+    /**
+     * Identifies a cached tile by the zoom level it was rendered at and its position, counted in
+     * tiles from the map origin.
+     */
+    private static final class MapTileKey {
+        private final double scale;
+        private final int x;
+        private final int y;
+
+        MapTileKey(double scale, int x, int y) {
+            this.scale = scale;
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(this == obj) {
+                return true;
+            }
+            if(!(obj instanceof MapTileKey)) {
+                return false;
+            }
+            MapTileKey other = (MapTileKey) obj;
+            return (Double.compare(scale, other.scale) == 0) && (x == other.x) && (y == other.y);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scale, x, y);
+        }
+    }
+    
     private transient List<ActionListener> listeners = new ArrayList<>();
     
     public void addActionListener(ActionListener l) {
@@ -207,12 +207,18 @@ public final class MapTab extends CampaignGuiTab implements ActionListener {
         }
     }
 
-    @Subscribe
-    public void handle(NewDayEvent ev) {
+    private void refreshForNewDay() {
         panMap.repaint();
         suggestPlanet.setSuggestData(getCampaign().getPlanetNames());
     }
 
+    private ActionScheduler newDayScheduler = new ActionScheduler(this::refreshForNewDay);
+
+    @Subscribe
+    public void handle(NewDayEvent ev) {
+        newDayScheduler.schedule();
+    }
+
     @Subscribe
     public void handle(OptionsChangedEvent ev) {
         panMap.repaint();
@@ -3,6 +3,8 @@ package mekhq.gui.adapter;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JMenu;
@@ -21,6 +23,7 @@ import mekhq.campaign.finances.Transaction;
 import mekhq.campaign.parts.AmmoStorage;
 import mekhq.campaign.parts.Armor;
 import mekhq.campaign.parts.Part;
+import mekhq.campaign.work.IAcquisitionWork;
 import mekhq.campaign.work.WorkTime;
 import mekhq.gui.CampaignGUI;
 import mekhq.gui.dialog.MassRepairSalvageDialog;
@@ -172,11 +175,13 @@ public class PartsTableMouseAdapter extends MouseInputAdapter implements ActionL
                 gui.getCampaign().depodPart(selectedPart, q);
             }
         } else if(command.equalsIgnoreCase("BUY")) {
+        	List<IAcquisitionWork> toBuy = new ArrayList<>();
         	for (Part p : parts) {
         		if(null != p) {
-        			gui.getCampaign().getShoppingList().addShoppingItem(p.getAcquisitionWork(), 1, gui.getCampaign());
+        			toBuy.add(p.getAcquisitionWork());
         		}
         	}
+        	gui.getCampaign().getShoppingList().addShoppingItems(toBuy, gui.getCampaign());
         } else if(command.equalsIgnoreCase("BUY_N")) {
         	if(null != selectedPart) {
         		PopupValueChoiceDialog pvcd = new PopupValueChoiceDialog(gui.getFrame(), true,
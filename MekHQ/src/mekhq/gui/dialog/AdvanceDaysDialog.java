@@ -9,29 +9,33 @@ import java.awt.Dimension;
 import java.awt.Frame;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.awt.event.WindowAdapter;
-import java.awt.event.WindowEvent;
 import java.time.Duration;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.GregorianCalendar;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.Set;
 import java.util.Calendar;
-import java.util.Collections;
 
+import javax.swing.BoxLayout;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JDialog;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JSpinner;
 import javax.swing.SpinnerNumberModel;
 
-import megamek.common.event.Subscribe;
 import megamek.common.util.EncodeControl;
 import mekhq.MekHQ;
-import mekhq.campaign.event.ReportEvent;
+import mekhq.Utilities;
+import mekhq.campaign.AdvanceDaysEngine;
 import mekhq.gui.CampaignGUI;
 import mekhq.gui.DailyReportLogPanel;
 import mekhq.gui.ReportHyperlinkListener;
 import mekhq.gui.preferences.JIntNumberSpinnerPreference;
+import mekhq.gui.preferences.JToggleButtonPreference;
 import mekhq.gui.preferences.JWindowPreference;
 import mekhq.preferences.PreferencesNode;
 
@@ -45,6 +49,8 @@ public class AdvanceDaysDialog extends JDialog implements ActionListener {
     private JButton btnNextMonth;
     private JLabel lblDays;
     private JPanel pnlNumDays;
+    private Map<AdvanceDaysEngine.Interrupt, JCheckBox> chkInterrupts;
+    private JLabel lblResult;
     private DailyReportLogPanel logPanel;
     private CampaignGUI gui;
     private ReportHyperlinkListener listener;
@@ -79,19 +85,29 @@ public class AdvanceDaysDialog extends JDialog implements ActionListener {
         btnNextMonth.addActionListener(this);
         pnlNumDays.add(btnStart);
         pnlNumDays.add(btnNextMonth);
-        getContentPane().add(pnlNumDays, BorderLayout.NORTH);
+
+        JPanel pnlInterrupts = new JPanel();
+        pnlInterrupts.add(new JLabel(resourceMap.getString("dlgStopOn.text")));
+        chkInterrupts = new EnumMap<>(AdvanceDaysEngine.Interrupt.class);
+        for (AdvanceDaysEngine.Interrupt interrupt : AdvanceDaysEngine.Interrupt.values()) {
+            JCheckBox chkInterrupt = new JCheckBox(resourceMap.getString("dlgStopOn." + interrupt.name() + ".text"));
+            chkInterrupt.setName("stopOn" + interrupt.name());
+            chkInterrupt.setSelected(true);
+            chkInterrupts.put(interrupt, chkInterrupt);
+            pnlInterrupts.add(chkInterrupt);
+        }
+
+        JPanel pnlTop = new JPanel();
+        pnlTop.setLayout(new BoxLayout(pnlTop, BoxLayout.PAGE_AXIS));
+        pnlTop.add(pnlNumDays);
+        pnlTop.add(pnlInterrupts);
+        getContentPane().add(pnlTop, BorderLayout.NORTH);
 
         logPanel = new DailyReportLogPanel(listener);
         getContentPane().add(logPanel, BorderLayout.CENTER);
 
-        addWindowListener(new WindowAdapter() {
-            public void windowClosing(WindowEvent e) {
-                // We need to unregister here as unregistering in the actionPerformed
-                // method will lead to incorrect behaviour if the user tries to advance
-                // days again without exiting this dialog
-                MekHQ.unregisterHandler(this);
-            }
-        });
+        lblResult = new JLabel(" ");
+        getContentPane().add(lblResult, BorderLayout.SOUTH);
     }
 
     private void setUserPreferences() {
@@ -100,6 +116,10 @@ public class AdvanceDaysDialog extends JDialog implements ActionListener {
         spnDays.setName("numberDays");
         preferences.manage(new JIntNumberSpinnerPreference(spnDays));
 
+        for (JCheckBox chkInterrupt : chkInterrupts.values()) {
+            preferences.manage(new JToggleButtonPreference(chkInterrupt));
+        }
+
         this.setName("dialog");
         preferences.manage(new JWindowPreference(this));
     }
@@ -111,8 +131,6 @@ public class AdvanceDaysDialog extends JDialog implements ActionListener {
     public void actionPerformed(ActionEvent event) {
         if (event.getSource().equals(btnStart) || event.getSource().equals(btnNextMonth)) {
             int days = (int)spnDays.getValue();
-            boolean firstDay = true;
-            MekHQ.registerHandler(this);
             if (event.getSource().equals(btnNextMonth)) {
                 //Use java.time to get the number of days to next month.
                 //We already need Java 8 anyway, and this is much easier and more accurate.
@@ -122,35 +140,29 @@ public class AdvanceDaysDialog extends JDialog implements ActionListener {
                 days = Math.abs((int)duration.toDays());
             }
 
-            int numDays;
-            for (numDays = days; numDays > 0; numDays--) {
-                if (gui.getCampaign().checkOverDueLoans()
-                        || gui.nagShortMaintenance()
-                        || (gui.getCampaign().getCampaignOptions().getUseAtB())
-                        && (gui.nagShortDeployments() || gui.nagOutstandingScenarios())) {
-                    break;
-                }
-                if (gui.getCampaign().checkRetirementDefections()
-                        || gui.getCampaign().checkYearlyRetirements()) {
-                    gui.showRetirementDefectionDialog();
-                    break;
-                }
-                if(!gui.getCampaign().newDay()) {
-                    break;
-                }
-                //String newLogString = logPanel.getLogText();
-                //newLogString = newLogString.concat(gui.getCampaign().getCurrentReportHTML());
-                if(firstDay) {
-                    logPanel.refreshLog(gui.getCampaign().getCurrentReportHTML());
-                    firstDay = false;
-                } else {
-                    logPanel.appendLog(Collections.singletonList("<hr/>")); //$NON-NLS-1$
-                    logPanel.appendLog(gui.getCampaign().fetchAndClearNewReports());
+            Set<AdvanceDaysEngine.Interrupt> interrupts = EnumSet.noneOf(AdvanceDaysEngine.Interrupt.class);
+            for (Map.Entry<AdvanceDaysEngine.Interrupt, JCheckBox> entry : chkInterrupts.entrySet()) {
+                if (entry.getValue().isSelected()) {
+                    interrupts.add(entry.getKey());
                 }
             }
 
+            AdvanceDaysEngine.Result result = new AdvanceDaysEngine(gui.getCampaign(), interrupts)
+                    .advance(days, this::canAdvanceDay);
+
+            // The log is only redrawn once, with the reports of all the days advanced
+            logPanel.refreshLog(Utilities.combineString(result.getReports(), "")); //$NON-NLS-1$
+            String resultText = String.format(resourceMap.getString("dlgResult.text"),
+                    result.getDaysAdvanced(), result.getDaysPerSecond());
+            if (null != result.getInterrupt()) {
+                resultText += " " + String.format(resourceMap.getString("dlgStoppedBy.text"),
+                        chkInterrupts.get(result.getInterrupt()).getText());
+            }
+            lblResult.setText(resultText);
+
             // We couldn't advance all days for some reason,
             // set the spinner to the number of remaining days
+            int numDays = days - result.getDaysAdvanced();
             if (numDays > 0) {
                 this.spnDays.setValue(numDays);
             }
@@ -163,8 +175,18 @@ public class AdvanceDaysDialog extends JDialog implements ActionListener {
         }
     }
     
-    @Subscribe(priority = 1)
-    public void reportOverride(ReportEvent ev) {
-        ev.cancel();
+    private boolean canAdvanceDay() {
+        if (gui.getCampaign().checkOverDueLoans()
+                || gui.nagShortMaintenance()
+                || (gui.getCampaign().getCampaignOptions().getUseAtB())
+                && (gui.nagShortDeployments() || gui.nagOutstandingScenarios())) {
+            return false;
+        }
+        if (gui.getCampaign().checkRetirementDefections()
+                || gui.getCampaign().checkYearlyRetirements()) {
+            gui.showRetirementDefectionDialog();
+            return false;
+        }
+        return true;
     }
 }
@@ -25,8 +25,8 @@ import java.awt.MediaTracker;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.ResourceBundle;
@@ -52,6 +52,7 @@ import mekhq.campaign.CampaignFactory;
 import mekhq.campaign.GamePreset;
 import mekhq.campaign.event.OptionsChangedEvent;
 import mekhq.campaign.finances.CurrencyManager;
+import mekhq.campaign.io.CampaignJournal;
 import mekhq.campaign.mod.am.InjuryTypes;
 import mekhq.campaign.personnel.Bloodname;
 import mekhq.campaign.universe.Faction;
@@ -203,10 +204,10 @@ public class DataLoadingDialog extends JDialog implements PropertyChangeListener
                         "Loading campaign file from XML..."); //$NON-NLS-1$
 
         		// And then load the campaign object from it.
-        		FileInputStream fis = null;
+        		InputStream fis = null;
 
         		try {
-        			fis = new FileInputStream(fileCampaign);
+        			fis = CampaignJournal.openCampaignFile(fileCampaign);
         			campaign = CampaignFactory.newInstance(app).createCampaign(fis);
         			// Restores all transient attributes from serialized objects
         			campaign.restore();
@@ -283,7 +284,6 @@ public class DataLoadingDialog extends JDialog implements PropertyChangeListener
         		} else {
         			campaign.setStartingPlanet();
         			campaign.generateNewPersonnelMarket();
-        			campaign.reloadNews();
         			campaign.readNews();
         			campaign.beginReport("<b>" + campaign.getDateAsString() + "</b>");
         			if (campaign.getCampaignOptions().getUseAtB()) {
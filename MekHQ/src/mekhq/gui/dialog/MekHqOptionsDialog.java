@@ -23,6 +23,7 @@ package mekhq.gui.dialog;
 
 import megamek.common.logging.MMLogger;
 import mekhq.MekHqConstants;
+import mekhq.campaign.io.CampaignXmlWriter;
 
 import javax.swing.*;
 import java.awt.*;
@@ -38,7 +39,10 @@ public class MekHqOptionsDialog extends BaseDialog {
     private JRadioButton optionSaveDaily;
     private JRadioButton optionSaveWeekly;
     private JCheckBox checkSaveBeforeMissions;
+    private JCheckBox checkSaveInBackground;
+    private JCheckBox checkSaveAsJournal;
     private JSpinner spinnerSavedGamesCount;
+    private JComboBox<CampaignXmlWriter.CompressionLevel> comboCompressionLevel;
 
     public MekHqOptionsDialog(JFrame parent, MMLogger logger) {
         super(parent, logger);
@@ -69,10 +73,21 @@ public class MekHqOptionsDialog extends BaseDialog {
         checkSaveBeforeMissions = new JCheckBox(resources.getString("checkSaveBeforeMissions.text"));
         checkSaveBeforeMissions.setMnemonic(KeyEvent.VK_S);
 
+        checkSaveInBackground = new JCheckBox(resources.getString("checkSaveInBackground.text"));
+        checkSaveInBackground.setMnemonic(KeyEvent.VK_B);
+
+        checkSaveAsJournal = new JCheckBox(resources.getString("checkSaveAsJournal.text"));
+        checkSaveAsJournal.setToolTipText(resources.getString("checkSaveAsJournal.toolTipText"));
+        checkSaveAsJournal.setMnemonic(KeyEvent.VK_J);
+
         JLabel labelSavedGamesCount = new JLabel(resources.getString("labelSavedGamesCount.text"));
         spinnerSavedGamesCount = new JSpinner(new SpinnerNumberModel(1, 1, 10, 1));
         labelSavedGamesCount.setLabelFor(spinnerSavedGamesCount);
 
+        JLabel labelCompressionLevel = new JLabel(resources.getString("labelCompressionLevel.text"));
+        comboCompressionLevel = new JComboBox<>(CampaignXmlWriter.CompressionLevel.values());
+        labelCompressionLevel.setLabelFor(comboCompressionLevel);
+
         // Layout the UI
         JPanel body = new JPanel();
         GroupLayout layout = new GroupLayout(body);
@@ -88,9 +103,14 @@ public class MekHqOptionsDialog extends BaseDialog {
                 .addComponent(optionSaveDaily)
                 .addComponent(optionSaveWeekly)
                 .addComponent(checkSaveBeforeMissions)
+                .addComponent(checkSaveInBackground)
+                .addComponent(checkSaveAsJournal)
                 .addGroup(layout.createParallelGroup(GroupLayout.Alignment.BASELINE)
                     .addComponent(labelSavedGamesCount)
                     .addComponent(spinnerSavedGamesCount, GroupLayout.Alignment.TRAILING))
+                .addGroup(layout.createParallelGroup(GroupLayout.Alignment.BASELINE)
+                    .addComponent(labelCompressionLevel)
+                    .addComponent(comboCompressionLevel, GroupLayout.Alignment.TRAILING))
         );
 
         layout.setHorizontalGroup(
@@ -100,9 +120,14 @@ public class MekHqOptionsDialog extends BaseDialog {
                 .addComponent(optionSaveDaily)
                 .addComponent(optionSaveWeekly)
                 .addComponent(checkSaveBeforeMissions)
+                .addComponent(checkSaveInBackground)
+                .addComponent(checkSaveAsJournal)
                 .addGroup(layout.createSequentialGroup()
                     .addComponent(labelSavedGamesCount)
                     .addComponent(spinnerSavedGamesCount))
+                .addGroup(layout.createSequentialGroup()
+                    .addComponent(labelCompressionLevel)
+                    .addComponent(comboCompressionLevel))
         );
 
         return body;
@@ -114,7 +139,10 @@ public class MekHqOptionsDialog extends BaseDialog {
         this.userPreferences.putBoolean(MekHqConstants.SAVE_DAILY_KEY, this.optionSaveDaily.isSelected());
         this.userPreferences.putBoolean(MekHqConstants.SAVE_WEEKLY_KEY, this.optionSaveWeekly.isSelected());
         this.userPreferences.putBoolean(MekHqConstants.SAVE_BEFORE_MISSIONS_KEY, this.checkSaveBeforeMissions.isSelected());
+        this.userPreferences.putBoolean(MekHqConstants.SAVE_IN_BACKGROUND_KEY, this.checkSaveInBackground.isSelected());
+        this.userPreferences.putBoolean(MekHqConstants.SAVE_AS_JOURNAL_KEY, this.checkSaveAsJournal.isSelected());
         this.userPreferences.putInt(MekHqConstants.MAXIMUM_NUMBER_SAVES_KEY, (Integer)this.spinnerSavedGamesCount.getValue());
+        this.userPreferences.put(MekHqConstants.SAVE_COMPRESSION_LEVEL_KEY, ((CampaignXmlWriter.CompressionLevel)this.comboCompressionLevel.getSelectedItem()).name());
     }
 
     private void setInitialState() {
@@ -122,6 +150,9 @@ public class MekHqOptionsDialog extends BaseDialog {
         this.optionSaveDaily.setSelected(this.userPreferences.getBoolean(MekHqConstants.SAVE_DAILY_KEY, false));
         this.optionSaveWeekly.setSelected(this.userPreferences.getBoolean(MekHqConstants.SAVE_WEEKLY_KEY, true));
         this.checkSaveBeforeMissions.setSelected(this.userPreferences.getBoolean(MekHqConstants.SAVE_BEFORE_MISSIONS_KEY, false));
+        this.checkSaveInBackground.setSelected(this.userPreferences.getBoolean(MekHqConstants.SAVE_IN_BACKGROUND_KEY, true));
+        this.checkSaveAsJournal.setSelected(this.userPreferences.getBoolean(MekHqConstants.SAVE_AS_JOURNAL_KEY, false));
         this.spinnerSavedGamesCount.setValue(this.userPreferences.getInt(MekHqConstants.MAXIMUM_NUMBER_SAVES_KEY, MekHqConstants.DEFAULT_NUMBER_SAVES));
+        this.comboCompressionLevel.setSelectedItem(CampaignXmlWriter.getPreferredCompressionLevel());
     }
 }
@@ -442,6 +442,7 @@ public class NewPlanetaryEventDialog extends JDialog {
                 if(chooser.isChanged()) {
                     event.faction = chooser.getResult();
                     event.custom = true;
+                    planet.invalidateEvents();
                     updateDate();
                 }
             }
@@ -1018,6 +1019,7 @@ public class NewPlanetaryEventDialog extends JDialog {
             default: break;
         }
         event.custom = true;
+        planet.invalidateEvents();
     }
     
     private String nullEmptyText(JTextField field) {
@@ -1059,6 +1061,7 @@ public class NewPlanetaryEventDialog extends JDialog {
             default: return;
         }
         event.custom = true;
+        planet.invalidateEvents();
     }
     
     private static class LifeFormChoice {
@@ -21,22 +21,59 @@
 
 package mekhq.service;
 
+import megamek.common.logging.LogLevel;
 import megamek.common.logging.MMLogger;
 import mekhq.MekHQ;
 import mekhq.MekHqConstants;
 import mekhq.campaign.Campaign;
+import mekhq.campaign.event.AutosaveCompletedEvent;
+import mekhq.campaign.event.AutosaveEvent;
+import mekhq.campaign.event.AutosaveFailedEvent;
+import mekhq.campaign.io.CampaignJournal;
+import mekhq.campaign.io.CampaignXmlWriter;
 
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
+import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.prefs.Preferences;
 import java.util.stream.Collectors;
-import java.util.zip.GZIPOutputStream;
 
+import javax.swing.SwingUtilities;
+
+/**
+ * Writes the campaign's autosaves.
+ * <p>
+ * The campaign is changed by the GUI all the time, so it is always serialized on the thread
+ * asking for the autosave. What can be left to the background writer is compressing that XML
+ * and writing it to disk, which is most of the time taken by a compressed save.
+ */
 public class AutosaveService implements IAutosaveService {
+    /** Shared by every instance so that background autosaves never write concurrently */
+    private static final ExecutorService BACKGROUND_WRITER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MekHQ Autosave");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final AtomicReference<PendingAutosave> PENDING_AUTOSAVE = new AtomicReference<>();
+    /** How long quitting MekHQ waits for a background autosave to be written */
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 60;
+
+    static {
+        // The writer thread is a daemon so that it never keeps MekHQ running, but an autosave
+        // that is queued or being written when MekHQ quits is still finished
+        Runtime.getRuntime().addShutdownHook(new Thread(AutosaveService::finishBackgroundWrites,
+                "MekHQ Autosave Shutdown"));
+    }
+    /** The delta autosave journal of the campaign being played */
+    private static CampaignJournal journal;
+
     private final Preferences userPreferences = Preferences.userRoot().node(MekHqConstants.AUTOSAVE_NODE);
     private final MMLogger logger;
 
@@ -77,20 +114,142 @@ public class AutosaveService implements IAutosaveService {
         return this.userPreferences.getBoolean(MekHqConstants.SAVE_BEFORE_MISSIONS_KEY, false);
     }
 
+    private boolean isBackgroundAutosaveEnabled() {
+        return this.userPreferences.getBoolean(MekHqConstants.SAVE_IN_BACKGROUND_KEY, true);
+    }
+
+    private boolean isJournalAutosaveEnabled() {
+        return this.userPreferences.getBoolean(MekHqConstants.SAVE_AS_JOURNAL_KEY, false);
+    }
+
     private void performAutosave(Campaign campaign) {
+        File file = null;
         try {
-            String fileName = this.getAutosaveFilename(campaign);
-
-            try (FileOutputStream fos = new FileOutputStream(fileName);
-                 GZIPOutputStream output = new GZIPOutputStream(fos)) {
-                PrintWriter writer = new PrintWriter(new OutputStreamWriter(output, "UTF-8"));
-                campaign.writeToXml(writer);
-                writer.flush();
-                writer.close();
+            if (this.isJournalAutosaveEnabled()) {
+                // Journals are small and must be written in order, so they are not
+                // handed to the background writer
+                file = getJournal(campaign).save();
+                MekHQ.triggerEvent(new AutosaveCompletedEvent(campaign, file));
+                return;
+            }
+
+            file = new File(this.getAutosaveFilename(campaign));
+
+            if (this.isBackgroundAutosaveEnabled()) {
+                // The campaign is serialized here, as it can't be read from another thread
+                // while it changes; only compressing and writing it happens in the background
+                this.queueBackgroundWrite(new PendingAutosave(campaign, file,
+                        new CampaignXmlWriter(campaign).writeSnapshot()));
+            } else {
+                new CampaignXmlWriter(campaign).write(file);
+                MekHQ.triggerEvent(new AutosaveCompletedEvent(campaign, file));
             }
         }
         catch (Exception ex) {
             this.logger.error(this.getClass(), "performAutosave", ex);
+            MekHQ.triggerEvent(new AutosaveFailedEvent(campaign, file, ex));
+        }
+    }
+
+    private static synchronized CampaignJournal getJournal(Campaign campaign) {
+        if ((null == journal) || (journal.getCampaign() != campaign)) {
+            if (null != journal) {
+                journal.close();
+            }
+            // Delta autosaves are not named "Autosave-" so that they are kept out of the rotation
+            journal = new CampaignJournal(campaign, Paths.get(MekHQ.getCampaignsDirectory().getValue(),
+                    String.format("AutosaveDelta-%s.cpnx.gz", campaign.getName())).toFile());
+        }
+        return journal;
+    }
+
+    /**
+     * Drops the delta autosave journal of the campaign, if it has one. Called when the campaign
+     * is replaced, so the journal doesn't keep it around.
+     *
+     * @param campaign the campaign being replaced
+     */
+    public static synchronized void closeJournal(Campaign campaign) {
+        if ((null != journal) && (journal.getCampaign() == campaign)) {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    /**
+     * Hands a snapshot to the background writer. If an earlier snapshot is still waiting to
+     * be written it is replaced, as only the most recent autosave is worth keeping.
+     */
+    private void queueBackgroundWrite(PendingAutosave autosave) {
+        PendingAutosave replaced = PENDING_AUTOSAVE.getAndSet(autosave);
+        if (null != replaced) {
+            this.logger.log(this.getClass(), "queueBackgroundWrite", LogLevel.INFO,
+                    "Skipping autosave " + replaced.file.getName() + " in favour of " + autosave.file.getName());
+        } else {
+            try {
+                BACKGROUND_WRITER.execute(this::writePendingAutosave);
+            } catch (RejectedExecutionException ex) {
+                // MekHQ is quitting, so there is no background writer any more
+                this.writePendingAutosave();
+            }
+        }
+    }
+
+    private static void finishBackgroundWrites() {
+        BACKGROUND_WRITER.shutdown();
+        try {
+            if (!BACKGROUND_WRITER.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                MekHQ.getLogger().log(AutosaveService.class, "finishBackgroundWrites", LogLevel.WARNING,
+                        "Gave up waiting for the background autosave to be written");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writePendingAutosave() {
+        PendingAutosave autosave = PENDING_AUTOSAVE.getAndSet(null);
+        if (null == autosave) {
+            return;
+        }
+
+        // Write to a temporary file first, so that quitting in the middle of a write
+        // never leaves a truncated autosave behind
+        File tempFile = new File(autosave.file.getPath() + ".tmp");
+        try {
+            autosave.snapshot.writeTo(tempFile);
+            Files.move(tempFile.toPath(), autosave.file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            triggerOnEventDispatchThread(new AutosaveCompletedEvent(autosave.campaign, autosave.file));
+        } catch (Exception ex) {
+            this.logger.error(this.getClass(), "writePendingAutosave", ex);
+            tempFile.delete();
+            triggerOnEventDispatchThread(new AutosaveFailedEvent(autosave.campaign, autosave.file, ex));
+        }
+    }
+
+    /**
+     * Triggers the event on the event dispatch thread, where the GUI expects campaign events.
+     */
+    private static void triggerOnEventDispatchThread(AutosaveEvent event) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            MekHQ.triggerEvent(event);
+        } else {
+            SwingUtilities.invokeLater(() -> MekHQ.triggerEvent(event));
+        }
+    }
+
+    /**
+     * A campaign snapshot waiting to be written by the background writer.
+     */
+    private static class PendingAutosave {
+        private final Campaign campaign;
+        private final File file;
+        private final CampaignXmlWriter.Snapshot snapshot;
+
+        PendingAutosave(Campaign campaign, File file, CampaignXmlWriter.Snapshot snapshot) {
+            this.campaign = campaign;
+            this.file = file;
+            this.snapshot = snapshot;
         }
     }
 
@@ -99,7 +258,7 @@ public class AutosaveService implements IAutosaveService {
         String savesDirectoryPath = MekHQ.getCampaignsDirectory().getValue();
         File folder = new File(savesDirectoryPath);
         List<File> autosaveFiles = Arrays.stream(folder.listFiles())
-                .filter(f -> f.getName().startsWith("Autosave-"))
+                .filter(f -> f.getName().startsWith("Autosave-") && !f.getName().endsWith(".tmp"))
                 .sorted(Comparator.comparing(f -> f.lastModified()))
                 .collect(Collectors.toList());
 
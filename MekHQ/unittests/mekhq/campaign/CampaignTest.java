@@ -21,11 +21,14 @@
 package mekhq.campaign;
 
 import mekhq.campaign.personnel.Person;
+import mekhq.campaign.unit.Unit;
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -42,24 +45,28 @@ public class CampaignTest {
 
         Person mockTechActive = Mockito.mock(Person.class);
         Mockito.when(mockTechActive.isTech()).thenReturn(true);
+        Mockito.when(mockTechActive.getPrimaryRole()).thenReturn(Person.T_MECH_TECH);
         Mockito.when(mockTechActive.isActive()).thenReturn(true);
         Mockito.when(mockTechActive.getMinutesLeft()).thenReturn(240);
         testPersonList.add(mockTechActive);
 
         Person mockTechActiveTwo = Mockito.mock(Person.class);
         Mockito.when(mockTechActiveTwo.isTech()).thenReturn(true);
+        Mockito.when(mockTechActiveTwo.getPrimaryRole()).thenReturn(Person.T_MECH_TECH);
         Mockito.when(mockTechActiveTwo.isActive()).thenReturn(true);
         Mockito.when(mockTechActiveTwo.getMinutesLeft()).thenReturn(1);
         testPersonList.add(mockTechActiveTwo);
 
         Person mockTechInactive = Mockito.mock(Person.class);
         Mockito.when(mockTechInactive.isTech()).thenReturn(true);
+        Mockito.when(mockTechInactive.getPrimaryRole()).thenReturn(Person.T_MECH_TECH);
         Mockito.when(mockTechInactive.isActive()).thenReturn(false);
         Mockito.when(mockTechInactive.getMinutesLeft()).thenReturn(240);
         testPersonList.add(mockTechInactive);
 
         Person mockTechNoTime = Mockito.mock(Person.class);
         Mockito.when(mockTechNoTime.isTech()).thenReturn(true);
+        Mockito.when(mockTechNoTime.getPrimaryRole()).thenReturn(Person.T_MECH_TECH);
         Mockito.when(mockTechNoTime.isActive()).thenReturn(true);
         Mockito.when(mockTechNoTime.getMinutesLeft()).thenReturn(0);
         testPersonList.add(mockTechNoTime);
@@ -103,4 +110,52 @@ public class CampaignTest {
         expected.add(mockTechNoTime);
         Assert.assertEquals(expected, testCampaign.getTechs(false, testId, false, false));
     }
+
+    @Test
+    public void testDeferredCrewUpdates() {
+        Campaign testCampaign = Mockito.mock(Campaign.class);
+        Mockito.doCallRealMethod().when(testCampaign).deferCrewUpdates();
+        Mockito.when(testCampaign.isDeferringCrewUpdates()).thenCallRealMethod();
+        Mockito.doCallRealMethod().when(testCampaign).crewChanged(Mockito.any(Unit.class));
+        Mockito.doCallRealMethod().when(testCampaign).applyCrewUpdates();
+
+        List<Person> crew = new ArrayList<>(3);
+        for (int i = 0; i < 3; i++) {
+            Person mockCrew = Mockito.mock(Person.class);
+            Mockito.when(mockCrew.getHits()).thenReturn(2);
+            crew.add(mockCrew);
+        }
+
+        // Remember the hits of the crew whenever the unit is updated
+        List<Integer> hitsOnReset = new ArrayList<>();
+        Unit mockUnit = Mockito.mock(Unit.class);
+        Mockito.when(mockUnit.getId()).thenReturn(UUID.randomUUID());
+        Mockito.doAnswer(invocation -> {
+            for (Person p : crew) {
+                hitsOnReset.add(p.getHits());
+            }
+            return null;
+        }).when(mockUnit).resetPilotAndEntity();
+
+        testCampaign.deferCrewUpdates();
+        // Deferrals nest
+        testCampaign.deferCrewUpdates();
+        for (Person p : crew) {
+            Mockito.when(p.getHits()).thenReturn(0);
+            testCampaign.crewChanged(mockUnit);
+        }
+        testCampaign.applyCrewUpdates();
+        Assert.assertTrue(testCampaign.isDeferringCrewUpdates());
+        Mockito.verify(mockUnit, Mockito.never()).resetPilotAndEntity();
+
+        // The unit is updated once, with everyone healed
+        testCampaign.applyCrewUpdates();
+        Assert.assertFalse(testCampaign.isDeferringCrewUpdates());
+        Mockito.verify(mockUnit, Mockito.times(1)).resetPilotAndEntity();
+        Assert.assertEquals(Arrays.asList(0, 0, 0), hitsOnReset);
+
+        // Without a deferral the unit is updated right away
+        testCampaign.crewChanged(mockUnit);
+        Mockito.verify(mockUnit, Mockito.times(2)).resetPilotAndEntity();
+    }
 }
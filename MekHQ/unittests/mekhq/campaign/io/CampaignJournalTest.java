@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2020 - The MegaMek Team
+ *
+ * This file is part of MekHQ.
+ *
+ * MekHQ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MekHQ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MekHQ.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mekhq.campaign.io;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import mekhq.MekHqXmlSerializable;
+import mekhq.campaign.Campaign;
+import mekhq.campaign.event.PartChangedEvent;
+import mekhq.campaign.event.PartNewEvent;
+import mekhq.campaign.event.PartRemovedEvent;
+import mekhq.campaign.parts.Part;
+
+public class CampaignJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Map<Integer, Part> parts = new TreeMap<>();
+    private final Map<Integer, String> names = new TreeMap<>();
+    private Campaign campaign;
+    private File baseFile;
+    private CampaignJournal journal;
+
+    @Before
+    public void setUp() {
+        campaign = mock(Campaign.class);
+        when(campaign.getName()).thenReturn("Test");
+        when(campaign.getUnits()).thenReturn(Collections.emptyList());
+        when(campaign.getPersonnel()).thenReturn(Collections.emptyList());
+        when(campaign.getParts()).thenAnswer(inv -> parts.values());
+        when(campaign.getPart(anyInt())).thenAnswer(inv -> parts.get(inv.<Integer>getArgument(0)));
+        doAnswer(inv -> {
+            writeCampaign(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2));
+            return null;
+        }).when(campaign).writeToXml(any(PrintWriter.class), any(), any());
+
+        baseFile = new File(folder.getRoot(), "test.cpnx");
+        journal = new CampaignJournal(campaign, baseFile);
+    }
+
+    @After
+    public void tearDown() {
+        journal.close();
+    }
+
+    private void writeCampaign(PrintWriter pw, Predicate<MekHqXmlSerializable> filter,
+            MekHqXmlSerializable extraNode) {
+        pw.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+        pw.println("<campaign version=\"test\">");
+        pw.println("\t<units>\n\t</units>");
+        pw.println("\t<personnel>\n\t</personnel>");
+        pw.println("\t<parts>");
+        for (Part part : parts.values()) {
+            if ((null == filter) || filter.test(part)) {
+                part.writeToXml(pw, 2);
+            }
+        }
+        pw.println("\t</parts>");
+        if (null != extraNode) {
+            extraNode.writeToXml(pw, 1);
+        }
+        pw.println("</campaign>");
+    }
+
+    private Part addPart(int id, String name) {
+        Part part = mock(Part.class);
+        when(part.getId()).thenReturn(id);
+        doAnswer(inv -> {
+            PrintWriter pw = inv.getArgument(0);
+            pw.println("\t\t<part id=\"" + id + "\"><name>" + names.get(id) + "</name></part>");
+            return null;
+        }).when(part).writeToXml(any(PrintWriter.class), anyInt());
+        parts.put(id, part);
+        names.put(id, name);
+        journal.handle(new PartNewEvent(part));
+        return part;
+    }
+
+    private void renamePart(int id, String name) {
+        names.put(id, name);
+        journal.handle(new PartChangedEvent(parts.get(id)));
+    }
+
+    private void removePart(int id) {
+        names.remove(id);
+        journal.handle(new PartRemovedEvent(parts.remove(id)));
+    }
+
+    /**
+     * @return the part names of the campaign as it would be loaded, by part id
+     */
+    private Map<Integer, String> load() throws Exception {
+        Map<Integer, String> result = new TreeMap<>();
+        try (InputStream in = CampaignJournal.openCampaignFile(baseFile)) {
+            Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(in);
+            NodeList nodes = doc.getElementsByTagName("part");
+            for (int i = 0; i < nodes.getLength(); i++) {
+                Element part = (Element) nodes.item(i);
+                result.put(Integer.parseInt(part.getAttribute("id")),
+                        part.getElementsByTagName("name").item(0).getTextContent());
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testReplaysJournalsOntoBase() throws Exception {
+        addPart(1, "Gyro");
+        addPart(2, "Engine");
+        for (int id = 4; id <= 10; id++) {
+            addPart(id, "Part " + id);
+        }
+        assertEquals(baseFile, journal.save());
+        assertTrue(CampaignJournal.getJournalFiles(baseFile).isEmpty());
+
+        renamePart(1, "Heavy Duty Gyro");
+        addPart(3, "Jump Jet");
+        removePart(2);
+        File written = journal.save();
+
+        assertTrue(written.getName().endsWith(".journal-0001.gz"));
+        assertEquals(1, CampaignJournal.getJournalFiles(baseFile).size());
+        assertEquals(names, load());
+    }
+
+    @Test
+    public void testCompactsJournalsIntoNewBase() throws Exception {
+        journal.setCompactionInterval(2);
+        for (int id = 1; id <= 10; id++) {
+            addPart(id, "Part " + id);
+        }
+        journal.save();
+
+        renamePart(1, "First");
+        journal.save();
+        renamePart(2, "Second");
+        journal.save();
+        assertEquals(2, CampaignJournal.getJournalFiles(baseFile).size());
+        assertEquals(names, load());
+
+        renamePart(3, "Third");
+        assertEquals(baseFile, journal.save());
+        assertTrue(CampaignJournal.getJournalFiles(baseFile).isEmpty());
+        assertEquals(names, load());
+    }
+
+    @Test
+    public void testIgnoresJournalsOfEarlierBase() throws Exception {
+        journal.setCompactionInterval(1);
+        for (int id = 1; id <= 10; id++) {
+            addPart(id, "Part " + id);
+        }
+        journal.save();
+
+        renamePart(1, "Old");
+        File stale = journal.save();
+        byte[] staleContent = Files.readAllBytes(stale.toPath());
+
+        renamePart(1, "New");
+        assertEquals(baseFile, journal.save());
+        // As if removing the journal of the earlier base had failed
+        Files.write(stale.toPath(), staleContent);
+
+        assertEquals("New", load().get(1));
+    }
+}
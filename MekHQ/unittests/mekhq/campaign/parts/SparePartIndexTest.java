@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2020 - The MegaMek Team
+ *
+ * This file is part of MekHQ.
+ *
+ * MekHQ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MekHQ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MekHQ.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mekhq.campaign.parts;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class SparePartIndexTest {
+
+    private static Part mockPart(int id, boolean spare) {
+        Part part = Mockito.mock(Part.class);
+        Mockito.when(part.getId()).thenReturn(id);
+        Mockito.when(part.isSpare()).thenReturn(spare);
+        return part;
+    }
+
+    @Test
+    public void testFindsLowestIdMatchingSpare() {
+        Part query = mockPart(1, true);
+        Part other = mockPart(2, true);
+        Part firstMatch = mockPart(3, true);
+        Part secondMatch = mockPart(4, true);
+        Mockito.when(query.isSamePartTypeAndStatus(firstMatch)).thenReturn(true);
+        Mockito.when(query.isSamePartTypeAndStatus(secondMatch)).thenReturn(true);
+
+        SparePartIndex index = new SparePartIndex();
+        index.add(secondMatch);
+        index.add(query);
+        index.add(other);
+        index.add(firstMatch);
+
+        Assert.assertSame(firstMatch, index.findSpareFor(query));
+
+        index.remove(firstMatch);
+        Assert.assertSame(secondMatch, index.findSpareFor(query));
+    }
+
+    @Test
+    public void testIgnoresPartsThatAreNotSpare() {
+        Part query = mockPart(1, true);
+        Part installed = mockPart(2, false);
+        Mockito.when(query.isSamePartTypeAndStatus(Mockito.any())).thenReturn(true);
+
+        SparePartIndex index = new SparePartIndex();
+        index.add(query);
+        index.add(installed);
+        Assert.assertNull(index.findSpareFor(query));
+
+        // Taken off its unit
+        Mockito.when(installed.isSpare()).thenReturn(true);
+        index.update(installed);
+        Assert.assertSame(installed, index.findSpareFor(query));
+
+        // And installed again
+        Mockito.when(installed.isSpare()).thenReturn(false);
+        index.update(installed);
+        Assert.assertNull(index.findSpareFor(query));
+    }
+
+    @Test
+    public void testGetsAllSparesOfSameType() {
+        Part query = mockPart(1, true);
+        Part match = mockPart(2, true);
+        Part other = mockPart(3, true);
+        Part installed = mockPart(4, false);
+        Mockito.when(query.isSamePartType(Mockito.any())).thenReturn(true);
+        Mockito.when(query.isSamePartType(other)).thenReturn(false);
+
+        SparePartIndex index = new SparePartIndex();
+        index.add(query);
+        index.add(match);
+        index.add(other);
+        index.add(installed);
+
+        List<Part> spares = index.getSparesOfSameType(query);
+        Assert.assertEquals(2, spares.size());
+        Assert.assertTrue(spares.contains(query));
+        Assert.assertTrue(spares.contains(match));
+    }
+}
@@ -29,6 +29,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
+import org.joda.time.DateTime;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -124,6 +125,41 @@ public class FactionBorderTrackerTest {
         assertEquals(border.size(), 0);
     }
 
+    @Test
+    public void testFactionBorderTrackerUpdatesChangedOwner() {
+        final DateTime before = new DateTime(3025, 1, 1, 0, 0);
+        final DateTime after = new DateTime(3026, 1, 1, 0, 0);
+        List<Planet> planets = new ArrayList<>();
+        for (int x = -3; x <= 3; x += 2) {
+            for (int y = -2; y <= 2; y += 2) {
+                planets.add(createPlanet(x, y, factionThem));
+            }
+        }
+        planets.add(createPlanet(0, 0, factionUs));
+        // The planet at (1, 0) is captured by "us" on the second date
+        Planet captured = planets.get(7);
+        when(captured.getFactionSet(any())).thenAnswer(inv -> ((DateTime) inv.getArguments()[0]).isBefore(after)
+                ? Collections.singleton(factionThem) : Collections.singleton(factionUs));
+        FactionBorderTracker tracker = new FactionBorderTracker() {
+            @Override
+            protected Collection<Planet> getPlanetList() {
+                return planets;
+            }
+        };
+        tracker.setDefaultBorderSize(1, 1, 1);
+        
+        tracker.setDate(before);
+        assertEquals(2, tracker.getBorderPlanets(factionUs, factionThem).size());
+        assertEquals(12, tracker.getBorders(factionThem).getPlanets().size());
+        
+        tracker.setDate(after);
+        List<Planet> border = tracker.getBorderPlanets(factionUs, factionThem);
+        assertEquals(2, tracker.getBorders(factionUs).getPlanets().size());
+        assertEquals(11, tracker.getBorders(factionThem).getPlanets().size());
+        assertEquals(1, border.size());
+        assertEquals(-1, border.get(0).getX(), RegionPerimeter.EPSILON);
+    }
+
     @Test
     public void testDefaultBorderSize() {
         Faction is = createFaction("is", false, false);
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2020 - The MegaMek Team
+ *
+ * This file is part of MekHQ.
+ *
+ * MekHQ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MekHQ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MekHQ.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mekhq.campaign.universe;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import megamek.common.EquipmentType;
+
+public class HPGNetworkTest {
+
+    private static final DateTime CHANGE = new DateTime(3030, 1, 1, 0, 0);
+    private static final DateTime BEFORE = new DateTime(3025, 1, 1, 0, 0);
+    private static final DateTime AFTER = new DateTime(3035, 1, 1, 0, 0);
+
+    private final List<Planet> planets = new ArrayList<>();
+
+    /**
+     * Adds a planet whose HPG rating changes from <code>before</code> to <code>after</code> on
+     * {@link #CHANGE}, or never changes if both are the same.
+     */
+    private Planet addPlanet(double x, double y, Integer before, Integer after) {
+        Planet planet = mock(Planet.class);
+        when(planet.getX()).thenReturn(x);
+        when(planet.getY()).thenReturn(y);
+        when(planet.getId()).thenReturn(String.format("%f, %f", x, y));
+        when(planet.getHPG(any())).thenAnswer(inv -> {
+            DateTime when = inv.getArgument(0);
+            return ((null != when) && !when.isBefore(CHANGE)) ? after : before;
+        });
+        if (!Objects.equals(before, after)) {
+            Planet.PlanetaryEvent event = new Planet.PlanetaryEvent();
+            event.date = CHANGE;
+            event.hpg = after;
+            when(planet.getEvents()).thenReturn(Collections.singletonList(event));
+        } else {
+            when(planet.getEvents()).thenReturn(Collections.emptyList());
+        }
+        planets.add(planet);
+        return planet;
+    }
+
+    private Planet addOwnershipChange(double x, double y, Integer hpg) {
+        Planet planet = addPlanet(x, y, hpg, hpg);
+        Planet.PlanetaryEvent event = new Planet.PlanetaryEvent();
+        event.date = CHANGE;
+        event.faction = Collections.singletonList("FS"); //$NON-NLS-1$
+        when(planet.getEvents()).thenReturn(Collections.singletonList(event));
+        return planet;
+    }
+
+    @Test
+    public void testUpdateMatchesFullBuild() {
+        final Integer a = EquipmentType.RATING_A;
+        final Integer b = EquipmentType.RATING_B;
+        // A grid of planets 20 light years apart, so only a few change
+        for (int x = 0; x < 5; x++) {
+            for (int y = 0; y < 4; y++) {
+                if ((x == 1) && (y == 1)) {
+                    // Loses its HPG-A station
+                    addPlanet(x * 20, y * 20, a, b);
+                } else if ((x == 3) && (y == 2)) {
+                    // Gains an HPG-A station
+                    addPlanet(x * 20, y * 20, null, a);
+                } else if ((x == 4) && (y == 0)) {
+                    // Loses its HPG
+                    addPlanet(x * 20, y * 20, b, null);
+                } else if ((x == 2) && (y == 3)) {
+                    addOwnershipChange(x * 20, y * 20, b);
+                } else {
+                    addPlanet(x * 20, y * 20, ((x + y) % 3 == 0) ? a : b, ((x + y) % 3 == 0) ? a : b);
+                }
+            }
+        }
+        PlanetSpatialIndex index = new PlanetSpatialIndex(planets);
+        HPGNetwork network = new HPGNetwork(index);
+
+        assertEquals(new HashSet<>(new HPGNetwork(index).getLinks(BEFORE)),
+                new HashSet<>(network.getLinks(BEFORE)));
+        // Forwards and back again, each time updating the network built for the other date
+        for (DateTime when : Arrays.asList(AFTER, BEFORE, AFTER)) {
+            assertEquals(new HashSet<>(new HPGNetwork(index).getLinks(when)),
+                    new HashSet<>(network.getLinks(when)));
+        }
+        assertNotEquals(new HashSet<>(network.getLinks(BEFORE)), new HashSet<>(network.getLinks(AFTER)));
+    }
+}
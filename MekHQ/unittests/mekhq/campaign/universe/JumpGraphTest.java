@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2020 - The MegaMek Team
+ *
+ * This file is part of MekHQ.
+ *
+ * MekHQ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MekHQ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MekHQ.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mekhq.campaign.universe;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+public class JumpGraphTest {
+
+    private static final DateTime NOW = new DateTime(3025, 1, 1, 0, 0);
+
+    private Planet createPlanet(final double x, final double y, final double rechargeTime) {
+        Planet planet = mock(Planet.class);
+        when(planet.getX()).thenReturn(x);
+        when(planet.getY()).thenReturn(y);
+        when(planet.getId()).thenReturn(String.format("%f, %f", x, y));
+        when(planet.getRechargeTime(any())).thenReturn(rechargeTime);
+        return planet;
+    }
+
+    @Test
+    public void testFindsPathAlongChain() {
+        Planet start = createPlanet(0, 0, 100);
+        Planet middle = createPlanet(25, 0, 100);
+        Planet end = createPlanet(50, 0, 100);
+        JumpGraph graph = new JumpGraph(Arrays.asList(end, middle, start));
+
+        assertEquals(Arrays.asList(start, middle, end), graph.findPath(start, end, NOW));
+        assertEquals(Arrays.asList(end, middle, start), graph.findPath(end, start, NOW));
+    }
+
+    @Test
+    public void testPrefersFasterRecharge() {
+        Planet start = createPlanet(0, 0, 100);
+        Planet slow = createPlanet(25, 5, 1000);
+        Planet fast = createPlanet(25, -5, 100);
+        Planet stop = createPlanet(50, 0, 100);
+        Planet end = createPlanet(75, 0, 100);
+        JumpGraph graph = new JumpGraph(Arrays.asList(start, slow, fast, stop, end));
+
+        List<Planet> path = graph.findPath(start, end, NOW);
+        assertEquals(Arrays.asList(start, fast, stop, end), path);
+    }
+
+    @Test
+    public void testNoPathOutOfRange() {
+        Planet start = createPlanet(0, 0, 100);
+        Planet end = createPlanet(31, 0, 100);
+        JumpGraph graph = new JumpGraph(Arrays.asList(start, end));
+
+        assertTrue(graph.findPath(start, end, NOW).isEmpty());
+    }
+
+    @Test
+    public void testCachesPathsUntilRechargeStationsChange() {
+        Planet start = createPlanet(0, 0, 100);
+        Planet middle = createPlanet(25, 0, 100);
+        Planet end = createPlanet(50, 0, 100);
+        Planet.PlanetaryEvent event = new Planet.PlanetaryEvent();
+        event.date = new DateTime(3030, 1, 1, 0, 0);
+        event.nadirCharge = Boolean.TRUE;
+        when(middle.getEvents()).thenReturn(Collections.singletonList(event));
+        JumpGraph graph = new JumpGraph(Arrays.asList(start, middle, end));
+
+        List<Planet> path = graph.findPath(start, end, NOW);
+        assertSame(path, graph.findPath(start, end, NOW.plusDays(100)));
+        assertEquals(1, graph.getCacheHits());
+        assertEquals(1, graph.getCacheMisses());
+
+        // Past the change, and after clearing, the path has to be searched for again
+        assertEquals(path, graph.findPath(start, end, new DateTime(3031, 1, 1, 0, 0)));
+        assertEquals(2, graph.getCacheMisses());
+        graph.clearRechargeTimes();
+        graph.findPath(start, end, NOW);
+        assertEquals(3, graph.getCacheMisses());
+    }
+}
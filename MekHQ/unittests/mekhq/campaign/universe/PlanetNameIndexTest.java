@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2020 - The MegaMek Team
+ *
+ * This file is part of MekHQ.
+ *
+ * MekHQ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MekHQ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MekHQ.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mekhq.campaign.universe;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+public class PlanetNameIndexTest {
+
+    private Planet createPlanet(String name, Planet.PlanetaryEvent... events) {
+        Planet planet = mock(Planet.class);
+        when(planet.getName(null)).thenReturn(name);
+        when(planet.getEvents()).thenReturn(Arrays.asList(events));
+        return planet;
+    }
+
+    private Planet.PlanetaryEvent createNameChange(int year, String name) {
+        Planet.PlanetaryEvent event = new Planet.PlanetaryEvent();
+        event.date = new DateTime(year, 1, 1, 0, 0);
+        event.name = name;
+        return event;
+    }
+
+    @Test
+    public void testFindsNameValidAtDate() {
+        Planet planet = createPlanet("Old Name", createNameChange(3000, "New Name"));
+        PlanetNameIndex index = new PlanetNameIndex(Collections.singletonList(planet));
+
+        assertSame(planet, index.getPlanetByName("old name", new DateTime(2999, 12, 31, 0, 0)));
+        assertNull(index.getPlanetByName("old name", new DateTime(3000, 1, 1, 0, 0)));
+        assertSame(planet, index.getPlanetByName("NEW NAME", new DateTime(3000, 1, 1, 0, 0)));
+        assertNull(index.getPlanetByName("new name", new DateTime(2999, 12, 31, 0, 0)));
+        assertSame(planet, index.getPlanetByName("Old Name", null));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2020 - The MegaMek Team
+ *
+ * This file is part of MekHQ.
+ *
+ * MekHQ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MekHQ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MekHQ.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mekhq.campaign.universe;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PlanetSpatialIndexTest {
+
+    private List<Planet> planets;
+    private PlanetSpatialIndex index;
+
+    // A 9x9 grid of planets with 20 ly between neighbours, centered on (0, 0)
+    @Before
+    public void init() {
+        planets = new ArrayList<>();
+        for (int x = -80; x <= 80; x += 20) {
+            for (int y = -80; y <= 80; y += 20) {
+                planets.add(createPlanet(x, y));
+            }
+        }
+        index = new PlanetSpatialIndex(planets);
+    }
+
+    private Planet createPlanet(final double x, final double y) {
+        Planet planet = mock(Planet.class);
+        when(planet.getX()).thenReturn(x);
+        when(planet.getY()).thenReturn(y);
+        return planet;
+    }
+
+    private Set<Planet> bruteForceWithin(double x, double y, double radius) {
+        Set<Planet> result = new HashSet<>();
+        for (Planet planet : planets) {
+            if (Math.hypot(planet.getX() - x, planet.getY() - y) <= radius) {
+                result.add(planet);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testFindWithinMatchesBruteForce() {
+        double[][] queries = { { 0, 0, 30 }, { -75, 63, 45 }, { 5, -17, 0 }, { 200, 200, 30 }, { 0, 0, 1000 } };
+        for (double[] query : queries) {
+            Set<Planet> found = new HashSet<>();
+            for (int i : index.findWithin(query[0], query[1], query[2])) {
+                found.add(index.getPlanet(i));
+            }
+            assertEquals(bruteForceWithin(query[0], query[1], query[2]), found);
+        }
+    }
+
+    @Test
+    public void testFindNearest() {
+        int[] nearest = index.findNearest(21, 19, 3);
+        assertEquals(3, nearest.length);
+        assertEquals(20.0, index.getX(nearest[0]), 0.0);
+        assertEquals(20.0, index.getY(nearest[0]), 0.0);
+
+        // Far outside the grid, the closest corner
+        nearest = index.findNearest(500, -500, 1);
+        assertEquals(80.0, index.getX(nearest[0]), 0.0);
+        assertEquals(-80.0, index.getY(nearest[0]), 0.0);
+    }
+
+    @Test
+    public void testVisitRectangle() {
+        Set<Planet> found = new HashSet<>();
+        index.visitRectangle(-20, 0, 20, 40, i -> found.add(index.getPlanet(i)));
+        assertEquals(9, found.size());
+        for (Planet planet : found) {
+            assertTrue((planet.getX() >= -20) && (planet.getX() <= 20));
+            assertTrue((planet.getY() >= 0) && (planet.getY() <= 40));
+        }
+    }
+}
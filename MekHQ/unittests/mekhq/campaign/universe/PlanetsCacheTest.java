@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2020 - The MegaMek Team
+ *
+ * This file is part of MekHQ.
+ *
+ * MekHQ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MekHQ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MekHQ.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mekhq.campaign.universe;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.joda.time.DateTime;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PlanetsCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Planet createPlanet() {
+        Planet planet = new Planet("Terra");
+        planet.getOrCreateEvent(new DateTime(2750, 1, 1, 0, 0)).faction = Collections.singletonList("TH");
+        return planet;
+    }
+
+    @Test
+    public void testReadsBackSavedPlanets() throws IOException {
+        File source = folder.newFile("planets.xml");
+        PlanetsCache cache = new PlanetsCache(new File(folder.getRoot(), "planets.cache"),
+                Collections.singletonList(source));
+        cache.save(Collections.singletonList(createPlanet()), 1234);
+
+        List<Planet> planets = cache.load();
+
+        assertNotNull(planets);
+        assertEquals(1, planets.size());
+        assertEquals("Terra", planets.get(0).getId());
+        assertEquals(Collections.singletonList("TH"), planets.get(0).getFactions(new DateTime(3025, 1, 1, 0, 0)));
+        assertEquals(1234, cache.getXmlLoadTime());
+    }
+
+    @Test
+    public void testIgnoresCacheWhenSourceChanged() throws IOException {
+        File source = folder.newFile("planets.xml");
+        File cacheFile = new File(folder.getRoot(), "planets.cache");
+        new PlanetsCache(cacheFile, Collections.singletonList(source))
+            .save(Collections.singletonList(createPlanet()), 1234);
+
+        assertTrue(source.setLastModified(source.lastModified() - 10000));
+
+        assertNull(new PlanetsCache(cacheFile, Collections.singletonList(source)).load());
+    }
+
+    @Test
+    public void testIgnoresMissingCache() {
+        PlanetsCache cache = new PlanetsCache(new File(folder.getRoot(), "planets.cache"),
+                Collections.emptyList());
+
+        assertNull(cache.load());
+    }
+}